@@ -0,0 +1,300 @@
+/**
+ * File: ConcurrentGrid.java
+ * Description: Thread-safe wrapper around {@link Grid} for boards that one game
+ *              thread updates while other threads (renderers, spectator feeds,
+ *              background solvers) observe them.
+ *
+ * Features:
+ * - Single writer guarded by a {@link StampedLock} write stamp per update
+ * - Readers use optimistic stamps and retry when a write overlaps, so they
+ *   take no lock and never delay the writer in the common case
+ * - Consistent whole-board snapshots for readers, including across resizes
+ * - Batched updates that readers observe as a single change
+ * - Count of reads that had to fall back to a shared read lock
+ */
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Single-writer, multi-reader view of a {@link Grid}. All updates go through
+ * this class and run under the write lock; they are meant to come from one
+ * game thread, though several writers are serialized correctly. Reads run
+ * without locking: each read takes an optimistic stamp, reads the grid and
+ * validates the stamp, retrying a few times if a write intervened before
+ * falling back to a read lock. Only that fallback can hold up the writer, and
+ * only for the length of one read.
+ *
+ * @param <T> type of {@link GamePiece} stored in the grid
+ */
+public final class ConcurrentGrid<T extends GamePiece> {
+    /** Optimistic attempts before a read takes the read lock. */
+    private static final int OPTIMISTIC_ATTEMPTS = 8;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder readFallbacks = new LongAdder();
+    private final Grid<T> grid;
+
+    /**
+     * Creates an empty concurrent grid with {@link Grid.Storage#FLAT} storage.
+     *
+     * @param componentType The class type of elements to store in the grid
+     * @param rows          The number of rows in the grid
+     * @param cols          The number of columns in the grid
+     * @throws IllegalArgumentException if rows or cols are less than 1
+     */
+    public ConcurrentGrid(Class<T> componentType, int rows, int cols) {
+        this(new Grid<>(componentType, rows, cols, Grid.Storage.FLAT));
+    }
+
+    /**
+     * Wraps an existing grid. The grid must not be used directly afterwards,
+     * from any thread, or readers may see torn state.
+     *
+     * @param grid grid to guard
+     */
+    public ConcurrentGrid(Grid<T> grid) {
+        this.grid = Objects.requireNonNull(grid, "grid must not be null");
+    }
+
+    /**
+     * @return number of rows in the grid
+     */
+    public int getRows() {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            int rows = grid.getRows();
+            if (stamp != 0 && lock.validate(stamp)) {
+                return rows;
+            }
+            Thread.onSpinWait();
+        }
+        readFallbacks.increment();
+        long stamp = lock.readLock();
+        try {
+            return grid.getRows();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return number of columns in the grid
+     */
+    public int getCols() {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            int cols = grid.getCols();
+            if (stamp != 0 && lock.validate(stamp)) {
+                return cols;
+            }
+            Thread.onSpinWait();
+        }
+        readFallbacks.increment();
+        long stamp = lock.readLock();
+        try {
+            return grid.getCols();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the piece in a cell as of some moment between the call and its
+     * return.
+     *
+     * @param row The row index
+     * @param col The column index
+     * @return piece in the cell, or {@code null} if the cell is empty
+     * @throws IndexOutOfBoundsException if the position is outside the grid
+     */
+    public T getPiece(int row, int col) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            try {
+                T piece = grid.getPiece(row, col);
+                if (lock.validate(stamp)) {
+                    return piece;
+                }
+            } catch (RuntimeException e) {
+                // A concurrent resize can make a read fail; only a validated
+                // read reports its failure.
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        readFallbacks.increment();
+        long stamp = lock.readLock();
+        try {
+            return grid.getPiece(row, col);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return position hash of the grid as of some moment during the call
+     */
+    public long getZobristHash() {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            long hash = grid.getZobristHash();
+            if (stamp != 0 && lock.validate(stamp)) {
+                return hash;
+            }
+            Thread.onSpinWait();
+        }
+        readFallbacks.increment();
+        long stamp = lock.readLock();
+        try {
+            return grid.getZobristHash();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies the whole board as it stood between two updates. The snapshot's
+     * dimensions, pieces and hash always belong to the same position.
+     *
+     * @return frozen copy of the grid
+     */
+    public Grid.Snapshot<T> snapshot() {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            try {
+                Grid.Snapshot<T> snapshot = grid.copySnapshot();
+                if (lock.validate(stamp)) {
+                    return snapshot;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        readFallbacks.increment();
+        long stamp = lock.readLock();
+        try {
+            return grid.copySnapshot();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Number of reads that failed every optimistic attempt and took the read
+     * lock. A count that keeps rising means readers are racing a busy writer.
+     *
+     * @return fallback count since construction
+     */
+    public long getReadFallbacks() {
+        return readFallbacks.sum();
+    }
+
+    /**
+     * Places a piece in a cell.
+     *
+     * @param row   The row index
+     * @param col   The column index
+     * @param value The piece to place
+     */
+    public void setPiece(int row, int col, T value) {
+        long stamp = lock.writeLock();
+        try {
+            grid.setPiece(row, col, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Empties a cell.
+     *
+     * @param row The row index
+     * @param col The column index
+     */
+    public void clearTile(int row, int col) {
+        long stamp = lock.writeLock();
+        try {
+            grid.clearTile(row, col);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Swaps the pieces in two cells. Readers see either both cells before the
+     * swap or both after it.
+     *
+     * @param row1 Row index of the first cell
+     * @param col1 Column index of the first cell
+     * @param row2 Row index of the second cell
+     * @param col2 Column index of the second cell
+     */
+    public void swap(int row1, int col1, int row2, int col2) {
+        long stamp = lock.writeLock();
+        try {
+            grid.swap(row1, col1, row2, col2);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Fills every cell with a piece.
+     *
+     * @param value The piece to fill with, or {@code null} to clear the grid
+     */
+    public void fill(T value) {
+        long stamp = lock.writeLock();
+        try {
+            grid.fill(value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Resizes the grid, keeping the overlapping cells.
+     *
+     * @param newRows The new number of rows
+     * @param newCols The new number of columns
+     */
+    public void resize(int newRows, int newCols) {
+        long stamp = lock.writeLock();
+        try {
+            grid.resize(newRows, newCols);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Applies several changes as one update, such as a move that shifts
+     * pieces and clears a cell. Readers see the grid before or after the whole
+     * update, never in between. The action must not keep the grid it receives
+     * or hand it to other threads.
+     *
+     * @param action changes to apply to the underlying grid
+     */
+    public void update(Consumer<? super Grid<T>> action) {
+        long stamp = lock.writeLock();
+        try {
+            action.accept(grid);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
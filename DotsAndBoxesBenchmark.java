@@ -0,0 +1,323 @@
+/**
+ * File: DotsAndBoxesBenchmark.java
+ * Description: Command-line benchmarks for the Dots and Boxes engine. Times
+ *              edge drawing and board copies on the bitboard, compares
+ *              incremental chain analysis updates against rebuilding it, and
+ *              runs the alpha-beta computer player on 3x3, 4x4 and 5x5 boards,
+ *              from the empty board and from the point where safe moves run
+ *              out, reporting nodes per second and the depth reached within the
+ *              default move budget. Also reports Monte Carlo playouts per
+ *              second on a 7x7 board from one worker thread up to the core
+ *              count, and probes and stores per second on the shared
+ *              transposition table over the same thread counts.
+ *
+ * Usage: java DotsAndBoxesBenchmark [board|chains|search|mcts|table]
+ */
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Lightweight benchmark harness for Dots and Boxes components. Each scenario
+ * warms up before timing and reports throughput on standard output.
+ */
+public final class DotsAndBoxesBenchmark {
+    private static final int[] BOARD_SIZES = { 3, 4, 5 };
+    private static final long WARMUP_NANOS = 200_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    /** Accumulates results so the JIT cannot discard the measured work. */
+    private static long sink;
+
+    private DotsAndBoxesBenchmark() {
+    }
+
+    /**
+     * Runs the requested benchmark scenarios (all scenarios when no argument is
+     * supplied).
+     *
+     * @param args optional scenario name
+     */
+    public static void main(String[] args) {
+        String scenario = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "all";
+        switch (scenario) {
+            case "board":
+                benchmarkBoard();
+                break;
+            case "chains":
+                benchmarkChains();
+                break;
+            case "search":
+                benchmarkSearch();
+                break;
+            case "mcts":
+                benchmarkMcts();
+                break;
+            case "table":
+                benchmarkTable();
+                break;
+            case "all":
+                benchmarkBoard();
+                benchmarkChains();
+                benchmarkSearch();
+                benchmarkMcts();
+                benchmarkTable();
+                break;
+            default:
+                System.out.println("Unknown scenario: " + scenario);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Times drawing every edge of a board in a fixed random order, and copying
+     * a half-drawn board.
+     */
+    private static void benchmarkBoard() {
+        System.out.println("=== Board edge drawing and copies ===");
+        System.out.println(String.format(Locale.ROOT, "%-6s %14s %14s", "Board", "Draw ns/edge", "Copy ns"));
+        for (int n : new int[] { 3, 5, 10, 20 }) {
+            DotsAndBoxesBoard board = new DotsAndBoxesBoard(n, n);
+            int[] order = shuffledEdges(board.getEdgeCount(), new SplittableRandom(n));
+            double draw = measureNanos(() -> {
+                board.clear();
+                for (int i = 0; i < order.length; i++) {
+                    sink += board.drawEdge(order[i], i & 1);
+                }
+                return order.length;
+            });
+            board.clear();
+            for (int i = 0; i < order.length / 2; i++) {
+                board.drawEdge(order[i], i & 1);
+            }
+            double copy = measureNanos(() -> {
+                sink += board.copy().getDrawnEdgeCount();
+                return 1;
+            });
+            System.out.println(String.format(Locale.ROOT, "%-6s %14.2f %14.2f", n + "x" + n, draw, copy));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Times following a whole game edge by edge with the chain analysis, and
+     * rebuilding the analysis from a half-drawn board, the cost every move
+     * would pay without incremental updates.
+     */
+    private static void benchmarkChains() {
+        System.out.println("=== Chain analysis updates ===");
+        System.out.println(String.format(Locale.ROOT, "%-6s %16s %14s", "Board", "Update ns/edge", "Rebuild ns"));
+        for (int n : new int[] { 3, 5, 10, 20 }) {
+            DotsAndBoxesBoard empty = new DotsAndBoxesBoard(n, n);
+            DotsAndBoxesChains chains = new DotsAndBoxesChains(empty);
+            int[] order = shuffledEdges(empty.getEdgeCount(), new SplittableRandom(n));
+            double update = measureNanos(() -> {
+                for (int edge : order) {
+                    chains.drawEdge(edge);
+                    sink += chains.getChainCount();
+                }
+                for (int edge : order) {
+                    chains.undrawEdge(edge);
+                }
+                return order.length * 2;
+            });
+            DotsAndBoxesBoard board = new DotsAndBoxesBoard(n, n);
+            for (int i = 0; i < order.length / 2; i++) {
+                board.drawEdge(order[i], 0);
+            }
+            double rebuild = measureNanos(() -> {
+                chains.load(board);
+                sink += chains.getChainCount();
+                return 1;
+            });
+            System.out.println(String.format(Locale.ROOT, "%-6s %16.2f %14.2f", n + "x" + n, update, rebuild));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Runs one move search per board size and position with the default
+     * budget and a fresh transposition table.
+     */
+    private static void benchmarkSearch() {
+        System.out.println("=== Alpha-beta search (" + DotsAndBoxesSearch.DEFAULT_BUDGET_MILLIS + " ms per move) ===");
+        System.out.println(String.format(Locale.ROOT, "%-6s %-9s %6s %7s %12s %12s %7s %6s", "Board", "Position",
+                "Left", "Depth", "Nodes", "Nodes/sec", "Solved", "Value"));
+        // Warm the JIT on a board that is not reported.
+        new DotsAndBoxesSearch(4, 4, 16).search(new DotsAndBoxesBoard(4, 4), WARMUP_NANOS / 1_000_000L);
+        for (int n : BOARD_SIZES) {
+            report(n, "opening", new DotsAndBoxesBoard(n, n));
+            report(n, "endgame", endgameStart(n, new SplittableRandom(n)));
+        }
+        System.out.println();
+    }
+
+    private static void report(int n, String label, DotsAndBoxesBoard board) {
+        DotsAndBoxesSearch search = new DotsAndBoxesSearch(n, n);
+        DotsAndBoxesSearch.Result result = search.search(board, DotsAndBoxesSearch.DEFAULT_BUDGET_MILLIS);
+        System.out.println(String.format(Locale.ROOT, "%-6s %-9s %6d %7d %12d %12.3e %7s %6d", n + "x" + n, label,
+                board.getEdgeCount() - board.getDrawnEdgeCount(), result.getDepth(), result.getNodes(),
+                result.getNodes() * 1e9 / result.getElapsedNanos(), result.isSolved() ? "yes" : "no",
+                result.getValue()));
+    }
+
+    /**
+     * Runs one Monte Carlo search of the default budget on an empty 7x7 board
+     * with 1, 2, 4, ... worker threads up to the core count, reporting
+     * playouts per second and the speedup over one thread.
+     */
+    private static void benchmarkMcts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("=== Monte Carlo tree search scaling, 7x7 (" + DotsAndBoxesMcts.DEFAULT_BUDGET_MILLIS
+                + " ms per move, " + cores + " available cores) ===");
+        System.out.println(String.format(Locale.ROOT, "%-8s %12s %12s %12s %9s", "Threads", "Playouts",
+                "Playouts/sec", "Nodes", "Speedup"));
+        DotsAndBoxesBoard board = new DotsAndBoxesBoard(7, 7);
+        double baseline = 0;
+        for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(threads * 2, cores)
+                : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                DotsAndBoxesMcts mcts = new DotsAndBoxesMcts(7, 7, pool);
+                mcts.search(board, WARMUP_NANOS / 1_000_000L);
+                DotsAndBoxesMcts.Result result = mcts.search(board, DotsAndBoxesMcts.DEFAULT_BUDGET_MILLIS);
+                double rate = result.getPlayouts() * 1e9 / result.getElapsedNanos();
+                if (threads == 1) {
+                    baseline = rate;
+                }
+                System.out.println(String.format(Locale.ROOT, "%-8d %12d %12.3e %12d %8.2fx", threads,
+                        result.getPlayouts(), rate, result.getNodes(), rate / baseline));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Has 1, 2, 4, ... threads up to the core count each probe a random key of
+     * the shared transposition table and store it, reporting the combined
+     * rate. Keys are random, so threads meet on a lock stripe no more often
+     * than a search's scattered hashes would.
+     */
+    private static void benchmarkTable() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("=== Shared transposition table (" + DotsAndBoxesTranspositionTable.DEFAULT_STRIPES
+                + " stripes, " + cores + " available cores) ===");
+        System.out.println(String.format(Locale.ROOT, "%-8s %16s %9s", "Threads", "Probe+store/sec", "Speedup"));
+        DotsAndBoxesTranspositionTable table = new DotsAndBoxesTranspositionTable();
+        double baseline = 0;
+        for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(threads * 2, cores)
+                : threads + 1) {
+            LongAdder operations = new LongAdder();
+            LongAdder found = new LongAdder();
+            Thread[] workers = new Thread[threads];
+            for (int i = 0; i < threads; i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                workers[i] = new Thread(() -> {
+                    long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+                    long end = warmupEnd + MEASURE_NANOS;
+                    long count = 0;
+                    long hits = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        for (int j = 0; j < 1024; j++) {
+                            long key = random.nextLong();
+                            hits += table.probe(key);
+                            table.store(key, key | Long.MIN_VALUE);
+                        }
+                        if (now >= warmupEnd) {
+                            count += 1024;
+                        }
+                    }
+                    operations.add(count);
+                    found.add(hits);
+                });
+                workers[i].start();
+            }
+            try {
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            sink += found.sum();
+            double rate = operations.sum() * 1e9 / MEASURE_NANOS;
+            if (threads == 1) {
+                baseline = rate;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-8d %16.3e %8.2fx", threads, rate, rate / baseline));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Draws random edges that leave no box with three sides until no such
+     * edge remains, the position where a game turns into its endgame.
+     */
+    private static DotsAndBoxesBoard endgameStart(int n, SplittableRandom random) {
+        DotsAndBoxesBoard board = new DotsAndBoxesBoard(n, n);
+        DotsAndBoxesGeometry geometry = board.getGeometry();
+        int[] order = shuffledEdges(board.getEdgeCount(), random);
+        boolean drew;
+        do {
+            drew = false;
+            for (int edge : order) {
+                if (!board.isDrawn(edge) && isSafe(board, geometry, edge)) {
+                    board.drawEdge(edge, 0);
+                    drew = true;
+                }
+            }
+        } while (drew);
+        return board;
+    }
+
+    private static boolean isSafe(DotsAndBoxesBoard board, DotsAndBoxesGeometry geometry, int edge) {
+        for (int i = 0; i < 2; i++) {
+            int box = geometry.getEdgeBox(edge, i);
+            if (box >= 0 && board.getBoxEdgeCount(box / board.getCols(), box % board.getCols()) >= 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] shuffledEdges(int edgeCount, SplittableRandom random) {
+        int[] order = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            order[i] = i;
+        }
+        for (int i = edgeCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Times a workload; returns nanoseconds per operation.
+     */
+    private static double measureNanos(IntSupplier workload) {
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            workload.getAsInt();
+        }
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operations += workload.getAsInt();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return (double) elapsed / operations;
+    }
+}
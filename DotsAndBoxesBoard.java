@@ -0,0 +1,337 @@
+/**
+ * File: DotsAndBoxesBoard.java
+ * Description: Bitboard engine for Dots and Boxes. Stores every edge exactly
+ *              once and derives box completion from bit masks, so moves,
+ *              completion checks and copies cost a few word operations.
+ *
+ * Features:
+ * - Horizontal edges in one {@code long} per line of dots, bit {@code c} for
+ *   the edge above or below box column {@code c}
+ * - Vertical edges in one {@code long} per row of boxes, bit {@code c} for
+ *   the edge left of box column {@code c}
+ * - Completed boxes of a row found with a single mask expression
+ * - Per-edge and per-box owner slots in byte arrays
+ * - Incrementally maintained {@link Zobrist} hash of the drawn edges
+ */
+
+import java.util.Arrays;
+
+/**
+ * Edge and ownership state of a Dots and Boxes board with {@code rows} by
+ * {@code cols} boxes. Edges are numbered as in
+ * {@link DotsAndBoxesGame#getPositionHash()}: the {@code (rows + 1) * cols}
+ * horizontal edges row by row, followed by the {@code rows * (cols + 1)}
+ * vertical edges. Owners are small non-negative slot numbers chosen by the
+ * caller, such as a player's index.
+ */
+public final class DotsAndBoxesBoard {
+    /** Widest supported board: a row of vertical edges must fit in a long. */
+    public static final int MAX_COLS = Long.SIZE - 1;
+    /** Largest owner slot that fits the owner arrays. */
+    public static final int MAX_OWNER = Byte.MAX_VALUE - 1;
+
+    private final DotsAndBoxesGeometry geometry;
+    private final int rows;
+    private final int cols;
+    private final long[] horizontal;
+    private final long[] vertical;
+    private final byte[] edgeOwners;
+    private final byte[] boxOwners;
+    private int drawnEdges;
+    private int claimedBoxes;
+    private long hash;
+
+    /**
+     * Creates an empty board.
+     *
+     * @param rows number of box rows
+     * @param cols number of box columns, at most {@link #MAX_COLS}
+     * @throws IllegalArgumentException if a dimension is out of range
+     */
+    public DotsAndBoxesBoard(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        if (cols > MAX_COLS) {
+            throw new IllegalArgumentException("Boards are limited to " + MAX_COLS + " columns.");
+        }
+        this.geometry = DotsAndBoxesGeometry.of(rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.horizontal = new long[rows + 1];
+        this.vertical = new long[rows];
+        this.edgeOwners = new byte[(rows + 1) * cols + rows * (cols + 1)];
+        this.boxOwners = new byte[rows * cols];
+    }
+
+    private DotsAndBoxesBoard(DotsAndBoxesBoard source) {
+        this.geometry = source.geometry;
+        this.rows = source.rows;
+        this.cols = source.cols;
+        this.horizontal = source.horizontal.clone();
+        this.vertical = source.vertical.clone();
+        this.edgeOwners = source.edgeOwners.clone();
+        this.boxOwners = source.boxOwners.clone();
+        this.drawnEdges = source.drawnEdges;
+        this.claimedBoxes = source.claimedBoxes;
+        this.hash = source.hash;
+    }
+
+    /**
+     * @return number of box rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of box columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return shared edge and box tables for this board's shape
+     */
+    public DotsAndBoxesGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return total number of edges on the board
+     */
+    public int getEdgeCount() {
+        return edgeOwners.length;
+    }
+
+    /**
+     * @return number of horizontal edges, which take the lowest edge indices
+     */
+    public int getHorizontalEdgeCount() {
+        return (rows + 1) * cols;
+    }
+
+    /**
+     * @return number of edges drawn so far
+     */
+    public int getDrawnEdgeCount() {
+        return drawnEdges;
+    }
+
+    /**
+     * @return number of completed boxes
+     */
+    public int getClaimedBoxes() {
+        return claimedBoxes;
+    }
+
+    /**
+     * @return {@code true} once every edge is drawn
+     */
+    public boolean isFull() {
+        return drawnEdges == edgeOwners.length;
+    }
+
+    /**
+     * Gets the {@link Zobrist} hash of the drawn edges, the XOR of
+     * {@code Zobrist.key(edge, 1)} over every drawn edge.
+     *
+     * @return position hash, {@code 0} for an empty board
+     */
+    public long getPositionHash() {
+        return hash;
+    }
+
+    /**
+     * Numbers the side of a box.
+     *
+     * @param row  zero-based box row
+     * @param col  zero-based box column
+     * @param edge side of the box
+     * @return edge index shared by both boxes on the edge
+     */
+    public int edgeIndex(int row, int col, DotsAndBoxesEdge edge) {
+        return geometry.edgeIndex(row, col, edge);
+    }
+
+    /**
+     * Checks whether an edge has been drawn.
+     *
+     * @param edge edge index
+     * @return {@code true} when the edge is drawn
+     */
+    public boolean isDrawn(int edge) {
+        int horizontalEdges = getHorizontalEdgeCount();
+        if (edge < horizontalEdges) {
+            return (horizontal[edge / cols] >>> (edge % cols) & 1L) != 0;
+        }
+        int vertical = edge - horizontalEdges;
+        return (this.vertical[vertical / (cols + 1)] >>> (vertical % (cols + 1)) & 1L) != 0;
+    }
+
+    /**
+     * Checks whether a side of a box has been drawn.
+     *
+     * @param row  zero-based box row
+     * @param col  zero-based box column
+     * @param edge side of the box
+     * @return {@code true} when the side is drawn
+     */
+    public boolean hasEdge(int row, int col, DotsAndBoxesEdge edge) {
+        switch (edge) {
+            case TOP:
+                return (horizontal[row] >>> col & 1L) != 0;
+            case BOTTOM:
+                return (horizontal[row + 1] >>> col & 1L) != 0;
+            case LEFT:
+                return (vertical[row] >>> col & 1L) != 0;
+            case RIGHT:
+            default:
+                return (vertical[row] >>> (col + 1) & 1L) != 0;
+        }
+    }
+
+    /**
+     * Counts the drawn sides of a box.
+     *
+     * @param row zero-based box row
+     * @param col zero-based box column
+     * @return count between 0 and 4
+     */
+    public int getBoxEdgeCount(int row, int col) {
+        return (int) ((horizontal[row] >>> col & 1L) + (horizontal[row + 1] >>> col & 1L)
+                + Long.bitCount(vertical[row] >>> col & 3L));
+    }
+
+    /**
+     * Gives the completed boxes of a row as a bit mask: bit {@code c} is set
+     * when the box in column {@code c} has all four sides drawn.
+     *
+     * @param row zero-based box row
+     * @return mask of completed boxes
+     */
+    public long completedMask(int row) {
+        return horizontal[row] & horizontal[row + 1] & vertical[row] & (vertical[row] >>> 1);
+    }
+
+    /**
+     * @param row zero-based box row
+     * @param col zero-based box column
+     * @return {@code true} when all four sides of the box are drawn
+     */
+    public boolean isBoxCompleted(int row, int col) {
+        return (completedMask(row) >>> col & 1L) != 0;
+    }
+
+    /**
+     * @param edge edge index
+     * @return owner slot of the player who drew the edge, or {@code -1}
+     */
+    public int getEdgeOwner(int edge) {
+        return edgeOwners[edge] - 1;
+    }
+
+    /**
+     * @param row zero-based box row
+     * @param col zero-based box column
+     * @return owner slot of the player who completed the box, or {@code -1}
+     */
+    public int getBoxOwner(int row, int col) {
+        return boxOwners[row * cols + col] - 1;
+    }
+
+    /**
+     * Draws an edge and claims the boxes it completes.
+     *
+     * @param edge  edge index
+     * @param owner slot of the drawing player, between 0 and {@link #MAX_OWNER}
+     * @return number of boxes completed (0 to 2), or {@code -1} if the edge
+     *         was already drawn
+     */
+    public int drawEdge(int edge, int owner) {
+        if (owner < 0 || owner > MAX_OWNER) {
+            throw new IllegalArgumentException("Owner slot must be between 0 and " + MAX_OWNER + ": " + owner);
+        }
+        int horizontalEdges = getHorizontalEdgeCount();
+        int completed;
+        if (edge < horizontalEdges) {
+            int line = edge / cols;
+            long bit = 1L << (edge % cols);
+            if ((horizontal[line] & bit) != 0) {
+                return -1;
+            }
+            horizontal[line] |= bit;
+            completed = 0;
+            if (line > 0 && (completedMask(line - 1) & bit) != 0) {
+                claim(line - 1, edge % cols, owner);
+                completed++;
+            }
+            if (line < rows && (completedMask(line) & bit) != 0) {
+                claim(line, edge % cols, owner);
+                completed++;
+            }
+        } else {
+            int index = edge - horizontalEdges;
+            int row = index / (cols + 1);
+            int col = index % (cols + 1);
+            long bit = 1L << col;
+            if ((vertical[row] & bit) != 0) {
+                return -1;
+            }
+            vertical[row] |= bit;
+            long mask = completedMask(row);
+            completed = 0;
+            if (col > 0 && (mask >>> (col - 1) & 1L) != 0) {
+                claim(row, col - 1, owner);
+                completed++;
+            }
+            if (col < cols && (mask >>> col & 1L) != 0) {
+                claim(row, col, owner);
+                completed++;
+            }
+        }
+        edgeOwners[edge] = (byte) (owner + 1);
+        drawnEdges++;
+        hash ^= geometry.getEdgeKey(edge);
+        return completed;
+    }
+
+    /**
+     * Draws a side of a box; see {@link #drawEdge(int, int)}.
+     *
+     * @param row   zero-based box row
+     * @param col   zero-based box column
+     * @param edge  side of the box
+     * @param owner slot of the drawing player
+     * @return number of boxes completed, or {@code -1} if already drawn
+     */
+    public int drawEdge(int row, int col, DotsAndBoxesEdge edge, int owner) {
+        return drawEdge(edgeIndex(row, col, edge), owner);
+    }
+
+    private void claim(int row, int col, int owner) {
+        boxOwners[row * cols + col] = (byte) (owner + 1);
+        claimedBoxes++;
+    }
+
+    /**
+     * Erases every edge and owner.
+     */
+    public void clear() {
+        Arrays.fill(horizontal, 0L);
+        Arrays.fill(vertical, 0L);
+        Arrays.fill(edgeOwners, (byte) 0);
+        Arrays.fill(boxOwners, (byte) 0);
+        drawnEdges = 0;
+        claimedBoxes = 0;
+        hash = 0;
+    }
+
+    /**
+     * @return independent copy of the board
+     */
+    public DotsAndBoxesBoard copy() {
+        return new DotsAndBoxesBoard(this);
+    }
+}
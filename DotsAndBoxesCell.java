@@ -1,41 +1,40 @@
 /**
  * File: DotsAndBoxesCell.java
- * Description: Represents a single Dots and Boxes cell, tracking drawn edges, their colors,
- *              and box ownership state.
+ * Description: Read-only view of a single Dots and Boxes box, reporting its drawn
+ *              edges, who drew them and who owns the box from the shared
+ *              {@link DotsAndBoxesBoard}.
  */
 
-import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 
 /**
- * Represents a single box in the Dots and Boxes grid. Tracks which edges have
- * been drawn and which player, if any, has claimed the box.
+ * Represents a single box in the Dots and Boxes grid. The edge and ownership
+ * state lives in a {@link DotsAndBoxesBoard}; the cell translates it for
+ * rendering, mapping owner slots to players through the game's roster.
  */
 public final class DotsAndBoxesCell implements GamePiece {
-    private final EnumMap<DotsAndBoxesEdge, String> edges;
-    private Player owner;
+    private static final long STATE_KEY = 1L;
 
-    public DotsAndBoxesCell() {
-        this.edges = new EnumMap<>(DotsAndBoxesEdge.class);
-        this.owner = null;
-    }
+    private final DotsAndBoxesBoard board;
+    private final int row;
+    private final int col;
+    private final List<Player> roster;
 
     /**
-     * Attempts to add the specified edge. Returns {@code true} when the edge was
-     * not previously present and is now registered.
+     * Creates a view of one box.
      *
-     * @param edge  edge to add
-     * @param color color code controlling how the edge is rendered
-     * @return {@code true} when edge state changed
+     * @param board  board holding the edges
+     * @param row    zero-based box row
+     * @param col    zero-based box column
+     * @param roster players indexed by the owner slots stored in the board
      */
-    public boolean addEdge(DotsAndBoxesEdge edge, String color) {
-        Objects.requireNonNull(edge, "edge must not be null");
-        if (edges.containsKey(edge)) {
-            return false;
-        }
-        edges.put(edge, color == null ? "" : color);
-        return true;
+    public DotsAndBoxesCell(DotsAndBoxesBoard board, int row, int col, List<Player> roster) {
+        this.board = Objects.requireNonNull(board, "board must not be null");
+        this.row = row;
+        this.col = col;
+        this.roster = Objects.requireNonNull(roster, "roster must not be null");
     }
 
     /**
@@ -45,32 +44,17 @@ public final class DotsAndBoxesCell implements GamePiece {
      * @return {@code true} when the edge exists
      */
     public boolean hasEdge(DotsAndBoxesEdge edge) {
-        return edges.containsKey(edge);
+        return board.hasEdge(row, col, Objects.requireNonNull(edge, "edge must not be null"));
     }
 
     /**
-     * Retrieves the color associated with the supplied edge if present.
+     * Retrieves the player who drew the supplied edge, if any.
      *
      * @param edge edge to inspect
-     * @return ANSI color code or {@code null} when no edge exists
-     */
-    public String getEdgeColor(DotsAndBoxesEdge edge) {
-        return edges.get(edge);
-    }
-
-    /**
-     * Marks the box as claimed by the provided player when all edges are
-     * present and no previous owner exists.
-     *
-     * @param player claiming player
-     * @return {@code true} if the claim succeeded
+     * @return drawing player or {@code null} when no edge exists
      */
-    public boolean claim(Player player) {
-        if (owner != null || !isCompleted()) {
-            return false;
-        }
-        owner = Objects.requireNonNull(player, "player must not be null");
-        return true;
+    public Player getEdgeOwner(DotsAndBoxesEdge edge) {
+        return playerAt(board.getEdgeOwner(board.edgeIndex(row, col, edge)));
     }
 
     /**
@@ -78,7 +62,7 @@ public final class DotsAndBoxesCell implements GamePiece {
      *         unclaimed
      */
     public Player getOwner() {
-        return owner;
+        return playerAt(board.getBoxOwner(row, col));
     }
 
     /**
@@ -87,7 +71,7 @@ public final class DotsAndBoxesCell implements GamePiece {
      * @return {@code true} when the box is complete
      */
     public boolean isCompleted() {
-        return edges.size() == 4;
+        return board.isBoxCompleted(row, col);
     }
 
     /**
@@ -96,11 +80,16 @@ public final class DotsAndBoxesCell implements GamePiece {
      * @return edge count between 0 and 4
      */
     public int getEdgeCount() {
-        return edges.size();
+        return board.getBoxEdgeCount(row, col);
+    }
+
+    private Player playerAt(int slot) {
+        return slot >= 0 && slot < roster.size() ? roster.get(slot) : null;
     }
 
     @Override
     public String getDisplayToken() {
+        Player owner = getOwner();
         if (owner != null) {
             return owner.getTeamTag()
                     .filter(tag -> !tag.isEmpty())
@@ -113,6 +102,18 @@ public final class DotsAndBoxesCell implements GamePiece {
 
     @Override
     public boolean isEmpty() {
-        return owner == null;
+        return board.getBoxOwner(row, col) < 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The token and emptiness of a cell follow the board without passing
+     * through the grid, so every cell hashes by the same fixed key. Positions
+     * are hashed by {@link DotsAndBoxesBoard#getPositionHash()} instead.
+     */
+    @Override
+    public long getStateKey() {
+        return STATE_KEY;
     }
 }
@@ -0,0 +1,520 @@
+/**
+ * File: DotsAndBoxesChains.java
+ * Description: Incremental chain and loop decomposition of a Dots and Boxes
+ *              position, the structure that decides endgames: the long-chain
+ *              rule, double-dealing and the controlled value all follow from
+ *              it.
+ *
+ * Features:
+ * - Chains and loops of boxes with exactly two undrawn sides, kept current as
+ *   edges are drawn and undrawn by re-tracing only the chains next to the
+ *   changed edge
+ * - Chain and loop lengths, long chain count and capturable box count
+ * - Safe move set: undrawn edges that leave no box with three sides
+ * - Controlled value of the long chains and loops, and the long-chain rule
+ */
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Chain and loop analysis of a Dots and Boxes position. A chain is a maximal
+ * path of unclaimed boxes that each have exactly two undrawn sides, linked
+ * through those sides; its ends lead off the board or into a box with another
+ * number of undrawn sides. A loop is such a path that closes on itself.
+ * Drawing a side of any box in a chain or loop offers the whole of it to the
+ * opponent.
+ * <p>
+ * The analysis is created from a {@link DotsAndBoxesBoard} and then follows
+ * the position through {@link #drawEdge(int)} and {@link #undrawEdge(int)};
+ * each update costs time proportional to the lengths of the chains next to
+ * the edge rather than to the board. Instances are not thread-safe.
+ */
+public final class DotsAndBoxesChains {
+    /** Shortest chain counted as long: giving one away can be answered by a double-deal. */
+    public static final int LONG_CHAIN = 3;
+
+    private final DotsAndBoxesGeometry geometry;
+    private final int boxCount;
+    private final int[] edgeBoxes;
+    private final int[] boxEdges;
+    private final byte[] sides;
+    private final boolean[] drawn;
+    private final boolean[] safe;
+    private final int[] chainOf;
+    private final int[] chainLength;
+    private final boolean[] chainLoop;
+    private final int[] chainHead;
+    private final int[] freeIds;
+    private final int[] pending;
+    private final int[] marks;
+
+    private int freeCount;
+    private int pendingCount;
+    private int epoch;
+    private int chainCount;
+    private int loopCount;
+    private int longChainCount;
+    private int longChainBoxes;
+    private int loopBoxes;
+    private int capturable;
+    private int openBoxes;
+    private int safeCount;
+
+    /**
+     * Analyses the current position of a board.
+     *
+     * @param board position to analyse; later changes must be passed on through
+     *              {@link #drawEdge(int)}
+     */
+    public DotsAndBoxesChains(DotsAndBoxesBoard board) {
+        this.geometry = board.getGeometry();
+        this.boxCount = geometry.getBoxCount();
+        this.edgeBoxes = geometry.edgeBoxTable();
+        this.boxEdges = geometry.boxEdgeTable();
+        this.sides = new byte[boxCount];
+        this.drawn = new boolean[geometry.getEdgeCount()];
+        this.safe = new boolean[geometry.getEdgeCount()];
+        this.chainOf = new int[boxCount];
+        this.chainLength = new int[boxCount];
+        this.chainLoop = new boolean[boxCount];
+        this.chainHead = new int[boxCount];
+        this.freeIds = new int[boxCount];
+        this.pending = new int[boxCount];
+        this.marks = new int[boxCount];
+        load(board);
+    }
+
+    /**
+     * Discards the current analysis and rebuilds it from a board of the same
+     * shape.
+     *
+     * @param board position to analyse
+     * @throws IllegalArgumentException if the board has another shape
+     */
+    public void load(DotsAndBoxesBoard board) {
+        if (board.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Analysis was built for a different board shape.");
+        }
+        Arrays.fill(sides, (byte) 0);
+        Arrays.fill(chainOf, -1);
+        for (int edge = 0; edge < drawn.length; edge++) {
+            drawn[edge] = board.isDrawn(edge);
+            if (drawn[edge]) {
+                sides[edgeBoxes[edge * 2]]++;
+                if (edgeBoxes[edge * 2 + 1] >= 0) {
+                    sides[edgeBoxes[edge * 2 + 1]]++;
+                }
+            }
+        }
+        freeCount = 0;
+        for (int id = boxCount - 1; id >= 0; id--) {
+            freeIds[freeCount++] = id;
+        }
+        chainCount = 0;
+        loopCount = 0;
+        longChainCount = 0;
+        longChainBoxes = 0;
+        loopBoxes = 0;
+        capturable = 0;
+        openBoxes = 0;
+        safeCount = 0;
+        for (int box = 0; box < boxCount; box++) {
+            if (sides[box] == 3) {
+                capturable++;
+            }
+            if (sides[box] < 4) {
+                openBoxes++;
+            }
+        }
+        for (int edge = 0; edge < drawn.length; edge++) {
+            safe[edge] = computeSafe(edge);
+            if (safe[edge]) {
+                safeCount++;
+            }
+        }
+        for (int box = 0; box < boxCount; box++) {
+            if (sides[box] == 2 && chainOf[box] < 0) {
+                trace(box);
+            }
+        }
+    }
+
+    /**
+     * Follows an edge being drawn.
+     *
+     * @param edge edge index, which must be undrawn
+     * @throws IllegalStateException if the edge is already drawn
+     */
+    public void drawEdge(int edge) {
+        if (drawn[edge]) {
+            throw new IllegalStateException("Edge " + edge + " is already drawn.");
+        }
+        update(edge, true);
+    }
+
+    /**
+     * Follows an edge being erased, as search code does when it takes a move
+     * back.
+     *
+     * @param edge edge index, which must be drawn
+     * @throws IllegalStateException if the edge is not drawn
+     */
+    public void undrawEdge(int edge) {
+        if (!drawn[edge]) {
+            throw new IllegalStateException("Edge " + edge + " is not drawn.");
+        }
+        update(edge, false);
+    }
+
+    /**
+     * Dissolves every chain that the change can split or join, applies it,
+     * then traces chains again from the freed boxes. Only the boxes on the
+     * edge and the boxes linked to them can change chain, so the chains
+     * through those are the only ones touched.
+     */
+    private void update(int edge, boolean draw) {
+        epoch++;
+        pendingCount = 0;
+        int first = edgeBoxes[edge * 2];
+        int second = edgeBoxes[edge * 2 + 1];
+        release(first);
+        if (second >= 0) {
+            release(second);
+        }
+
+        drawn[edge] = draw;
+        int delta = draw ? 1 : -1;
+        changeSides(first, delta);
+        if (second >= 0) {
+            changeSides(second, delta);
+        }
+        refreshSafety(first);
+        if (second >= 0) {
+            refreshSafety(second);
+        }
+
+        for (int i = 0; i < pendingCount; i++) {
+            int box = pending[i];
+            if (sides[box] == 2 && chainOf[box] < 0) {
+                trace(box);
+            }
+        }
+    }
+
+    /**
+     * Queues a box on the changed edge and every box linked to it, dissolving
+     * the chains they belong to.
+     */
+    private void release(int box) {
+        enqueue(box);
+        dissolve(box);
+        for (int side = 0; side < 4; side++) {
+            int edge = boxEdges[box * 4 + side];
+            if (!drawn[edge]) {
+                int neighbor = across(edge, box);
+                if (neighbor >= 0) {
+                    enqueue(neighbor);
+                    dissolve(neighbor);
+                }
+            }
+        }
+    }
+
+    private void enqueue(int box) {
+        if (marks[box] != epoch) {
+            marks[box] = epoch;
+            pending[pendingCount++] = box;
+        }
+    }
+
+    private void dissolve(int box) {
+        int id = chainOf[box];
+        if (id < 0) {
+            return;
+        }
+        int length = chainLength[id];
+        if (chainLoop[id]) {
+            loopCount--;
+            loopBoxes -= length;
+        } else {
+            chainCount--;
+            if (length >= LONG_CHAIN) {
+                longChainCount--;
+                longChainBoxes -= length;
+            }
+        }
+        freeIds[freeCount++] = id;
+
+        // Walk the chain from its head, freeing and queueing every box.
+        int current = chainHead[id];
+        int previousEdge = -1;
+        while (current >= 0 && chainOf[current] == id) {
+            chainOf[current] = -1;
+            enqueue(current);
+            int next = -1;
+            for (int side = 0; side < 4 && next < 0; side++) {
+                int edge = boxEdges[current * 4 + side];
+                if (!drawn[edge] && edge != previousEdge) {
+                    int neighbor = across(edge, current);
+                    if (neighbor >= 0 && chainOf[neighbor] == id) {
+                        next = neighbor;
+                        previousEdge = edge;
+                    }
+                }
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Builds the chain or loop through a box with two undrawn sides.
+     */
+    private void trace(int start) {
+        int id = freeIds[--freeCount];
+        chainOf[start] = id;
+        int length = 1;
+        boolean loop = false;
+        int head = start;
+        for (int side = 0; side < 4 && !loop; side++) {
+            int edge = boxEdges[start * 4 + side];
+            if (drawn[edge]) {
+                continue;
+            }
+            int current = start;
+            int link = edge;
+            while (true) {
+                int next = across(link, current);
+                if (next < 0 || sides[next] != 2) {
+                    break;
+                }
+                if (next == start) {
+                    loop = true;
+                    break;
+                }
+                chainOf[next] = id;
+                length++;
+                current = next;
+                link = otherLink(current, link);
+            }
+            if (!loop) {
+                // The walk that runs second ends at the chain's far end; the
+                // first walk's end becomes the head dissolve starts from.
+                head = head == start ? current : head;
+            }
+        }
+        chainHead[id] = loop ? start : head;
+        chainLength[id] = length;
+        chainLoop[id] = loop;
+        if (loop) {
+            loopCount++;
+            loopBoxes += length;
+        } else {
+            chainCount++;
+            if (length >= LONG_CHAIN) {
+                longChainCount++;
+                longChainBoxes += length;
+            }
+        }
+    }
+
+    private int across(int edge, int box) {
+        int first = edgeBoxes[edge * 2];
+        return first == box ? edgeBoxes[edge * 2 + 1] : first;
+    }
+
+    private int otherLink(int box, int arrivedBy) {
+        for (int side = 0; side < 4; side++) {
+            int edge = boxEdges[box * 4 + side];
+            if (!drawn[edge] && edge != arrivedBy) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    private void changeSides(int box, int delta) {
+        if (sides[box] == 3) {
+            capturable--;
+        } else if (sides[box] == 4) {
+            openBoxes++;
+        }
+        sides[box] += delta;
+        if (sides[box] == 3) {
+            capturable++;
+        } else if (sides[box] == 4) {
+            openBoxes--;
+        }
+    }
+
+    private void refreshSafety(int box) {
+        for (int side = 0; side < 4; side++) {
+            int edge = boxEdges[box * 4 + side];
+            boolean now = computeSafe(edge);
+            if (now != safe[edge]) {
+                safe[edge] = now;
+                safeCount += now ? 1 : -1;
+            }
+        }
+    }
+
+    private boolean computeSafe(int edge) {
+        if (drawn[edge]) {
+            return false;
+        }
+        int second = edgeBoxes[edge * 2 + 1];
+        return sides[edgeBoxes[edge * 2]] < 2 && (second < 0 || sides[second] < 2);
+    }
+
+    /**
+     * @return number of chains, long and short
+     */
+    public int getChainCount() {
+        return chainCount;
+    }
+
+    /**
+     * @return number of chains of at least {@link #LONG_CHAIN} boxes
+     */
+    public int getLongChainCount() {
+        return longChainCount;
+    }
+
+    /**
+     * @return number of loops
+     */
+    public int getLoopCount() {
+        return loopCount;
+    }
+
+    /**
+     * @return number of boxes with three sides drawn, which the player to move
+     *         can take
+     */
+    public int getCapturableCount() {
+        return capturable;
+    }
+
+    /**
+     * Gets the length of the chain or loop through a box.
+     *
+     * @param box row-major box index
+     * @return number of boxes in it, or {@code 0} if the box is in none
+     */
+    public int getChainLength(int box) {
+        return chainOf[box] < 0 ? 0 : chainLength[chainOf[box]];
+    }
+
+    /**
+     * @param box row-major box index
+     * @return {@code true} when the box is part of a loop
+     */
+    public boolean isInLoop(int box) {
+        return chainOf[box] >= 0 && chainLoop[chainOf[box]];
+    }
+
+    /**
+     * @return lengths of all chains, in ascending order
+     */
+    public int[] getChainLengths() {
+        return lengths(false);
+    }
+
+    /**
+     * @return lengths of all loops, in ascending order
+     */
+    public int[] getLoopLengths() {
+        return lengths(true);
+    }
+
+    private int[] lengths(boolean loops) {
+        int[] result = new int[loops ? loopCount : chainCount];
+        int count = 0;
+        boolean[] seen = new boolean[boxCount];
+        for (int box = 0; box < boxCount; box++) {
+            int id = chainOf[box];
+            if (id >= 0 && !seen[id] && chainLoop[id] == loops) {
+                seen[id] = true;
+                result[count++] = chainLength[id];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @return number of safe moves
+     */
+    public int getSafeMoveCount() {
+        return safeCount;
+    }
+
+    /**
+     * Checks whether drawing an edge leaves every box with at most two sides,
+     * so that it gives nothing away.
+     *
+     * @param edge edge index
+     * @return {@code true} for an undrawn edge whose boxes have at most one
+     *         side drawn
+     */
+    public boolean isSafeMove(int edge) {
+        return safe[edge];
+    }
+
+    /**
+     * Passes every safe move to the action, in edge order.
+     *
+     * @param action callback receiving edge indices
+     */
+    public void forEachSafeMove(IntConsumer action) {
+        for (int edge = 0; edge < safe.length; edge++) {
+            if (safe[edge]) {
+                action.accept(edge);
+            }
+        }
+    }
+
+    /**
+     * Controlled value of the long chains and loops: the margin the player in
+     * control wins them by when the opponent must open each in turn and the
+     * controller keeps control by declining the last two boxes of every chain
+     * and the last four of every loop but the final one. In a simple loony
+     * endgame it is the value for the player in control only when it is at
+     * least {@code 2}; below that, keeping control is not worth it, so the
+     * value can be larger and even of the other sign. Before such an endgame
+     * it is only a guide.
+     *
+     * @return controlled value, {@code 0} when there are no long chains or
+     *         loops; may be negative
+     */
+    public int getControlValue() {
+        int total = longChainBoxes + loopBoxes;
+        if (longChainCount > 0) {
+            return total - 4 * longChainCount - 8 * loopCount + 4;
+        }
+        return loopCount > 0 ? total - 8 * loopCount + 8 : 0;
+    }
+
+    /**
+     * Checks for a simple loony endgame: no safe move and nothing to capture,
+     * with every unclaimed box in a long chain or a loop. The player to move
+     * must open one of them; when {@link #getControlValue()} is at least
+     * {@code 2}, that is what the opponent then wins by.
+     *
+     * @return {@code true} in a simple loony endgame
+     */
+    public boolean isSimpleEndgame() {
+        return safeCount == 0 && capturable == 0 && openBoxes > 0 && longChainBoxes + loopBoxes == openBoxes;
+    }
+
+    /**
+     * Applies the long-chain rule: the first player wants the number of dots
+     * plus the number of long chains to come out even, the second player odd.
+     *
+     * @return {@code true} when the current count favors the first player
+     */
+    public boolean longChainRuleFavorsFirstPlayer() {
+        int dots = (geometry.getRows() + 1) * (geometry.getCols() + 1);
+        return ((dots + longChainCount) & 1) == 0;
+    }
+}
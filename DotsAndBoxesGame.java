@@ -2,7 +2,9 @@
 /**
  * File: DotsAndBoxesGame.java
  * Description: Console implementation of the classic Dots and Boxes game built on the
- *              shared GridGame framework with support for teams, scoring, and colored edges.
+ *              shared GridGame framework with support for teams, scoring, colored edges,
+ *              and a computer opponent driven by {@link DotsAndBoxesSearch}, or by
+ *              {@link DotsAndBoxesMcts} on boards above 5x5.
  */
 
 import java.util.ArrayList;
@@ -12,6 +14,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Console implementation of the classic Dots and Boxes game leveraging the
@@ -29,6 +32,8 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
     private static final String DOT = "•";
     private static final String ANSI_RESET = "\u001B[0m";
     private static final String[] COLOR_OPTIONS = { "red", "blue", "green", "yellow", "magenta", "cyan", "white" };
+    /** Largest board the computer searches with alpha-beta; bigger ones use Monte Carlo search. */
+    private static final int ALPHA_BETA_MAX_BOXES = 25;
 
     // Game state tracking
     private final Map<Player, Integer> playerScores = new LinkedHashMap<>();
@@ -40,7 +45,11 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
 
     // Game flow tracking
     private boolean teamMode;
-    private int claimedBoxes;
+    private DotsAndBoxesBoard board;
+    private Player computerPlayer;
+    private long computerBudgetMillis = DotsAndBoxesSearch.DEFAULT_BUDGET_MILLIS;
+    private DotsAndBoxesSearch computerSearch;
+    private DotsAndBoxesMcts computerMcts;
 
     /**
      * Creates a new Dots and Boxes game instance with default input and output
@@ -103,9 +112,11 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
         teamColorCodes.clear();
         usedColorKeys.clear();
         teamMode = false;
+        computerPlayer = null;
 
         outputService.println("=== Player Setup ===");
-        outputService.println("Choose game mode: [1] Head-to-head (1v1) | [2] Teams of two | 'quit' to exit");
+        outputService.println(
+                "Choose game mode: [1] Head-to-head (1v1) | [2] Teams of two | [3] Versus computer | 'quit' to exit");
         String modeInput = readLineTrimmed(inputService);
         if (modeInput == null || isQuitCommand(modeInput)) {
             requestExit();
@@ -121,6 +132,13 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
                     return false;
                 }
                 break;
+            case "3":
+            case "computer":
+            case "cpu":
+                if (!configureComputerMode(inputService, outputService)) {
+                    return false;
+                }
+                break;
             default:
                 if (!configureHeadToHead(inputService, outputService)) {
                     return false;
@@ -181,6 +199,69 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
         return true;
     }
 
+    /**
+     * Prompts for one human player and the computer's thinking time, then
+     * registers the human to move first and the computer second, in the first
+     * color left unused.
+     *
+     * @param inputService  input service used for prompts
+     * @param outputService output service for feedback
+     * @return {@code true} if configuration succeeds, {@code false} if the user quits
+     */
+    private boolean configureComputerMode(InputService inputService, OutputService outputService) {
+        String name = promptForRequiredValue("Enter your name (or 'quit'): ", inputService, outputService);
+        if (name == null) {
+            requestExit();
+            return false;
+        }
+        Player human = new Player();
+        human.setName(name);
+        human.setDifficultyLevel(1);
+        addPlayer(human);
+        playerScores.put(human, 0);
+
+        ColorChoice colorChoice = promptForColor(
+                String.format(Locale.ROOT, "Choose a color for %s (%s): ", human.getName(), formatColorOptions()),
+                true, inputService, outputService);
+        if (colorChoice == null) {
+            requestExit();
+            return false;
+        }
+        playerColors.put(human, colorChoice.ansiCode);
+
+        outputService.print(String.format(Locale.ROOT,
+                "Computer thinking time per move in milliseconds (Enter for %d): ",
+                DotsAndBoxesSearch.DEFAULT_BUDGET_MILLIS));
+        String budgetInput = readLineTrimmed(inputService);
+        if (budgetInput == null || isQuitCommand(budgetInput)) {
+            requestExit();
+            return false;
+        }
+        Integer budget = budgetInput.isEmpty() ? null : parseInteger(budgetInput);
+        if (budget == null || budget < 1) {
+            if (!budgetInput.isEmpty()) {
+                outputService.println("Invalid time. Using the default.");
+            }
+            computerBudgetMillis = DotsAndBoxesSearch.DEFAULT_BUDGET_MILLIS;
+        } else {
+            computerBudgetMillis = budget;
+        }
+
+        computerPlayer = new Player();
+        computerPlayer.setName("Computer");
+        computerPlayer.setDifficultyLevel(1);
+        addPlayer(computerPlayer);
+        playerScores.put(computerPlayer, 0);
+        for (String option : COLOR_OPTIONS) {
+            if (!usedColorKeys.contains(option)) {
+                usedColorKeys.add(option);
+                playerColors.put(computerPlayer, resolveColorChoice(option).ansiCode);
+                break;
+            }
+        }
+        return true;
+    }
+
     /**
      * Configures the team mode settings, allowing for team-based play.
      *
@@ -362,7 +443,6 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
     @Override
     protected void initializeGame() {
         initializeBoard();
-        claimedBoxes = 0;
         for (Player player : getPlayers()) {
             playerScores.put(player, 0);
         }
@@ -440,6 +520,10 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
         OutputService outputService = getOutputService();
         InputService inputService = getInputService();
         Player currentPlayer = getActivePlayer();
+        if (currentPlayer == computerPlayer) {
+            playComputerMove(outputService);
+            return;
+        }
 
         outputService.print(String.format(Locale.ROOT,
                 "Note: Board is %dx%d. Rows and columns are 1-indexed.\n1-based indexing means the top-left corner is (1, 1).\n",
@@ -488,11 +572,64 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
                     "Great! You completed %d box%s.", boxesCompleted, boxesCompleted == 1 ? "" : "es"));
         }
 
-        if (claimedBoxes == getTotalBoxes()) {
+        if (board.getClaimedBoxes() == getTotalBoxes()) {
             setGameOver(true);
         }
     }
 
+    /**
+     * Lets the computer choose an edge within its thinking time, announces it
+     * in the same 'row col side' form players type, and applies it.
+     *
+     * @param outputService destination for the announcement
+     */
+    private void playComputerMove(OutputService outputService) {
+        int edge = chooseComputerEdge();
+        DotsAndBoxesGeometry geometry = board.getGeometry();
+        int box = geometry.getEdgeBox(edge, 0);
+        DotsAndBoxesEdge side = geometry.getEdgeSide(edge);
+        int row = box / board.getCols();
+        int col = box % board.getCols();
+        outputService.println(String.format(Locale.ROOT, "%s draws %d %d %s.", computerPlayer.getName(), row + 1,
+                col + 1, side.name().substring(0, 1)));
+
+        int boxesCompleted = applyMove(row, col, side, computerPlayer);
+        if (boxesCompleted == 0) {
+            advanceToNextPlayer();
+        } else {
+            outputService.println(String.format(Locale.ROOT, "%s completed %d box%s.", computerPlayer.getName(),
+                    boxesCompleted, boxesCompleted == 1 ? "" : "es"));
+        }
+
+        if (board.getClaimedBoxes() == getTotalBoxes()) {
+            setGameOver(true);
+        }
+    }
+
+    /**
+     * Picks the computer's edge: alpha-beta on boards of up to
+     * {@link #ALPHA_BETA_MAX_BOXES} boxes, and Monte Carlo tree search on the
+     * common pool for larger ones, where alpha-beta cannot see far enough.
+     *
+     * @return edge index to draw
+     */
+    private int chooseComputerEdge() {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        if (rows * cols <= ALPHA_BETA_MAX_BOXES) {
+            if (computerSearch == null || !computerSearch.matches(rows, cols)) {
+                computerSearch = new DotsAndBoxesSearch(rows, cols);
+            }
+            return computerSearch.search(board, computerBudgetMillis).getEdge();
+        }
+        if (computerMcts == null || !computerMcts.matches(rows, cols)) {
+            computerMcts = new DotsAndBoxesMcts(rows, cols, ForkJoinPool.commonPool());
+        }
+        int totalScore = playerScores.values().stream().mapToInt(Integer::intValue).sum();
+        int lead = 2 * playerScores.getOrDefault(computerPlayer, 0) - totalScore;
+        return computerMcts.search(board, lead, computerBudgetMillis, 0L).getEdge();
+    }
+
     /**
      * Unsupported for Dots and Boxes because moves are edge-based rather than
      * cell-based; invocation results in an exception.
@@ -516,7 +653,7 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
      */
     @Override
     protected boolean checkWinCondition() {
-        return claimedBoxes == getTotalBoxes();
+        return board.getClaimedBoxes() == getTotalBoxes();
     }
 
     /**
@@ -571,15 +708,30 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
      * Initializes or resets the game board to an empty state.
      */
     /**
-     * Fills the grid with fresh cells and resets box counters prior to gameplay.
+     * Replaces the edge board with an empty one of the grid's size and fills
+     * the grid with views of its boxes prior to gameplay.
      */
     private void initializeBoard() {
+        board = new DotsAndBoxesBoard(gameGrid.getRows(), gameGrid.getCols());
+        List<Player> roster = getPlayers();
         for (int r = 0; r < gameGrid.getRows(); r++) {
             for (int c = 0; c < gameGrid.getCols(); c++) {
-                gameGrid.setPiece(r, c, new DotsAndBoxesCell());
+                gameGrid.setPiece(r, c, new DotsAndBoxesCell(board, r, c, roster));
             }
         }
-        claimedBoxes = 0;
+    }
+
+    /**
+     * Gets the {@link Zobrist} hash of the drawn edges. Every edge has one
+     * index, with the horizontal edges numbered row by row before the
+     * vertical ones, and the hash XORs the key of each drawn edge into it as
+     * the edge is played. Positions reached through different move orders
+     * therefore share a hash, which is the same in every process.
+     *
+     * @return hash of the set of drawn edges, {@code 0} for an empty board
+     */
+    public long getPositionHash() {
+        return board.getPositionHash();
     }
 
     /**
@@ -593,8 +745,8 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
      *         invalid
      */
     /**
-     * Applies the requested edge to the board, checks for completed boxes, and
-     * updates scores while mirroring the edge for adjacent cells.
+     * Draws the requested edge on the board, which stores it once for both
+     * boxes sharing it, and credits the player with the boxes it completes.
      *
      * @param row    zero-based row index of the targeted cell
      * @param col    zero-based column index of the targeted cell
@@ -603,45 +755,10 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
      * @return number of boxes completed, or {@code -1} if the edge already exists
      */
     private int applyMove(int row, int col, DotsAndBoxesEdge edge, Player player) {
-        DotsAndBoxesCell primary = gameGrid.getPiece(row, col);
-        String edgeColor = getColorForPlayer(player);
-        if (!primary.addEdge(edge, edgeColor)) {
-            return -1;
+        int boxesCompleted = board.drawEdge(row, col, edge, getPlayers().indexOf(player));
+        if (boxesCompleted > 0) {
+            incrementScore(player, boxesCompleted);
         }
-
-        int boxesCompleted = 0;
-        if (primary.isCompleted() && primary.claim(player)) {
-            boxesCompleted++;
-            incrementScore(player, 1);
-        }
-
-        int neighborRow = row;
-        int neighborCol = col;
-        switch (edge) {
-            case TOP:
-                neighborRow = row - 1;
-                break;
-            case BOTTOM:
-                neighborRow = row + 1;
-                break;
-            case LEFT:
-                neighborCol = col - 1;
-                break;
-            case RIGHT:
-                neighborCol = col + 1;
-                break;
-        }
-
-        if (gameGrid.isValidPosition(neighborRow, neighborCol)) {
-            DotsAndBoxesCell neighbor = gameGrid.getPiece(neighborRow, neighborCol);
-            neighbor.addEdge(edge.opposite(), edgeColor);
-            if (neighbor.isCompleted() && neighbor.claim(player)) {
-                boxesCompleted++;
-                incrementScore(player, 1);
-            }
-        }
-
-        claimedBoxes += boxesCompleted;
         return boxesCompleted;
     }
 
@@ -749,7 +866,7 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
      */
     private String formatHorizontalEdge(DotsAndBoxesCell cell, DotsAndBoxesEdge edge) {
         if (cell != null && cell.hasEdge(edge)) {
-            return applyColor("───", cell.getEdgeColor(edge));
+            return applyColor("───", getColorForPlayer(cell.getEdgeOwner(edge)));
         }
         return "   ";
     }
@@ -771,7 +888,7 @@ public final class DotsAndBoxesGame extends GridGame<DotsAndBoxesCell> {
      */
     private String formatVerticalEdge(DotsAndBoxesCell cell, DotsAndBoxesEdge edge) {
         if (cell != null && cell.hasEdge(edge)) {
-            return applyColor("│", cell.getEdgeColor(edge));
+            return applyColor("│", getColorForPlayer(cell.getEdgeOwner(edge)));
         }
         return " ";
     }
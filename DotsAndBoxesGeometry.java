@@ -0,0 +1,200 @@
+/**
+ * File: DotsAndBoxesGeometry.java
+ * Description: Precomputed edge and box incidence tables for a Dots and Boxes
+ *              board shape, shared by the board engine and the computer
+ *              players' searches.
+ *
+ * Features:
+ * - Edge numbering shared with {@link DotsAndBoxesBoard}: horizontal edges
+ *   row by row, then vertical edges
+ * - The one or two boxes bordering each edge, and the four edges of each box
+ * - {@link Zobrist} key of every edge, so search code hashes without mixing
+ * - One immutable instance per (rows, cols), built on first use and cached
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incidence of the edges and boxes of a board with {@code rows} by
+ * {@code cols} boxes. Instances are immutable and obtained through
+ * {@link #of(int, int)}, which returns the same instance for the same shape.
+ */
+public final class DotsAndBoxesGeometry {
+    private static final ConcurrentHashMap<Long, DotsAndBoxesGeometry> CACHE = new ConcurrentHashMap<>();
+    private static final DotsAndBoxesEdge[] SIDES = DotsAndBoxesEdge.values();
+
+    private final int rows;
+    private final int cols;
+    private final int horizontalEdges;
+    private final int edgeCount;
+    private final int[] edgeBoxes;
+    private final int[] boxEdges;
+    private final long[] edgeKeys;
+
+    private DotsAndBoxesGeometry(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.horizontalEdges = (rows + 1) * cols;
+        this.edgeCount = horizontalEdges + rows * (cols + 1);
+        this.edgeBoxes = new int[edgeCount * 2];
+        this.boxEdges = new int[rows * cols * SIDES.length];
+        this.edgeKeys = new long[edgeCount];
+
+        Arrays.fill(edgeBoxes, -1);
+        for (int box = 0; box < rows * cols; box++) {
+            for (DotsAndBoxesEdge side : SIDES) {
+                int edge = edgeIndex(box / cols, box % cols, side);
+                boxEdges[box * SIDES.length + side.ordinal()] = edge;
+                edgeBoxes[edge * 2 + (edgeBoxes[edge * 2] < 0 ? 0 : 1)] = box;
+            }
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edgeKeys[edge] = Zobrist.key(edge, 1L);
+        }
+    }
+
+    /**
+     * Returns the shared tables for the supplied board shape.
+     *
+     * @param rows number of box rows
+     * @param cols number of box columns
+     * @return geometry of a rows-by-cols board
+     * @throws IllegalArgumentException if either dimension is less than 1
+     */
+    public static DotsAndBoxesGeometry of(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        return CACHE.computeIfAbsent(((long) rows << 32) | cols, key -> new DotsAndBoxesGeometry(rows, cols));
+    }
+
+    /**
+     * @return number of box rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of box columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return number of boxes
+     */
+    public int getBoxCount() {
+        return rows * cols;
+    }
+
+    /**
+     * @return number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return number of horizontal edges, which take the lowest edge indices
+     */
+    public int getHorizontalEdgeCount() {
+        return horizontalEdges;
+    }
+
+    /**
+     * Numbers the side of a box.
+     *
+     * @param row  zero-based box row
+     * @param col  zero-based box column
+     * @param side side of the box
+     * @return edge index shared by both boxes on the edge
+     */
+    public int edgeIndex(int row, int col, DotsAndBoxesEdge side) {
+        switch (side) {
+            case TOP:
+                return row * cols + col;
+            case BOTTOM:
+                return (row + 1) * cols + col;
+            case LEFT:
+                return horizontalEdges + row * (cols + 1) + col;
+            case RIGHT:
+            default:
+                return horizontalEdges + row * (cols + 1) + col + 1;
+        }
+    }
+
+    /**
+     * Gets a box bordering an edge. Border edges have one box, which is always
+     * the first.
+     *
+     * @param edge edge index
+     * @param i    {@code 0} or {@code 1}
+     * @return row-major box index, or {@code -1} past the border
+     */
+    public int getEdgeBox(int edge, int i) {
+        return edgeBoxes[edge * 2 + i];
+    }
+
+    /**
+     * Gets a side of a box.
+     *
+     * @param box  row-major box index
+     * @param side side of the box
+     * @return edge index
+     */
+    public int getBoxEdge(int box, DotsAndBoxesEdge side) {
+        return boxEdges[box * SIDES.length + side.ordinal()];
+    }
+
+    /**
+     * Names an edge as a side of its first box, the form players type moves
+     * in.
+     *
+     * @param edge edge index
+     * @return side of {@link #getEdgeBox(int, int) getEdgeBox(edge, 0)} that
+     *         the edge forms
+     */
+    public DotsAndBoxesEdge getEdgeSide(int edge) {
+        int box = edgeBoxes[edge * 2];
+        for (DotsAndBoxesEdge side : SIDES) {
+            if (boxEdges[box * SIDES.length + side.ordinal()] == edge) {
+                return side;
+            }
+        }
+        throw new IllegalStateException("Edge " + edge + " does not border its box");
+    }
+
+    /**
+     * @param edge edge index
+     * @return {@link Zobrist} key of the drawn edge
+     */
+    public long getEdgeKey(int edge) {
+        return edgeKeys[edge];
+    }
+
+    /**
+     * Shared table of the boxes bordering each edge, two slots per edge with
+     * {@code -1} past the border. Must not be modified.
+     */
+    int[] edgeBoxTable() {
+        return edgeBoxes;
+    }
+
+    /**
+     * Shared table of the four edges of each box in {@link DotsAndBoxesEdge}
+     * order. Must not be modified.
+     */
+    int[] boxEdgeTable() {
+        return boxEdges;
+    }
+
+    /**
+     * Shared table of edge {@link Zobrist} keys. Must not be modified.
+     */
+    long[] edgeKeyTable() {
+        return edgeKeys;
+    }
+}
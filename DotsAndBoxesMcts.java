@@ -0,0 +1,527 @@
+/**
+ * File: DotsAndBoxesMcts.java
+ * Description: Parallel Monte Carlo tree search choosing moves for the Dots
+ *              and Boxes computer player on boards too large for alpha-beta to
+ *              search deeply.
+ *
+ * Features:
+ * - Tree parallelism: every worker of a caller-supplied {@link ForkJoinPool}
+ *   descends the same tree
+ * - Lock-free node statistics, visits and reward packed in one {@code long}
+ *   updated with atomic adds; visits are counted on the way down as a virtual
+ *   loss so concurrent workers spread over different children
+ * - Children published once with a compare-and-set, so expansion never blocks
+ * - Allocation-free playouts on per-worker side counters and an undrawn edge
+ *   list: captures first, then safe edges when a few random draws find one
+ * - Budget in playouts per move, milliseconds per move, or both
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Finds moves for the player to move on a {@link DotsAndBoxesBoard} by
+ * sampling random games. Nodes are valued by the share of playouts their
+ * mover wins, counting a draw as half a win, and the most visited root child
+ * is played. The pool is owned by the caller; instances are tied to one board
+ * shape and may be reused but must not run two searches concurrently.
+ */
+public final class DotsAndBoxesMcts {
+    /** Default wall-clock budget per move. */
+    public static final long DEFAULT_BUDGET_MILLIS = 1000L;
+    /** Default cap on tree nodes, to bound memory on long budgets. */
+    public static final int DEFAULT_MAX_NODES = 1 << 21;
+
+    private static final double EXPLORATION = Math.sqrt(2.0);
+    private static final int EXPAND_VISITS = 2;
+    private static final int SAFE_ATTEMPTS = 8;
+    private static final long VISIT = 1L << 32;
+    private static final long REWARD_MASK = VISIT - 1;
+
+    private final DotsAndBoxesGeometry geometry;
+    private final int[] edgeBoxes;
+    private final int[] boxEdges;
+    private final ForkJoinPool pool;
+    private final int maxNodes;
+    private long seed = 0x5DEECE66DL;
+
+    /**
+     * Creates a search for boards of the supplied shape with the default node
+     * cap.
+     *
+     * @param rows number of box rows
+     * @param cols number of box columns
+     * @param pool pool whose workers run the playouts
+     */
+    public DotsAndBoxesMcts(int rows, int cols, ForkJoinPool pool) {
+        this(rows, cols, pool, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Creates a search for boards of the supplied shape.
+     *
+     * @param rows     number of box rows
+     * @param cols     number of box columns
+     * @param pool     pool whose workers run the playouts
+     * @param maxNodes tree size past which leaves are no longer expanded
+     * @throws IllegalArgumentException if the pool is missing or the cap is not
+     *                                  positive
+     */
+    public DotsAndBoxesMcts(int rows, int cols, ForkJoinPool pool, int maxNodes) {
+        if (pool == null) {
+            throw new IllegalArgumentException("A fork/join pool is required.");
+        }
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("Node cap must be positive.");
+        }
+        this.geometry = DotsAndBoxesGeometry.of(rows, cols);
+        this.edgeBoxes = geometry.edgeBoxTable();
+        this.boxEdges = geometry.boxEdgeTable();
+        this.pool = pool;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Indicates whether this search handles the supplied board shape.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the shape matches
+     */
+    public boolean matches(int rows, int cols) {
+        return geometry.getRows() == rows && geometry.getCols() == cols;
+    }
+
+    /**
+     * @return parallelism of the pool running the workers
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Sets the seed of the next search's random playouts, for repeatable
+     * single-threaded runs.
+     *
+     * @param seed random seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Chooses a move for a player who is level on boxes so far.
+     *
+     * @param board        position to search; it is not modified
+     * @param budgetMillis wall-clock budget, or {@code 0} for no limit
+     * @return chosen move and search statistics
+     */
+    public Result search(DotsAndBoxesBoard board, long budgetMillis) {
+        return search(board, 0, budgetMillis, 0L);
+    }
+
+    /**
+     * Chooses a move for the player to move, running playouts until either
+     * budget is spent.
+     *
+     * @param board        position to search; it is not modified
+     * @param lead         boxes the player to move already has over the
+     *                     opponent, which decides what counts as a win
+     * @param budgetMillis wall-clock budget, or {@code 0} for no limit
+     * @param maxPlayouts  playout budget, or {@code 0} for no limit
+     * @return chosen move and search statistics
+     * @throws IllegalArgumentException if the board has another shape or no
+     *                                  edge left to draw, or neither budget is
+     *                                  set
+     */
+    public Result search(DotsAndBoxesBoard board, int lead, long budgetMillis, long maxPlayouts) {
+        if (!matches(board.getRows(), board.getCols())) {
+            throw new IllegalArgumentException("Search was built for a different board shape.");
+        }
+        if (board.isFull()) {
+            throw new IllegalArgumentException("Board has no edge left to draw.");
+        }
+        if (budgetMillis <= 0 && maxPlayouts <= 0) {
+            throw new IllegalArgumentException("A time or playout budget is required.");
+        }
+        long start = System.nanoTime();
+        Run run = new Run(board, lead, budgetMillis > 0 ? start + budgetMillis * 1_000_000L : Long.MAX_VALUE,
+                maxPlayouts > 0 ? maxPlayouts : Long.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            workers.add(new Worker(run, random.split()));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(workers);
+            }
+        });
+
+        Node best = null;
+        Node[] children = run.root.children;
+        if (children != null) {
+            for (Node child : children) {
+                if (best == null || child.visits() > best.visits()) {
+                    best = child;
+                }
+            }
+        }
+        int edge = best != null ? best.edge : run.firstUndrawn();
+        double winRate = best != null && best.visits() > 0 ? best.reward() / (2.0 * best.visits()) : 0.5;
+        // Workers that stop on the playout cap still bump the counter once.
+        long playouts = Math.min(run.playouts.get(), run.maxPlayouts);
+        return new Result(edge, winRate, playouts, run.nodes.get(), workers.size(),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Shared state of one search: the root position and the tree.
+     */
+    private final class Run {
+        final byte[] rootSides;
+        final int[] rootUndrawn;
+        final int rootUndrawnCount;
+        final int lead;
+        final long deadline;
+        final long maxPlayouts;
+        final Node root = new Node(-1, 1);
+        final AtomicLong playouts = new AtomicLong();
+        final AtomicInteger nodes = new AtomicInteger(1);
+
+        Run(DotsAndBoxesBoard board, int lead, long deadline, long maxPlayouts) {
+            this.rootSides = new byte[geometry.getBoxCount()];
+            this.rootUndrawn = new int[geometry.getEdgeCount()];
+            int count = 0;
+            for (int edge = 0; edge < rootUndrawn.length; edge++) {
+                if (board.isDrawn(edge)) {
+                    rootSides[edgeBoxes[edge * 2]]++;
+                    if (edgeBoxes[edge * 2 + 1] >= 0) {
+                        rootSides[edgeBoxes[edge * 2 + 1]]++;
+                    }
+                } else {
+                    rootUndrawn[count++] = edge;
+                }
+            }
+            this.rootUndrawnCount = count;
+            this.lead = lead;
+            this.deadline = deadline;
+            this.maxPlayouts = maxPlayouts;
+        }
+
+        int firstUndrawn() {
+            return rootUndrawn[0];
+        }
+    }
+
+    /**
+     * Tree node for the position after {@link #edge} was drawn by
+     * {@link #player}: {@code 0} for the player to move at the root, {@code 1}
+     * for the opponent. Statistics are from that player's point of view.
+     */
+    private static final class Node {
+        private static final AtomicLongFieldUpdater<Node> STATS = AtomicLongFieldUpdater.newUpdater(Node.class,
+                "stats");
+        private static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN = AtomicReferenceFieldUpdater
+                .newUpdater(Node.class, Node[].class, "children");
+
+        final int edge;
+        final int player;
+        /** Visits in the high 32 bits, reward in half points in the low 32. */
+        volatile long stats;
+        volatile Node[] children;
+
+        Node(int edge, int player) {
+            this.edge = edge;
+            this.player = player;
+        }
+
+        int visits() {
+            return (int) (stats >>> 32);
+        }
+
+        long reward() {
+            return stats & REWARD_MASK;
+        }
+
+        void addVisit() {
+            STATS.getAndAdd(this, VISIT);
+        }
+
+        void addReward(int halfPoints) {
+            STATS.getAndAdd(this, halfPoints);
+        }
+
+        boolean publish(Node[] expanded) {
+            return CHILDREN.compareAndSet(this, null, expanded);
+        }
+    }
+
+    /**
+     * One worker's loop of descents and playouts, with its own copy of the
+     * position so that nothing is allocated per playout.
+     */
+    private final class Worker extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Run run;
+        private final transient SplittableRandom random;
+        private final transient byte[] sides;
+        private final transient int[] undrawn;
+        private final transient int[] positions;
+        private final transient int[] ready;
+        private final transient Node[] path;
+        private int undrawnCount;
+        private int readyCount;
+        private int mover;
+        private int margin;
+
+        Worker(Run run, SplittableRandom random) {
+            this.run = run;
+            this.random = random;
+            this.sides = new byte[run.rootSides.length];
+            this.undrawn = new int[run.rootUndrawn.length];
+            this.positions = new int[run.rootUndrawn.length];
+            this.ready = new int[run.rootSides.length * 2];
+            this.path = new Node[run.rootUndrawnCount + 1];
+        }
+
+        @Override
+        protected void compute() {
+            while (System.nanoTime() < run.deadline && run.playouts.getAndIncrement() < run.maxPlayouts) {
+                iterate();
+            }
+        }
+
+        private void iterate() {
+            reset();
+            Node node = run.root;
+            node.addVisit();
+            int depth = 0;
+            path[depth++] = node;
+            while (undrawnCount > 0) {
+                Node[] children = node.children;
+                if (children == null) {
+                    if (node.visits() < EXPAND_VISITS || run.nodes.get() >= maxNodes) {
+                        break;
+                    }
+                    children = expand(node);
+                }
+                node = select(node, children);
+                node.addVisit();
+                path[depth++] = node;
+                play(node.edge);
+            }
+            playout();
+
+            int total = margin + run.lead;
+            int outcome = total > 0 ? 2 : total == 0 ? 1 : 0;
+            for (int i = 0; i < depth; i++) {
+                path[i].addReward(path[i].player == 0 ? outcome : 2 - outcome);
+            }
+        }
+
+        private void reset() {
+            System.arraycopy(run.rootSides, 0, sides, 0, sides.length);
+            System.arraycopy(run.rootUndrawn, 0, undrawn, 0, run.rootUndrawnCount);
+            undrawnCount = run.rootUndrawnCount;
+            Arrays.fill(positions, -1);
+            readyCount = 0;
+            for (int i = 0; i < undrawnCount; i++) {
+                positions[undrawn[i]] = i;
+            }
+            for (int box = 0; box < sides.length; box++) {
+                if (sides[box] == 3) {
+                    ready[readyCount++] = box;
+                }
+            }
+            mover = 0;
+            margin = 0;
+        }
+
+        /**
+         * Creates a child for every undrawn edge and publishes them unless
+         * another worker got there first.
+         */
+        private Node[] expand(Node node) {
+            Node[] expanded = new Node[undrawnCount];
+            for (int i = 0; i < undrawnCount; i++) {
+                expanded[i] = new Node(undrawn[i], mover);
+            }
+            if (node.publish(expanded)) {
+                run.nodes.addAndGet(expanded.length);
+                return expanded;
+            }
+            return node.children;
+        }
+
+        /**
+         * Picks the child with the best upper confidence bound. Visits already
+         * counted by workers still below a child lower its value until their
+         * rewards arrive.
+         */
+        private Node select(Node parent, Node[] children) {
+            double logVisits = Math.log(Math.max(1, parent.visits()));
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                long stats = child.stats;
+                int visits = (int) (stats >>> 32);
+                if (visits == 0) {
+                    return child;
+                }
+                double score = (stats & REWARD_MASK) / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Finishes the game: boxes ready to take are always taken, otherwise a
+         * few random edges are tried for one that gives nothing away before
+         * settling for any.
+         */
+        private void playout() {
+            while (undrawnCount > 0) {
+                int edge = -1;
+                while (edge < 0 && readyCount > 0) {
+                    edge = missingSide(ready[--readyCount]);
+                }
+                for (int attempt = 0; edge < 0 && attempt < SAFE_ATTEMPTS; attempt++) {
+                    int candidate = undrawn[random.nextInt(undrawnCount)];
+                    if (isSafe(candidate)) {
+                        edge = candidate;
+                    }
+                }
+                if (edge < 0) {
+                    edge = undrawn[random.nextInt(undrawnCount)];
+                }
+                play(edge);
+            }
+        }
+
+        private int missingSide(int box) {
+            if (sides[box] != 3) {
+                return -1;
+            }
+            for (int side = 0; side < 4; side++) {
+                int edge = boxEdges[box * 4 + side];
+                if (positions[edge] >= 0) {
+                    return edge;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isSafe(int edge) {
+            int second = edgeBoxes[edge * 2 + 1];
+            return sides[edgeBoxes[edge * 2]] < 2 && (second < 0 || sides[second] < 2);
+        }
+
+        /**
+         * Draws an edge for the player to move, scoring completed boxes and
+         * passing the turn when none is completed.
+         */
+        private void play(int edge) {
+            int index = positions[edge];
+            int last = undrawn[--undrawnCount];
+            undrawn[index] = last;
+            positions[last] = index;
+            positions[edge] = -1;
+            int completed = addSide(edgeBoxes[edge * 2]);
+            if (edgeBoxes[edge * 2 + 1] >= 0) {
+                completed += addSide(edgeBoxes[edge * 2 + 1]);
+            }
+            if (completed == 0) {
+                mover ^= 1;
+            } else {
+                margin += mover == 0 ? completed : -completed;
+            }
+        }
+
+        private int addSide(int box) {
+            int count = ++sides[box];
+            if (count == 3) {
+                ready[readyCount++] = box;
+            }
+            return count == 4 ? 1 : 0;
+        }
+    }
+
+    /**
+     * Result of a search.
+     */
+    public static final class Result {
+        private final int edge;
+        private final double winRate;
+        private final long playouts;
+        private final int nodes;
+        private final int threads;
+        private final long elapsedNanos;
+
+        Result(int edge, double winRate, long playouts, int nodes, int threads, long elapsedNanos) {
+            this.edge = edge;
+            this.winRate = winRate;
+            this.playouts = playouts;
+            this.nodes = nodes;
+            this.threads = threads;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return edge index of the chosen move
+         */
+        public int getEdge() {
+            return edge;
+        }
+
+        /**
+         * @return share of the chosen move's playouts won by the player to
+         *         move, draws counting half
+         */
+        public double getWinRate() {
+            return winRate;
+        }
+
+        /**
+         * @return number of playouts run
+         */
+        public long getPlayouts() {
+            return playouts;
+        }
+
+        /**
+         * @return number of tree nodes created
+         */
+        public int getNodes() {
+            return nodes;
+        }
+
+        /**
+         * @return number of workers that ran playouts
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * @return wall-clock time spent searching, in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/**
+ * File: DotsAndBoxesSearch.java
+ * Description: Alpha-beta search choosing moves for the Dots and Boxes computer
+ *              player within a wall-clock budget.
+ *
+ * Features:
+ * - Negamax alpha-beta over the margin of remaining boxes, with the window
+ *   shifted rather than negated after a capture because the capturer moves
+ *   again
+ * - Iterative deepening that keeps the best move of the last completed depth
+ *   and stops early once the game is solved to the end
+ * - Move ordering: transposition move, captures, safe moves, then moves that
+ *   hand the opponent a box
+ * - Transposition table keyed by the canonical hash of the drawn edges under
+ *   the board's symmetries, so mirrored and rotated positions share entries;
+ *   kept across moves of a game and shareable between search threads
+ * - Allocation-free make/unmake on per-box side counters
+ * - Once no safe move is left, horizon positions that are simple loony
+ *   endgames with a controlled value of at least 2 valued by it, using
+ *   {@link DotsAndBoxesChains}
+ */
+
+import java.util.Arrays;
+
+/**
+ * Finds good moves for the player to move on a {@link DotsAndBoxesBoard}.
+ * Positions are valued as the number of the remaining boxes the player to
+ * move can expect to take minus the number the opponent takes. Instances are
+ * tied to one board shape and hold scratch buffers, so they are not
+ * thread-safe; searches on different threads may share one
+ * {@link DotsAndBoxesTranspositionTable}.
+ */
+public final class DotsAndBoxesSearch {
+    /** Default wall-clock budget per move. */
+    public static final long DEFAULT_BUDGET_MILLIS = 1000L;
+    /** Default transposition table size: 2^20 entries, 16 MiB. */
+    public static final int DEFAULT_TABLE_BITS = DotsAndBoxesTranspositionTable.DEFAULT_TABLE_BITS;
+
+    private static final long ABORT_CHECK_MASK = (1 << 10) - 1;
+    private static final int INFINITY = Short.MAX_VALUE;
+    private static final int EXACT = 0;
+    private static final int LOWER = 1;
+    private static final int UPPER = 2;
+    private static final int CAPTURE = 0;
+    private static final int SAFE = 1;
+    private static final int GIVING = 2;
+
+    private final DotsAndBoxesGeometry geometry;
+    private final int edgeCount;
+    private final int[] edgeBoxes;
+    private final DotsAndBoxesSymmetry symmetry;
+    private final long[] hashes;
+    private final DotsAndBoxesTranspositionTable table;
+    private final byte[] sides;
+    private final boolean[] drawn;
+    private final int[][] moves;
+    private DotsAndBoxesChains chains;
+    private boolean trackChains;
+
+    private int remaining;
+    private int capturable;
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+    private int rootRemaining;
+    private int rootMove;
+
+    /**
+     * Creates a search for boards of the supplied shape with the default
+     * table size.
+     *
+     * @param rows number of box rows
+     * @param cols number of box columns
+     */
+    public DotsAndBoxesSearch(int rows, int cols) {
+        this(rows, cols, DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Creates a search for boards of the supplied shape.
+     *
+     * @param rows      number of box rows
+     * @param cols      number of box columns
+     * @param tableBits base-two logarithm of the transposition table size,
+     *                  between 10 and 28; each entry takes 16 bytes
+     * @throws IllegalArgumentException if the table size is out of range
+     */
+    public DotsAndBoxesSearch(int rows, int cols, int tableBits) {
+        this(rows, cols, new DotsAndBoxesTranspositionTable(tableBits, DotsAndBoxesTranspositionTable.DEFAULT_STRIPES));
+    }
+
+    /**
+     * Creates a search for boards of the supplied shape that stores results in
+     * a table other searches may share, for example one per thread searching
+     * the same position.
+     *
+     * @param rows  number of box rows
+     * @param cols  number of box columns
+     * @param table transposition table, which may be shared between threads
+     *              and with searches of other board shapes, whose keys are
+     *              salted apart by {@link DotsAndBoxesSymmetry}
+     */
+    public DotsAndBoxesSearch(int rows, int cols, DotsAndBoxesTranspositionTable table) {
+        if (table == null) {
+            throw new IllegalArgumentException("A transposition table is required.");
+        }
+        this.geometry = DotsAndBoxesGeometry.of(rows, cols);
+        this.edgeCount = geometry.getEdgeCount();
+        this.edgeBoxes = geometry.edgeBoxTable();
+        this.symmetry = DotsAndBoxesSymmetry.of(rows, cols);
+        this.hashes = symmetry.newHashes();
+        this.table = table;
+        this.sides = new byte[geometry.getBoxCount()];
+        this.drawn = new boolean[edgeCount];
+        this.moves = new int[edgeCount + 1][];
+    }
+
+    /**
+     * Indicates whether this search handles the supplied board shape.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the shape matches
+     */
+    public boolean matches(int rows, int cols) {
+        return geometry.getRows() == rows && geometry.getCols() == cols;
+    }
+
+    /**
+     * Forgets every stored position, for example before an unrelated game.
+     * A shared table is cleared for every search using it.
+     */
+    public void clearTable() {
+        table.clear();
+    }
+
+    /**
+     * Chooses a move for the player to move, deepening until the game is
+     * solved or the budget runs out.
+     *
+     * @param board        position to search; it is not modified
+     * @param budgetMillis wall-clock budget, or {@code 0} for no limit
+     * @return chosen move and search statistics
+     * @throws IllegalArgumentException if the board has another shape or no
+     *                                  edge left to draw
+     */
+    public Result search(DotsAndBoxesBoard board, long budgetMillis) {
+        return search(board, budgetMillis, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Chooses a move, searching no deeper than the supplied depth.
+     *
+     * @param board        position to search; it is not modified
+     * @param budgetMillis wall-clock budget, or {@code 0} for no limit
+     * @param maxDepth     deepest iteration to run, in edges
+     * @return chosen move and search statistics
+     */
+    public Result search(DotsAndBoxesBoard board, long budgetMillis, int maxDepth) {
+        if (!matches(board.getRows(), board.getCols())) {
+            throw new IllegalArgumentException("Search was built for a different board shape.");
+        }
+        if (board.isFull()) {
+            throw new IllegalArgumentException("Board has no edge left to draw.");
+        }
+        long start = System.nanoTime();
+        load(board);
+        nodes = 0L;
+        aborted = false;
+        deadline = budgetMillis > 0 ? start + budgetMillis * 1_000_000L : Long.MAX_VALUE;
+        rootRemaining = remaining;
+
+        int bestMove = -1;
+        int bestValue = 0;
+        int depthReached = 0;
+        int limit = Math.min(maxDepth, remaining);
+        for (int depth = 1; depth <= limit; depth++) {
+            rootMove = -1;
+            int value = negamax(depth, -INFINITY, INFINITY);
+            if (aborted) {
+                if (bestMove < 0) {
+                    bestMove = rootMove;
+                }
+                break;
+            }
+            bestMove = rootMove;
+            bestValue = value;
+            depthReached = depth;
+        }
+        return new Result(bestMove, bestValue, depthReached, depthReached == remaining, nodes,
+                System.nanoTime() - start);
+    }
+
+    private void load(DotsAndBoxesBoard board) {
+        Arrays.fill(sides, (byte) 0);
+        symmetry.hash(board, hashes);
+        remaining = 0;
+        capturable = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            drawn[edge] = board.isDrawn(edge);
+            if (drawn[edge]) {
+                sides[edgeBoxes[edge * 2]]++;
+                if (edgeBoxes[edge * 2 + 1] >= 0) {
+                    sides[edgeBoxes[edge * 2 + 1]]++;
+                }
+            } else {
+                remaining++;
+            }
+        }
+        for (byte count : sides) {
+            if (count == 3) {
+                capturable++;
+            }
+        }
+        if (chains == null) {
+            chains = new DotsAndBoxesChains(board);
+        } else {
+            chains.load(board);
+        }
+        // Safe moves never come back, so positions searched from a root
+        // without one are all endgames; before that, keeping the chains
+        // current would cost more than the rare loony leaf gains.
+        trackChains = chains.getSafeMoveCount() == 0;
+    }
+
+    private int negamax(int depth, int alpha, int beta) {
+        if ((++nodes & ABORT_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted || remaining == 0) {
+            return 0;
+        }
+        if (depth == 0) {
+            // Past the horizon the player to move takes what is offered; in a
+            // simple loony endgame they must then open a chain or loop, and
+            // when the controlled value is at least 2 the opponent keeps
+            // control and wins by exactly that much.
+            if (trackChains && chains.isSimpleEndgame()) {
+                int controlValue = chains.getControlValue();
+                if (controlValue >= 2) {
+                    return -controlValue;
+                }
+            }
+            return capturable;
+        }
+
+        boolean root = remaining == rootRemaining;
+        // Entries are stored in the canonical orientation; moves are mapped
+        // into it on store and back out on probe.
+        int orientation = symmetry.canonicalSymmetry(hashes);
+        long key = hashes[orientation];
+        long entry = table.probe(key);
+        int tableMove = -1;
+        if (entry != 0) {
+            // Keys are salted with the shape, so a foreign entry can only come
+            // from a hash collision; still never map an out-of-range move.
+            int storedMove = entryMove(entry);
+            tableMove = storedMove < edgeCount ? symmetry.unmapEdge(orientation, storedMove) : -1;
+            if (!root && entryDepth(entry) >= Math.min(depth, remaining)) {
+                int value = entryValue(entry);
+                int flag = entryFlag(entry);
+                if (flag == EXACT || (flag == LOWER && value >= beta) || (flag == UPPER && value <= alpha)) {
+                    return value;
+                }
+            }
+        }
+
+        int[] ordered = orderMoves(tableMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = ordered[1];
+        for (int i = 1; i <= ordered[0]; i++) {
+            int move = ordered[i];
+            int captured = play(move);
+            int value = captured > 0
+                    ? captured + negamax(depth - 1, alpha - captured, beta - captured)
+                    : -negamax(depth - 1, -beta, -alpha);
+            undo(move);
+            if (aborted) {
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = move;
+                if (root) {
+                    rootMove = move;
+                }
+            }
+            if (value > alpha) {
+                alpha = value;
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        int flag = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+        table.store(key, entry(best, Math.min(depth, remaining), flag, symmetry.mapEdge(orientation, bestMove)));
+        return best;
+    }
+
+    /**
+     * Lists the undrawn edges in search order into this ply's buffer. Element
+     * {@code 0} holds the count.
+     */
+    private int[] orderMoves(int tableMove) {
+        int[] ordered = moves[remaining];
+        if (ordered == null) {
+            ordered = new int[remaining + 1];
+            moves[remaining] = ordered;
+        }
+        int count = 0;
+        if (tableMove >= 0 && !drawn[tableMove]) {
+            ordered[++count] = tableMove;
+        }
+        for (int group = CAPTURE; group <= GIVING; group++) {
+            for (int edge = 0; edge < edgeCount; edge++) {
+                if (!drawn[edge] && edge != tableMove && classify(edge) == group) {
+                    ordered[++count] = edge;
+                }
+            }
+        }
+        ordered[0] = count;
+        return ordered;
+    }
+
+    private int classify(int edge) {
+        int first = sides[edgeBoxes[edge * 2]];
+        int second = edgeBoxes[edge * 2 + 1] < 0 ? 0 : sides[edgeBoxes[edge * 2 + 1]];
+        if (first == 3 || second == 3) {
+            return CAPTURE;
+        }
+        return first == 2 || second == 2 ? GIVING : SAFE;
+    }
+
+    /**
+     * Draws an edge and returns the number of boxes it completes.
+     */
+    private int play(int edge) {
+        drawn[edge] = true;
+        symmetry.toggle(hashes, edge);
+        remaining--;
+        if (trackChains) {
+            chains.drawEdge(edge);
+        }
+        return addSide(edgeBoxes[edge * 2]) + (edgeBoxes[edge * 2 + 1] < 0 ? 0 : addSide(edgeBoxes[edge * 2 + 1]));
+    }
+
+    private int addSide(int box) {
+        int count = ++sides[box];
+        if (count == 3) {
+            capturable++;
+        } else if (count == 4) {
+            capturable--;
+            return 1;
+        }
+        return 0;
+    }
+
+    private void undo(int edge) {
+        drawn[edge] = false;
+        symmetry.toggle(hashes, edge);
+        remaining++;
+        if (trackChains) {
+            chains.undrawEdge(edge);
+        }
+        removeSide(edgeBoxes[edge * 2]);
+        if (edgeBoxes[edge * 2 + 1] >= 0) {
+            removeSide(edgeBoxes[edge * 2 + 1]);
+        }
+    }
+
+    private void removeSide(int box) {
+        int count = sides[box]--;
+        if (count == 4) {
+            capturable++;
+        } else if (count == 3) {
+            capturable--;
+        }
+    }
+
+    /**
+     * Packs a table entry: move in bits 0-15, flag in 16-17, depth in 18-29,
+     * value in 32-47, and bit 63 set so that no entry is zero.
+     */
+    private static long entry(int value, int depth, int flag, int move) {
+        return Long.MIN_VALUE | ((long) (value & 0xFFFF) << 32) | ((long) depth << 18) | ((long) flag << 16)
+                | move;
+    }
+
+    private static int entryMove(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    private static int entryFlag(long entry) {
+        return (int) (entry >>> 16) & 3;
+    }
+
+    private static int entryDepth(long entry) {
+        return (int) (entry >>> 18) & 0xFFF;
+    }
+
+    private static int entryValue(long entry) {
+        return (short) (entry >>> 32);
+    }
+
+    /**
+     * Result of a search.
+     */
+    public static final class Result {
+        private final int edge;
+        private final int value;
+        private final int depth;
+        private final boolean solved;
+        private final long nodes;
+        private final long elapsedNanos;
+
+        Result(int edge, int value, int depth, boolean solved, long nodes, long elapsedNanos) {
+            this.edge = edge;
+            this.value = value;
+            this.depth = depth;
+            this.solved = solved;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return edge index of the chosen move
+         */
+        public int getEdge() {
+            return edge;
+        }
+
+        /**
+         * @return expected margin of the remaining boxes for the player to
+         *         move, exact when {@link #isSolved()}
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * @return deepest iteration completed, in edges
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return {@code true} when the search reached the end of the game
+         */
+        public boolean isSolved() {
+            return solved;
+        }
+
+        /**
+         * @return number of search nodes visited
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * @return wall-clock time spent searching, in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
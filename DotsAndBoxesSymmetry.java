@@ -0,0 +1,214 @@
+/**
+ * File: DotsAndBoxesSymmetry.java
+ * Description: Symmetries of a Dots and Boxes board shape as edge
+ *              permutations, with Zobrist keys that let search code hash a
+ *              position under every symmetry at once and look it up by its
+ *              canonical form.
+ *
+ * Features:
+ * - The 8 rotations and reflections of square boards, the 4 reflections and
+ *   half turn of rectangular ones
+ * - Per-symmetry key of every edge, laid out edge by edge so that drawing an
+ *   edge updates all hashes from one cache line
+ * - Canonical hash as the smallest of the symmetric hashes, and the edge maps
+ *   to carry a move into and out of the canonical orientation
+ * - Hashes salted with the board shape, so one table can serve several shapes
+ * - One immutable instance per (rows, cols), built on first use and cached
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symmetry group of a board with {@code rows} by {@code cols} boxes. Symmetry
+ * {@code 0} is the identity. Every hash starts from a key unique to the board
+ * shape, because edge keys depend only on the edge index: boards of different
+ * shapes with the same drawn edge indices would otherwise hash alike. The first
+ * of the hashes kept by {@link #toggle(long[], int)} is therefore
+ * {@link DotsAndBoxesBoard#getPositionHash()} XOR {@link #getShapeKey()}.
+ * Instances are immutable and obtained through {@link #of(int, int)}.
+ */
+public final class DotsAndBoxesSymmetry {
+    private static final ConcurrentHashMap<Long, DotsAndBoxesSymmetry> CACHE = new ConcurrentHashMap<>();
+
+    private final int count;
+    private final int edgeCount;
+    private final long shapeKey;
+    private final int[] maps;
+    private final int[] inverses;
+    private final long[] keys;
+
+    private DotsAndBoxesSymmetry(DotsAndBoxesGeometry geometry) {
+        int rows = geometry.getRows();
+        int cols = geometry.getCols();
+        this.count = rows == cols ? 8 : 4;
+        this.edgeCount = geometry.getEdgeCount();
+        this.shapeKey = Zobrist.mix(((long) rows << 32 | cols) * 0x9E3779B97F4A7C15L);
+        this.maps = new int[count * edgeCount];
+        this.inverses = new int[count * edgeCount];
+        this.keys = new long[edgeCount * count];
+
+        DotsAndBoxesEdge[] sides = DotsAndBoxesEdge.values();
+        for (int symmetry = 0; symmetry < count; symmetry++) {
+            // Bit 0 mirrors columns, bit 1 mirrors rows, bit 2 transposes
+            // afterwards; square boards use all eight combinations.
+            boolean mirrorCols = (symmetry & 1) != 0;
+            boolean mirrorRows = (symmetry & 2) != 0;
+            boolean transpose = (symmetry & 4) != 0;
+            for (int box = 0; box < geometry.getBoxCount(); box++) {
+                for (DotsAndBoxesEdge side : sides) {
+                    int row = box / cols;
+                    int col = box % cols;
+                    DotsAndBoxesEdge image = side;
+                    if (mirrorCols) {
+                        col = cols - 1 - col;
+                        image = image == DotsAndBoxesEdge.LEFT ? DotsAndBoxesEdge.RIGHT
+                                : image == DotsAndBoxesEdge.RIGHT ? DotsAndBoxesEdge.LEFT : image;
+                    }
+                    if (mirrorRows) {
+                        row = rows - 1 - row;
+                        image = image == DotsAndBoxesEdge.TOP ? DotsAndBoxesEdge.BOTTOM
+                                : image == DotsAndBoxesEdge.BOTTOM ? DotsAndBoxesEdge.TOP : image;
+                    }
+                    if (transpose) {
+                        int swap = row;
+                        row = col;
+                        col = swap;
+                        image = transposed(image);
+                    }
+                    int edge = geometry.getBoxEdge(box, side);
+                    int mapped = geometry.edgeIndex(row, col, image);
+                    maps[symmetry * edgeCount + edge] = mapped;
+                    inverses[symmetry * edgeCount + mapped] = edge;
+                    keys[edge * count + symmetry] = geometry.getEdgeKey(mapped);
+                }
+            }
+        }
+    }
+
+    private static DotsAndBoxesEdge transposed(DotsAndBoxesEdge side) {
+        switch (side) {
+            case TOP:
+                return DotsAndBoxesEdge.LEFT;
+            case LEFT:
+                return DotsAndBoxesEdge.TOP;
+            case BOTTOM:
+                return DotsAndBoxesEdge.RIGHT;
+            case RIGHT:
+            default:
+                return DotsAndBoxesEdge.BOTTOM;
+        }
+    }
+
+    /**
+     * Returns the shared symmetry tables for the supplied board shape.
+     *
+     * @param rows number of box rows
+     * @param cols number of box columns
+     * @return symmetries of a rows-by-cols board
+     * @throws IllegalArgumentException if either dimension is less than 1
+     */
+    public static DotsAndBoxesSymmetry of(int rows, int cols) {
+        DotsAndBoxesGeometry geometry = DotsAndBoxesGeometry.of(rows, cols);
+        return CACHE.computeIfAbsent(((long) rows << 32) | cols, key -> new DotsAndBoxesSymmetry(geometry));
+    }
+
+    /**
+     * @return number of symmetries: 8 for square boards, 4 otherwise
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Carries an edge to its image under a symmetry.
+     *
+     * @param symmetry symmetry number, {@code 0} for the identity
+     * @param edge     edge index
+     * @return index of the image edge
+     */
+    public int mapEdge(int symmetry, int edge) {
+        return maps[symmetry * edgeCount + edge];
+    }
+
+    /**
+     * Carries an image edge back to the edge it came from.
+     *
+     * @param symmetry symmetry number
+     * @param edge     index of an image edge
+     * @return edge whose image under the symmetry is {@code edge}
+     */
+    public int unmapEdge(int symmetry, int edge) {
+        return inverses[symmetry * edgeCount + edge];
+    }
+
+    /**
+     * @return key every hash of this board shape starts from
+     */
+    public long getShapeKey() {
+        return shapeKey;
+    }
+
+    /**
+     * @return fresh hashes of the empty board, one per symmetry
+     */
+    public long[] newHashes() {
+        long[] hashes = new long[count];
+        Arrays.fill(hashes, shapeKey);
+        return hashes;
+    }
+
+    /**
+     * Hashes a board under every symmetry.
+     *
+     * @param board  board of this shape
+     * @param hashes destination, one slot per symmetry
+     */
+    public void hash(DotsAndBoxesBoard board, long[] hashes) {
+        Arrays.fill(hashes, shapeKey);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (board.isDrawn(edge)) {
+                toggle(hashes, edge);
+            }
+        }
+    }
+
+    /**
+     * Updates the hashes under every symmetry for an edge being drawn or
+     * erased.
+     *
+     * @param hashes per-symmetry hashes to update
+     * @param edge   edge index
+     */
+    public void toggle(long[] hashes, int edge) {
+        int base = edge * count;
+        for (int symmetry = 0; symmetry < count; symmetry++) {
+            hashes[symmetry] ^= keys[base + symmetry];
+        }
+    }
+
+    /**
+     * Finds the symmetry giving the canonical hash, the smallest of the
+     * symmetric hashes. Symmetric positions share their canonical hash.
+     *
+     * @param hashes per-symmetry hashes
+     * @return symmetry number whose hash is canonical; the lowest on ties
+     */
+    public int canonicalSymmetry(long[] hashes) {
+        int best = 0;
+        for (int symmetry = 1; symmetry < count; symmetry++) {
+            if (hashes[symmetry] < hashes[best]) {
+                best = symmetry;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param hashes per-symmetry hashes
+     * @return canonical hash
+     */
+    public long canonicalHash(long[] hashes) {
+        return hashes[canonicalSymmetry(hashes)];
+    }
+}
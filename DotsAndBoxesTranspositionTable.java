@@ -0,0 +1,140 @@
+/**
+ * File: DotsAndBoxesTranspositionTable.java
+ * Description: Fixed-size transposition table for Dots and Boxes search that
+ *              several search threads can probe and store into at once.
+ *
+ * Features:
+ * - Slots of one 64-bit key and one 64-bit packed entry in two flat arrays
+ * - Lock striping: slot {@code i} is guarded by {@link StampedLock}
+ *   {@code i % stripes}, so threads working on different slots rarely meet
+ * - Optimistic reads that take no lock unless a store to the same stripe
+ *   overlaps, falling back to a read lock after a few attempts
+ * - Writes that keep key and entry consistent, so a probe never pairs one
+ *   position's key with another's entry
+ */
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Shared store of search results keyed by position hash. Entries are opaque
+ * non-zero {@code long}s packed by the caller; a probe that misses returns
+ * {@code 0}. A store always replaces whatever the slot held. Instances are
+ * thread-safe.
+ */
+public final class DotsAndBoxesTranspositionTable {
+    /** Default table size: 2^20 slots, 16 MiB. */
+    public static final int DEFAULT_TABLE_BITS = 20;
+    /** Default number of lock stripes. */
+    public static final int DEFAULT_STRIPES = 256;
+
+    /** Optimistic attempts before a probe takes the read lock. */
+    private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private final StampedLock[] locks;
+    private final int stripeMask;
+
+    /**
+     * Creates a table with the default size and stripe count.
+     */
+    public DotsAndBoxesTranspositionTable() {
+        this(DEFAULT_TABLE_BITS, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param tableBits base-two logarithm of the slot count, between 10 and 28;
+     *                  each slot takes 16 bytes
+     * @param stripes   number of locks, a power of two no larger than the slot
+     *                  count
+     * @throws IllegalArgumentException if the size or stripe count is invalid
+     */
+    public DotsAndBoxesTranspositionTable(int tableBits, int stripes) {
+        if (tableBits < 10 || tableBits > 28) {
+            throw new IllegalArgumentException("Table size must be between 2^10 and 2^28 entries.");
+        }
+        if (stripes < 1 || Integer.bitCount(stripes) != 1 || stripes > 1 << tableBits) {
+            throw new IllegalArgumentException("Stripe count must be a power of two no larger than the table.");
+        }
+        this.keys = new long[1 << tableBits];
+        this.entries = new long[1 << tableBits];
+        this.mask = (1 << tableBits) - 1;
+        this.locks = new StampedLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new StampedLock();
+        }
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * @return number of slots
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Looks a position up.
+     *
+     * @param key position hash
+     * @return stored entry, or {@code 0} when the slot holds another position
+     *         or nothing
+     */
+    public long probe(long key) {
+        int slot = (int) key & mask;
+        StampedLock lock = locks[slot & stripeMask];
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            long storedKey = keys[slot];
+            long entry = entries[slot];
+            if (stamp != 0 && lock.validate(stamp)) {
+                return storedKey == key ? entry : 0L;
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return keys[slot] == key ? entries[slot] : 0L;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores an entry for a position, replacing the slot's previous content.
+     *
+     * @param key   position hash
+     * @param entry non-zero packed entry
+     */
+    public void store(long key, long entry) {
+        int slot = (int) key & mask;
+        StampedLock lock = locks[slot & stripeMask];
+        long stamp = lock.writeLock();
+        try {
+            keys[slot] = key;
+            entries[slot] = entry;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Forgets every stored position. Concurrent stores may survive.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            long stamp = locks[stripe].writeLock();
+            try {
+                for (int slot = stripe; slot <= mask; slot += stripeMask + 1) {
+                    keys[slot] = 0L;
+                    entries[slot] = 0L;
+                }
+            } finally {
+                locks[stripe].unlockWrite(stamp);
+            }
+        }
+    }
+}
@@ -247,6 +247,7 @@ public class GameController {
             if (game.supportsTopScores()) {
                 menu.append(", [scores] View top scores");
             }
+            menu.append(game.describePreGameOptions());
             menu.append(", [quit] Exit");
             outputService.println(menu.toString());
             String choice = inputService.readLine();
@@ -285,7 +286,11 @@ public class GameController {
                     }
                     break;
                 default:
-                    outputService.println("Please choose 'start', 'regen', 'scores', or 'quit'.");
+                    if (!game.handlePreGameOption(normalized)) {
+                        outputService.println("Please choose 'start', 'regen', 'scores', or 'quit'.");
+                    } else if (game.isExitRequested()) {
+                        return false;
+                    }
             }
         }
         return false;
@@ -22,4 +22,18 @@ public interface GamePiece {
      * @return {@code true} when the piece should be treated as empty
      */
     boolean isEmpty();
+
+    /**
+     * Identifies the piece's state for position hashing via {@link Zobrist}.
+     * Pieces that are interchangeable on the board must return the same key,
+     * and the key must not change while the piece sits in a {@link Grid}.
+     * {@code 0} is reserved for empty space. The default derives the key from
+     * the display token, which is stable across processes; views whose state
+     * lives outside the grid must override it with a constant key.
+     *
+     * @return state key, {@code 0} when the piece is empty
+     */
+    default long getStateKey() {
+        return isEmpty() ? 0L : (1L << 32) | (getDisplayToken().hashCode() & 0xFFFFFFFFL);
+    }
 }
@@ -7,6 +7,16 @@
  * 
  * Features:
  * - 2D grid of {@link Tile} instances tracking occupants and metadata
+ * - Optional flat row-major storage with tiles materialized lazily as views
+ * - Constant-time copies and snapshots of flat grids via copy-on-write rows
+ * - Change tracking with a dirty bitset and per-cell generation numbers
+ * - Incrementally maintained {@link Zobrist} hash of the position
+ * - Allocation-free neighbor iteration over shared {@link GridAdjacency} tables
+ * - Non-copying rectangular region views
+ * - Optional off-heap storage of codec-encoded cells in direct memory or a
+ *   memory-mapped file that other processes can open read-only
+ * - Row-block {@link Spliterator}s over pieces and cell indices, and parallel
+ *   fill, count and reduce on the common fork/join pool for large grids
  * - Grid validation and bounds checking
  * - Grid initialization and element access methods
  * - Grid size management and resizing capabilities
@@ -14,9 +24,28 @@
  * - Display formatting support
  */
 
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generic grid class for managing 2D grid structures comprised of {@link Tile}
@@ -25,10 +54,55 @@ import java.util.Objects;
  * @param <T> type of {@link GamePiece} stored within the grid tiles
  */
 public class Grid<T extends GamePiece> {
+    /**
+     * Memory layout used to hold the grid's pieces.
+     */
+    public enum Storage {
+        /** One {@link Tile} object per cell, allocated up front. */
+        TILES,
+        /**
+         * One array of pieces per row. Tiles are created on first
+         * {@link #getTile(int, int)} call as views that read and write the
+         * arrays. Rows are shared between a grid and its copies and snapshots
+         * until one of them writes to the row.
+         */
+        FLAT,
+        /**
+         * One {@code int} code per cell outside the Java heap, converted to
+         * and from pieces by a {@link PieceCodec}. Tiles are views as with
+         * {@link #FLAT}. Backed by direct memory, or by a memory-mapped file
+         * for grids made with {@link Grid#createMapped} or
+         * {@link Grid#openMapped}.
+         */
+        OFF_HEAP
+    }
+
+    /**
+     * Smallest number of cells handed to one fork/join task by the parallel
+     * bulk operations; grids no larger than this are processed on the calling
+     * thread. At a few nanoseconds per cell this gives each task tens of
+     * microseconds of work, well above the few microseconds that
+     * GridBenchmark's parallel scenario measures for one fork/join dispatch.
+     */
+    static final int PARALLEL_BLOCK_CELLS = 1 << 14;
+
     private Tile<T>[][] grid;
+    private Object[][] cells;
+    private OffHeapCells<T> offHeap;
+    private boolean cellsShared;
+    private int[] rowStamps;
+    private int stamp;
+    private long generation;
+    private long baseGeneration;
+    private long[] rowGenerations;
+    private long[][] cellGenerations;
+    private long[] dirtyBits;
+    private long hash;
     private int rows;
     private int cols;
     private final Class<T> componentType;
+    private final Storage storage;
+    private final PieceCodec<T> codec;
 
     /**
      * Constructor to create a grid with specified dimensions and type.
@@ -38,24 +112,162 @@ public class Grid<T extends GamePiece> {
      * @param cols          The number of columns in the grid
      * @throws IllegalArgumentException if rows or cols are less than 1
      */
-    @SuppressWarnings("unchecked")
     public Grid(Class<T> componentType, int rows, int cols) {
+        this(componentType, rows, cols, Storage.TILES);
+    }
+
+    /**
+     * Constructor to create a grid with specified dimensions, type and storage
+     * layout.
+     *
+     * @param componentType The class type of elements to store in the grid
+     * @param rows          The number of rows in the grid
+     * @param cols          The number of columns in the grid
+     * @param storage       The memory layout for the grid's pieces
+     * @throws IllegalArgumentException if rows or cols are less than 1, or if
+     *                                  off-heap storage is requested without a
+     *                                  codec
+     */
+    public Grid(Class<T> componentType, int rows, int cols, Storage storage) {
+        this(componentType, rows, cols, storage, null);
+    }
+
+    /**
+     * Constructor to create a grid with {@link Storage#OFF_HEAP} storage in
+     * direct memory.
+     *
+     * @param componentType The class type of elements to store in the grid
+     * @param rows          The number of rows in the grid
+     * @param cols          The number of columns in the grid
+     * @param codec         The codec converting pieces to stored codes
+     * @throws IllegalArgumentException if rows or cols are less than 1
+     */
+    public Grid(Class<T> componentType, int rows, int cols, PieceCodec<T> codec) {
+        this(componentType, rows, cols, Storage.OFF_HEAP, Objects.requireNonNull(codec, "codec must not be null"));
+    }
+
+    private Grid(Class<T> componentType, int rows, int cols, Storage storage, PieceCodec<T> codec) {
         if (rows < 1 || cols < 1) {
             throw new IllegalArgumentException("Row and column sizes must be positive integers.");
         }
+        if (storage == Storage.OFF_HEAP && codec == null) {
+            throw new IllegalArgumentException("Off-heap storage requires a PieceCodec.");
+        }
 
         this.componentType = componentType;
+        this.storage = Objects.requireNonNull(storage, "storage must not be null");
+        this.codec = codec;
         this.rows = rows;
         this.cols = cols;
+        allocate();
+    }
 
+    /**
+     * Creates a flat grid that shares the supplied rows copy-on-write.
+     */
+    private Grid(Class<T> componentType, int rows, int cols, Object[][] sharedCells, long hash) {
+        this.componentType = componentType;
+        this.storage = Storage.FLAT;
+        this.codec = null;
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = sharedCells;
+        this.cellsShared = true;
+        this.hash = hash;
+    }
+
+    /**
+     * Creates an off-heap grid over existing cells.
+     */
+    private Grid(Class<T> componentType, OffHeapCells<T> offHeap) {
+        this.componentType = componentType;
+        this.storage = Storage.OFF_HEAP;
+        this.codec = offHeap.getCodec();
+        this.rows = offHeap.getRows();
+        this.cols = offHeap.getCols();
+        this.offHeap = offHeap;
+        recomputeZobristHash();
+    }
+
+    /**
+     * Creates an empty off-heap grid backed by a memory-mapped file, creating
+     * or truncating the file. Writes land in the file as they are made, so
+     * other processes can follow the board with {@link #openMapped}. Mapped
+     * grids cannot be resized.
+     *
+     * @param componentType The class type of elements to store in the grid
+     * @param file          The file to map
+     * @param rows          The number of rows in the grid
+     * @param cols          The number of columns in the grid
+     * @param codec         The codec converting pieces to stored codes
+     * @param <T>           type of piece stored in the grid
+     * @return grid backed by the file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static <T extends GamePiece> Grid<T> createMapped(Class<T> componentType, Path file, int rows, int cols,
+            PieceCodec<T> codec) throws IOException {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        return new Grid<>(componentType, OffHeapCells.create(file, rows, cols, codec));
+    }
+
+    /**
+     * Maps a board file written by {@link #createMapped}. Reads always see the
+     * file's current contents, including writes made by another process;
+     * the position hash and change tracking of this grid, however, only follow
+     * writes made through it ({@link #recomputeZobristHash()} catches up).
+     * Writes to a read-only grid throw {@link UnsupportedOperationException}.
+     *
+     * @param componentType The class type of elements to store in the grid
+     * @param file          The file to map
+     * @param codec         The codec the file was written with
+     * @param readOnly      {@code true} to map the file read-only
+     * @param <T>           type of piece stored in the grid
+     * @return grid backed by the file
+     * @throws IOException if the file cannot be mapped or is not a board file
+     */
+    public static <T extends GamePiece> Grid<T> openMapped(Class<T> componentType, Path file, PieceCodec<T> codec,
+            boolean readOnly) throws IOException {
+        return new Grid<>(componentType, OffHeapCells.open(file, Objects.requireNonNull(codec, "codec must not be null"),
+                readOnly));
+    }
+
+    /**
+     * Allocates empty storage for the current dimensions.
+     */
+    @SuppressWarnings("unchecked")
+    private void allocate() {
+        if (storage == Storage.OFF_HEAP) {
+            this.grid = null;
+            this.offHeap = OffHeapCells.allocate(rows, cols, codec);
+            return;
+        }
+        if (storage == Storage.FLAT) {
+            this.grid = null;
+            this.cells = new Object[rows][cols];
+            this.cellsShared = false;
+            this.rowStamps = new int[rows];
+            this.stamp = 0;
+            return;
+        }
         this.grid = (Tile<T>[][]) new Tile[rows][cols];
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                grid[i][j] = new Tile<>(i, j, null);
+                grid[i][j] = new Tile<>(this, i, j, null, false);
             }
         }
     }
 
+    /**
+     * Gets the memory layout used by this grid.
+     *
+     * @return The storage layout
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
     /**
      * Gets the number of rows in the grid.
      *
@@ -91,9 +303,18 @@ public class Grid<T extends GamePiece> {
      * @return The element at the specified position
      * @throws IndexOutOfBoundsException if the position is invalid
      */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public Tile<T> getTile(int row, int col) {
         validateBounds(row, col);
-        return grid[row][col];
+        if (grid == null) {
+            grid = (Tile<T>[][]) new Tile[rows][cols];
+        }
+        Tile<T> tile = grid[row][col];
+        if (tile == null) {
+            tile = new Tile<>(this, row, col, null, true);
+            grid[row][col] = tile;
+        }
+        return tile;
     }
 
     /**
@@ -104,8 +325,10 @@ public class Grid<T extends GamePiece> {
      * @return The game piece at the specified position, or {@code null} if empty
      * @throws IndexOutOfBoundsException if the position is invalid
      */
+    @SuppressWarnings("unchecked")
     public T getPiece(int row, int col) {
-        return getTile(row, col).getOccupant();
+        validateBounds(row, col);
+        return occupantAt(row, col);
     }
 
     /**
@@ -118,6 +341,10 @@ public class Grid<T extends GamePiece> {
      */
     public void setPiece(int row, int col, T value) {
         validateBounds(row, col);
+        if (storage != Storage.TILES) {
+            writeCell(row, col, Objects.requireNonNull(value, "newOccupant must not be null"));
+            return;
+        }
         grid[row][col].setOccupant(value);
     }
 
@@ -126,9 +353,282 @@ public class Grid<T extends GamePiece> {
      */
     public void clearTile(int row, int col) {
         validateBounds(row, col);
+        if (storage != Storage.TILES) {
+            writeCell(row, col, null);
+            return;
+        }
         grid[row][col].clear();
     }
 
+    /**
+     * Reads a cell of flat or off-heap storage. Used by tile views.
+     *
+     * @param row row index
+     * @param col column index
+     * @return piece stored in the cell, or {@code null} if empty
+     */
+    @SuppressWarnings("unchecked")
+    T readCell(int row, int col) {
+        return cells != null ? (T) cells[row][col] : offHeap.get(row * cols + col);
+    }
+
+    /**
+     * Writes a cell of flat or off-heap storage and records the change.
+     *
+     * @param row   row index
+     * @param col   column index
+     * @param value piece to store, or {@code null} to clear the cell
+     */
+    @SuppressWarnings("unchecked")
+    void writeCell(int row, int col, T value) {
+        if (offHeap != null) {
+            int index = row * cols + col;
+            T previous = offHeap.get(index);
+            try {
+                offHeap.set(index, value);
+            } catch (ReadOnlyBufferException e) {
+                throw new UnsupportedOperationException("Grid is mapped read-only.", e);
+            }
+            recordChange(row, col, previous, value);
+            return;
+        }
+        Object[] cellRow = writableRow(row);
+        T previous = (T) cellRow[col];
+        cellRow[col] = value;
+        recordChange(row, col, previous, value);
+    }
+
+    /**
+     * Updates the position hash, advances the generation, stamps the cell with
+     * it and marks the cell dirty. Tracking arrays are allocated on the first
+     * change so that copies and snapshots stay cheap.
+     *
+     * @param row      row index
+     * @param col      column index
+     * @param previous piece the cell held before the change, or {@code null}
+     * @param value    piece the cell holds now, or {@code null}
+     */
+    void recordChange(int row, int col, T previous, T value) {
+        int index = row * cols + col;
+        hash ^= Zobrist.key(index, previous) ^ Zobrist.key(index, value);
+        if (rowGenerations == null) {
+            rowGenerations = new long[rows];
+            cellGenerations = new long[rows][];
+            Arrays.fill(rowGenerations, baseGeneration);
+        }
+        if (dirtyBits == null) {
+            dirtyBits = new long[(rows * cols + 63) >>> 6];
+        }
+        long current = ++generation;
+        rowGenerations[row] = current;
+        long[] stamps = cellGenerations[row];
+        if (stamps == null) {
+            stamps = new long[cols];
+            cellGenerations[row] = stamps;
+        }
+        stamps[col] = current;
+        dirtyBits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Gets the {@link Zobrist} hash of the current position: the XOR of
+     * {@link Zobrist#key(int, GamePiece)} over every cell. Each write updates
+     * it in constant time, and grids holding pieces with the same state keys
+     * in the same cells have the same hash in every process. Pieces changed in
+     * place are not seen until {@link #recomputeZobristHash()} is called.
+     *
+     * @return The position hash, {@code 0} for an empty grid
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    /**
+     * Recomputes the position hash from every cell, for use after pieces
+     * held by the grid have changed their state keys in place.
+     *
+     * @return The recomputed position hash
+     */
+    public long recomputeZobristHash() {
+        long computed = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                computed ^= Zobrist.key(i * cols + j, occupantAt(i, j));
+            }
+        }
+        hash = computed;
+        return computed;
+    }
+
+    /**
+     * Gets the grid's generation number, which increases by one with every
+     * change to a cell. A new grid, copy or restored snapshot starts at
+     * {@code 0}; a resize marks every cell as changed.
+     *
+     * @return The current generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the generation at which the cell was last changed.
+     *
+     * @param row The row index (0-based)
+     * @param col The column index (0-based)
+     * @return The cell's generation, or {@code 0} if it has not changed
+     * @throws IndexOutOfBoundsException if the position is invalid
+     */
+    public long getCellGeneration(int row, int col) {
+        validateBounds(row, col);
+        if (cellGenerations == null || cellGenerations[row] == null) {
+            return baseGeneration;
+        }
+        return Math.max(baseGeneration, cellGenerations[row][col]);
+    }
+
+    /**
+     * Checks whether the cell changed since its dirty flag was last cleared.
+     *
+     * @param row The row index (0-based)
+     * @param col The column index (0-based)
+     * @return true if the cell is dirty, false otherwise
+     * @throws IndexOutOfBoundsException if the position is invalid
+     */
+    public boolean isDirty(int row, int col) {
+        validateBounds(row, col);
+        int index = row * cols + col;
+        return dirtyBits != null && (dirtyBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Clears the dirty flag of a single cell once its change has been
+     * processed.
+     *
+     * @param row The row index (0-based)
+     * @param col The column index (0-based)
+     * @throws IndexOutOfBoundsException if the position is invalid
+     */
+    public void acknowledge(int row, int col) {
+        validateBounds(row, col);
+        if (dirtyBits != null) {
+            int index = row * cols + col;
+            dirtyBits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Clears every dirty flag, typically after a renderer has redrawn the
+     * changed cells.
+     */
+    public void clearDirty() {
+        if (dirtyBits != null) {
+            Arrays.fill(dirtyBits, 0L);
+        }
+    }
+
+    /**
+     * Counts the cells whose dirty flag is set.
+     *
+     * @return The number of dirty cells
+     */
+    public int getDirtyCount() {
+        int count = 0;
+        if (dirtyBits != null) {
+            for (long word : dirtyBits) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Iterates over the row-major indices ({@code row * cols + col}) of the
+     * dirty cells in ascending order. The grid must not be modified during
+     * iteration.
+     *
+     * @return iterator over dirty cell indices
+     */
+    public PrimitiveIterator.OfInt dirtyCells() {
+        return new DirtyCellIterator(dirtyBits);
+    }
+
+    /**
+     * Iterates over the row-major indices ({@code row * cols + col}) of the
+     * cells changed after the supplied generation, in ascending order. Rows
+     * without such changes are skipped without visiting their cells. The grid
+     * must not be modified during iteration.
+     *
+     * @param since generation previously returned by {@link #getGeneration()}
+     * @return iterator over changed cell indices
+     */
+    public PrimitiveIterator.OfInt changedSince(long since) {
+        return new ChangedCellIterator(since);
+    }
+
+    /**
+     * Resets change tracking after a copy or restore: generation zero and no
+     * dirty cells.
+     */
+    private void resetTracking() {
+        generation = 0;
+        baseGeneration = 0;
+        rowGenerations = null;
+        cellGenerations = null;
+        dirtyBits = null;
+    }
+
+    /**
+     * Marks every cell as changed at a new generation after the dimensions
+     * changed.
+     */
+    private void markAllChanged() {
+        baseGeneration = ++generation;
+        rowGenerations = null;
+        cellGenerations = null;
+        dirtyBits = new long[(rows * cols + 63) >>> 6];
+        Arrays.fill(dirtyBits, -1L);
+        int tail = (rows * cols) & 63;
+        if (tail != 0) {
+            dirtyBits[dirtyBits.length - 1] = (1L << tail) - 1;
+        }
+    }
+
+    /**
+     * Returns a row of flat storage that this grid may modify, copying the row
+     * (and, after a copy or snapshot, the array of rows) first if it is still
+     * shared.
+     *
+     * @param row row index
+     * @return row array owned by this grid
+     */
+    private Object[] writableRow(int row) {
+        if (cellsShared) {
+            cells = cells.clone();
+            cellsShared = false;
+        }
+        if (rowStamps == null) {
+            rowStamps = new int[rows];
+            stamp = 1;
+        }
+        if (rowStamps[row] != stamp) {
+            cells[row] = cells[row].clone();
+            rowStamps[row] = stamp;
+        }
+        return cells[row];
+    }
+
+    /**
+     * Marks every row of flat storage as shared so that the next write to
+     * each row copies it first.
+     */
+    private void shareCells() {
+        cellsShared = true;
+        if (rowStamps != null && ++stamp == Integer.MAX_VALUE) {
+            rowStamps = null;
+        }
+    }
+
     /**
      * Validates that the given row and column indices are within bounds.
      *
@@ -154,19 +654,306 @@ public class Grid<T extends GamePiece> {
         return row >= 0 && row < rows && col >= 0 && col < cols;
     }
 
+    /**
+     * Gets the shared neighbor tables for the grid's current dimensions.
+     * Indices in the tables are row-major ({@code row * cols + col}).
+     *
+     * @return adjacency of the grid's shape
+     */
+    public GridAdjacency getAdjacency() {
+        return GridAdjacency.of(rows, cols);
+    }
+
+    /**
+     * Passes the row and column of every orthogonal neighbor of a cell to the
+     * action, in up, down, left, right order. Nothing is allocated per call.
+     *
+     * @param row    The row index (0-based)
+     * @param col    The column index (0-based)
+     * @param action callback receiving each neighbor's row and column
+     * @throws IndexOutOfBoundsException if the position is invalid
+     */
+    public void forEachNeighbor(int row, int col, IntBinaryConsumer action) {
+        validateBounds(row, col);
+        getAdjacency().forEachNeighbor(row, col, action);
+    }
+
+    /**
+     * Creates a view of a rectangle of this grid. The view copies nothing:
+     * reads and writes go straight to this grid, with positions relative to
+     * the rectangle's top-left cell.
+     *
+     * @param top        row of the rectangle's top-left cell
+     * @param left       column of the rectangle's top-left cell
+     * @param regionRows number of rows in the rectangle
+     * @param regionCols number of columns in the rectangle
+     * @return view of the rectangle
+     * @throws IllegalArgumentException  if the rectangle is empty
+     * @throws IndexOutOfBoundsException if the rectangle extends past the grid
+     */
+    public Region<T> region(int top, int left, int regionRows, int regionCols) {
+        if (regionRows < 1 || regionCols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        validateBounds(top, left);
+        validateBounds(top + regionRows - 1, left + regionCols - 1);
+        return new Region<>(this, top, left, regionRows, regionCols);
+    }
+
     /**
      * Fills the entire grid with the specified value.
      *
      * @param value The value to fill the grid with
      */
     public void fill(T value) {
-        if (value == null) {
+        if (storage != Storage.TILES) {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    writeCell(i, j, value);
+                }
+            }
+        } else if (value == null) {
             forEachTile(Tile::clear);
         } else {
             forEachTile(tile -> tile.setOccupant(value));
         }
     }
 
+    /**
+     * Fills the entire grid with the specified value, splitting the work by
+     * blocks of rows across the common fork/join pool when the grid is large
+     * enough to benefit. The fill counts as one change: every cell is marked
+     * dirty at a single new generation.
+     *
+     * @param value The value to fill the grid with, or {@code null} to clear
+     */
+    public void parallelFill(T value) {
+        parallelFill(value, parallelBlockCells());
+    }
+
+    /**
+     * Parallel fill with an explicit minimum task size in cells.
+     */
+    void parallelFill(T value, int minBlockCells) {
+        if (offHeap != null && offHeap.isReadOnly()) {
+            throw new UnsupportedOperationException("Grid is mapped read-only.");
+        }
+        if (cells != null) {
+            if (cellsShared) {
+                cells = cells.clone();
+                cellsShared = false;
+            }
+            if (rowStamps == null) {
+                rowStamps = new int[rows];
+                stamp = 1;
+            }
+        }
+        long delta = splitRows((fromRow, toRow) -> fillRows(value, fromRow, toRow), (a, b) -> a ^ b,
+                minBlockCells);
+        hash ^= delta;
+        markAllChanged();
+    }
+
+    /**
+     * Stores the value in every cell of a block of rows without recording the
+     * changes, which the caller does once for the whole fill. Flat rows are
+     * replaced rather than copied, which also ends any sharing.
+     *
+     * @return XOR of the hash changes within the block
+     */
+    @SuppressWarnings("unchecked")
+    private Long fillRows(T value, int fromRow, int toRow) {
+        long delta = 0;
+        for (int i = fromRow; i < toRow; i++) {
+            int base = i * cols;
+            if (cells != null) {
+                Object[] previous = cells[i];
+                Object[] filled = new Object[cols];
+                Arrays.fill(filled, value);
+                cells[i] = filled;
+                rowStamps[i] = stamp;
+                for (int j = 0; j < cols; j++) {
+                    delta ^= Zobrist.key(base + j, (T) previous[j]) ^ Zobrist.key(base + j, value);
+                }
+            } else if (offHeap != null) {
+                for (int j = 0; j < cols; j++) {
+                    delta ^= Zobrist.key(base + j, offHeap.get(base + j)) ^ Zobrist.key(base + j, value);
+                    offHeap.set(base + j, value);
+                }
+            } else {
+                for (int j = 0; j < cols; j++) {
+                    delta ^= Zobrist.key(base + j, grid[i][j].getOccupant()) ^ Zobrist.key(base + j, value);
+                    grid[i][j].assign(value);
+                }
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Counts the cells whose piece matches the predicate, splitting the work by
+     * blocks of rows across the common fork/join pool when the grid is large
+     * enough to benefit. Empty cells are tested as {@code null}.
+     *
+     * @param predicate test applied to every cell's piece
+     * @return number of matching cells
+     */
+    public long parallelCount(Predicate<? super T> predicate) {
+        return parallelCount(predicate, parallelBlockCells());
+    }
+
+    /**
+     * Parallel count with an explicit minimum task size in cells.
+     */
+    long parallelCount(Predicate<? super T> predicate, int minBlockCells) {
+        return splitRows((fromRow, toRow) -> {
+            long count = 0;
+            for (int i = fromRow; i < toRow; i++) {
+                for (int j = 0; j < cols; j++) {
+                    if (predicate.test(occupantAt(i, j))) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }, Long::sum, minBlockCells);
+    }
+
+    /**
+     * Sums a value computed from every cell's piece, splitting the work by
+     * blocks of rows across the common fork/join pool when the grid is large
+     * enough to benefit. Empty cells are passed as {@code null}.
+     *
+     * @param mapper function giving each piece's contribution
+     * @return sum of the contributions
+     */
+    public long parallelSum(ToLongFunction<? super T> mapper) {
+        return parallelSum(mapper, parallelBlockCells());
+    }
+
+    /**
+     * Parallel sum with an explicit minimum task size in cells.
+     */
+    long parallelSum(ToLongFunction<? super T> mapper, int minBlockCells) {
+        return splitRows((fromRow, toRow) -> {
+            long sum = 0;
+            for (int i = fromRow; i < toRow; i++) {
+                for (int j = 0; j < cols; j++) {
+                    sum += mapper.applyAsLong(occupantAt(i, j));
+                }
+            }
+            return sum;
+        }, Long::sum, minBlockCells);
+    }
+
+    /**
+     * Reduces the grid's pieces in row-major order, splitting the work by
+     * blocks of rows across the common fork/join pool when the grid is large
+     * enough to benefit. As with {@link Stream#reduce(Object, BiFunction,
+     * BinaryOperator)}, the identity must be an identity of the combiner and
+     * the combiner must be associative. Empty cells are passed as
+     * {@code null}.
+     *
+     * @param identity    initial value of every block's result
+     * @param accumulator folds one piece into a block's result
+     * @param combiner    merges the results of adjacent blocks
+     * @param <R>         result type
+     * @return the reduced result
+     */
+    public <R> R parallelReduce(R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+        return parallelReduce(identity, accumulator, combiner, parallelBlockCells());
+    }
+
+    /**
+     * Parallel reduce with an explicit minimum task size in cells.
+     */
+    <R> R parallelReduce(R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner,
+            int minBlockCells) {
+        return splitRows((fromRow, toRow) -> {
+            R result = identity;
+            for (int i = fromRow; i < toRow; i++) {
+                for (int j = 0; j < cols; j++) {
+                    result = accumulator.apply(result, occupantAt(i, j));
+                }
+            }
+            return result;
+        }, combiner, minBlockCells);
+    }
+
+    /**
+     * Minimum task size for the public parallel operations: everything on
+     * the calling thread unless the common pool has at least two workers.
+     */
+    private static int parallelBlockCells() {
+        return ForkJoinPool.getCommonPoolParallelism() < 2 ? Integer.MAX_VALUE : PARALLEL_BLOCK_CELLS;
+    }
+
+    /**
+     * Applies the block function to row blocks of at least
+     * {@code minBlockCells} cells on the common fork/join pool and combines
+     * the results in row order. A grid that fits in one block is processed on
+     * the calling thread.
+     */
+    private <R> R splitRows(RowBlockFunction<R> function, BinaryOperator<R> combiner, int minBlockCells) {
+        int leafRows = Math.max(1, minBlockCells / cols);
+        if (rows <= leafRows) {
+            return function.apply(0, rows);
+        }
+        return ForkJoinPool.commonPool().invoke(new RowBlockTask<>(function, combiner, 0, rows, leafRows));
+    }
+
+    /**
+     * Gets the piece in a cell without bounds checking.
+     */
+    private T occupantAt(int row, int col) {
+        return storage == Storage.TILES ? grid[row][col].getOccupant() : readCell(row, col);
+    }
+
+    /**
+     * Creates a spliterator over the grid's pieces in row-major order. It
+     * splits on row boundaries, halving the remaining rows, so a parallel
+     * stream hands each worker whole rows. Empty cells are reported as
+     * {@code null}. The grid must not be modified during traversal.
+     *
+     * @return spliterator over the pieces
+     */
+    public Spliterator<T> spliterator() {
+        return new PieceSpliterator(0, rows);
+    }
+
+    /**
+     * Creates a spliterator over the row-major cell indices
+     * ({@code row * cols + col}) that splits on row boundaries like
+     * {@link #spliterator()}.
+     *
+     * @return spliterator over the cell indices
+     */
+    public Spliterator.OfInt indexSpliterator() {
+        return new IndexSpliterator(0, rows, cols);
+    }
+
+    /**
+     * @return sequential stream of the grid's pieces in row-major order
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return parallel stream of the grid's pieces, split by row blocks
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * @return sequential stream of the row-major cell indices; call
+     *         {@code parallel()} to split it by row blocks
+     */
+    public IntStream indexStream() {
+        return StreamSupport.intStream(indexSpliterator(), false);
+    }
+
     /**
      * Fills the grid with values from the provided list in row-major order.
      *
@@ -180,6 +967,14 @@ public class Grid<T extends GamePiece> {
         }
 
         Iterator<T> iterator = values.iterator();
+        if (storage != Storage.TILES) {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    writeCell(i, j, Objects.requireNonNull(iterator.next(), "newOccupant must not be null"));
+                }
+            }
+            return;
+        }
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
                 grid[i][j].setOccupant(iterator.next());
@@ -197,7 +992,7 @@ public class Grid<T extends GamePiece> {
     public int[] findPosition(T value) {
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                if (Objects.equals(grid[i][j].getOccupant(), value)) {
+                if (Objects.equals(occupantAt(i, j), value)) {
                     return new int[] { i, j };
                 }
             }
@@ -218,19 +1013,34 @@ public class Grid<T extends GamePiece> {
         validateBounds(row1, col1);
         validateBounds(row2, col2);
 
+        if (storage != Storage.TILES) {
+            T temp = readCell(row1, col1);
+            writeCell(row1, col1, readCell(row2, col2));
+            writeCell(row2, col2, temp);
+            return;
+        }
         T temp = grid[row1][col1].getOccupant();
         grid[row1][col1].setOccupant(grid[row2][col2].getOccupant());
         grid[row2][col2].setOccupant(temp);
     }
 
     /**
-     * Creates a copy of the current grid.
+     * Creates a copy of the current grid. With {@link Storage#FLAT} storage
+     * the copy shares rows with this grid and takes constant time; either grid
+     * copies a row on its first write to it. The copy of an off-heap grid,
+     * mapped or not, is held in direct memory.
      *
      * @return A new Grid instance with the same contents
      */
-    @SuppressWarnings("unchecked")
     public Grid<T> copy() {
-        Grid<T> newGrid = new Grid<>(componentType, rows, cols);
+        if (cells != null) {
+            shareCells();
+            return new Grid<>(componentType, rows, cols, cells, hash);
+        }
+        if (offHeap != null) {
+            return new Grid<>(componentType, offHeap.copy(rows, cols));
+        }
+        Grid<T> newGrid = new Grid<>(componentType, rows, cols, storage);
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
                 T occupant = grid[i][j].getOccupant();
@@ -239,45 +1049,87 @@ public class Grid<T extends GamePiece> {
                 }
             }
         }
+        newGrid.resetTracking();
         return newGrid;
     }
 
     /**
      * Resizes the grid to new dimensions.
-     * Content is preserved where possible, new cells are set to null.
+     * Content is preserved where possible, new cells are set to null. Tiles
+     * obtained before the resize no longer belong to the grid, and every cell
+     * is marked as changed.
      *
      * @param newRows The new number of rows
      * @param newCols The new number of columns
-     * @throws IllegalArgumentException if new dimensions are invalid
+     * @throws IllegalArgumentException      if new dimensions are invalid
+     * @throws UnsupportedOperationException if the grid is backed by a
+     *                                       memory-mapped file
      */
     @SuppressWarnings("unchecked")
     public void resize(int newRows, int newCols) {
         if (newRows < 1 || newCols < 1) {
             throw new IllegalArgumentException("Row and column sizes must be positive integers.");
         }
+        if (offHeap != null && offHeap.isMapped()) {
+            throw new UnsupportedOperationException("Memory-mapped grids cannot be resized.");
+        }
+
+        detachTiles();
+        if (offHeap != null) {
+            offHeap = offHeap.copy(newRows, newCols);
+            this.grid = null;
+            this.rows = newRows;
+            this.cols = newCols;
+            recomputeZobristHash();
+            markAllChanged();
+            return;
+        }
+        if (cells != null) {
+            Object[][] oldCells = cells;
+            int copyRows = Math.min(rows, newRows);
+            int copyCols = Math.min(cols, newCols);
+            this.rows = newRows;
+            this.cols = newCols;
+            allocate();
+            for (int i = 0; i < copyRows; i++) {
+                System.arraycopy(oldCells[i], 0, cells[i], 0, copyCols);
+            }
+            recomputeZobristHash();
+            markAllChanged();
+            return;
+        }
 
         // Create new grid
         Tile<T>[][] newGrid = (Tile<T>[][]) new Tile[newRows][newCols];
         for (int i = 0; i < newRows; i++) {
             for (int j = 0; j < newCols; j++) {
-                newGrid[i][j] = new Tile<>(i, j, null);
-            }
-        }
-
-        int copyRows = Math.min(rows, newRows);
-        int copyCols = Math.min(cols, newCols);
-        for (int i = 0; i < copyRows; i++) {
-            for (int j = 0; j < copyCols; j++) {
-                T occupant = grid[i][j].getOccupant();
-                if (occupant != null) {
-                    newGrid[i][j].setOccupant(occupant);
-                }
+                T occupant = i < rows && j < cols ? grid[i][j].getOccupant() : null;
+                newGrid[i][j] = new Tile<>(this, i, j, occupant, false);
             }
         }
 
         this.grid = newGrid;
         this.rows = newRows;
         this.cols = newCols;
+        recomputeZobristHash();
+        markAllChanged();
+    }
+
+    /**
+     * Detaches every tile handed out so far, so that tiles held by callers
+     * keep their occupant but no longer read or record changes on this grid.
+     */
+    private void detachTiles() {
+        if (grid == null) {
+            return;
+        }
+        for (Tile<T>[] row : grid) {
+            for (Tile<T> tile : row) {
+                if (tile != null) {
+                    tile.detach();
+                }
+            }
+        }
     }
 
     /**
@@ -292,7 +1144,7 @@ public class Grid<T extends GamePiece> {
         for (int i = 0; i < rows; i++) {
             sb.append("[");
             for (int j = 0; j < cols; j++) {
-                sb.append(grid[i][j].getOccupant());
+                sb.append(occupantAt(i, j));
                 if (j < cols - 1)
                     sb.append(", ");
             }
@@ -302,25 +1154,556 @@ public class Grid<T extends GamePiece> {
     }
 
     /**
-     * Provides access to the raw grid array for advanced operations.
+     * Provides access to the raw grid array for advanced operations. With
+     * {@link Storage#FLAT} or {@link Storage#OFF_HEAP} storage every tile view
+     * is materialized first.
      * WARNING: Direct modification of the returned array can break grid invariants.
      *
      * @return The raw 2D array (use with caution)
      */
     public Tile<T>[][] getRawGrid() {
+        if (storage != Storage.TILES) {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    getTile(i, j);
+                }
+            }
+        }
         return grid;
     }
 
+    /**
+     * Captures the grid's current contents as an immutable snapshot that can be
+     * read from any thread while this grid keeps changing. With
+     * {@link Storage#FLAT} storage the snapshot shares rows with the grid and
+     * takes constant time; with {@link Storage#TILES} and
+     * {@link Storage#OFF_HEAP} storage the occupants are copied.
+     *
+     * @return frozen view of the current contents
+     */
+    public Snapshot<T> snapshot() {
+        if (cells != null) {
+            shareCells();
+            return new Snapshot<>(componentType, storage, codec, rows, cols, cells, hash);
+        }
+        return copySnapshot();
+    }
+
+    /**
+     * Captures the grid's contents by copying every occupant. Unlike
+     * {@link #snapshot()} this never writes to the grid, so
+     * {@link ConcurrentGrid} can call it from reader threads under an
+     * optimistic read.
+     *
+     * @return frozen copy of the current contents
+     */
+    Snapshot<T> copySnapshot() {
+        int snapshotRows = rows;
+        int snapshotCols = cols;
+        Object[][] frozen = new Object[snapshotRows][snapshotCols];
+        for (int i = 0; i < snapshotRows; i++) {
+            for (int j = 0; j < snapshotCols; j++) {
+                frozen[i][j] = occupantAt(i, j);
+            }
+        }
+        return new Snapshot<>(componentType, storage, codec, snapshotRows, snapshotCols, frozen, hash);
+    }
+
+    /**
+     * Iterates over the set bits of a dirty bitset.
+     */
+    private static final class DirtyCellIterator implements PrimitiveIterator.OfInt {
+        private final long[] words;
+        private int wordIndex;
+        private long word;
+
+        private DirtyCellIterator(long[] words) {
+            this.words = words;
+            this.wordIndex = -1;
+            advanceWord();
+        }
+
+        private void advanceWord() {
+            word = 0;
+            while (word == 0 && words != null && ++wordIndex < words.length) {
+                word = words[wordIndex];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return word != 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (word == 0) {
+                throw new NoSuchElementException();
+            }
+            int index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            if (word == 0) {
+                advanceWord();
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Walks the rows whose latest change is newer than a generation and yields
+     * the cells within them that changed after it.
+     */
+    private final class ChangedCellIterator implements PrimitiveIterator.OfInt {
+        private final long since;
+        private int row;
+        private int col = -1;
+        private int next = -1;
+
+        private ChangedCellIterator(long since) {
+            this.since = since;
+            advance();
+        }
+
+        private void advance() {
+            next = -1;
+            while (row < rows) {
+                if (rowGeneration(row) > since) {
+                    while (++col < cols) {
+                        if (cellGeneration(row, col) > since) {
+                            next = row * cols + col;
+                            return;
+                        }
+                    }
+                }
+                row++;
+                col = -1;
+            }
+        }
+
+        private long rowGeneration(int r) {
+            return rowGenerations == null ? baseGeneration : rowGenerations[r];
+        }
+
+        private long cellGeneration(int r, int c) {
+            long[] stamps = cellGenerations == null ? null : cellGenerations[r];
+            return stamps == null ? baseGeneration : Math.max(baseGeneration, stamps[c]);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            int result = next;
+            advance();
+            return result;
+        }
+    }
+
+    /**
+     * Work applied to a block of rows by the parallel bulk operations.
+     */
+    @FunctionalInterface
+    private interface RowBlockFunction<R> {
+        R apply(int fromRow, int toRow);
+    }
+
+    /**
+     * Halves a range of rows until it is at most {@code leafRows} long, forks
+     * the left half and combines the results in row order.
+     */
+    private static final class RowBlockTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RowBlockFunction<R> function;
+        private final transient BinaryOperator<R> combiner;
+        private final int fromRow;
+        private final int toRow;
+        private final int leafRows;
+
+        private RowBlockTask(RowBlockFunction<R> function, BinaryOperator<R> combiner, int fromRow, int toRow,
+                int leafRows) {
+            this.function = function;
+            this.combiner = combiner;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected R compute() {
+            if (toRow - fromRow <= leafRows) {
+                return function.apply(fromRow, toRow);
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            RowBlockTask<R> left = new RowBlockTask<>(function, combiner, fromRow, middle, leafRows);
+            left.fork();
+            R right = new RowBlockTask<>(function, combiner, middle, toRow, leafRows).compute();
+            return combiner.apply(left.join(), right);
+        }
+    }
+
+    /**
+     * Spliterator over the pieces of a range of rows. Splits hand off the
+     * first half of the remaining whole rows.
+     */
+    private final class PieceSpliterator implements Spliterator<T> {
+        private int row;
+        private int col;
+        private final int endRow;
+
+        private PieceSpliterator(int row, int endRow) {
+            this.row = row;
+            this.endRow = endRow;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (row >= endRow) {
+                return false;
+            }
+            action.accept(occupantAt(row, col));
+            if (++col == cols) {
+                col = 0;
+                row++;
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; row < endRow; row++, col = 0) {
+                for (; col < cols; col++) {
+                    action.accept(occupantAt(row, col));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (row + endRow) >>> 1;
+            if (col != 0 || middle <= row) {
+                return null;
+            }
+            PieceSpliterator prefix = new PieceSpliterator(row, middle);
+            row = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) (endRow - row) * cols - col;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Spliterator over the row-major indices of a range of rows. Splits hand
+     * off the first half of the remaining whole rows.
+     */
+    private static final class IndexSpliterator implements Spliterator.OfInt {
+        private int index;
+        private final int end;
+        private final int cols;
+
+        private IndexSpliterator(int fromRow, int toRow, int cols) {
+            this.index = fromRow * cols;
+            this.end = toRow * cols;
+            this.cols = cols;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(index++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (; index < end; index++) {
+                action.accept(index);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (index % cols != 0) {
+                return null;
+            }
+            int row = index / cols;
+            int middle = (row + end / cols) >>> 1;
+            if (middle <= row) {
+                return null;
+            }
+            IndexSpliterator prefix = new IndexSpliterator(row, middle, cols);
+            index = middle * cols;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | DISTINCT | SORTED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+
     /**
      * Executes the provided action for every tile within the grid.
      *
      * @param action consumer invoked once per tile in row-major order
      */
-    private void forEachTile(java.util.function.Consumer<Tile<T>> action) {
+    private void forEachTile(Consumer<Tile<T>> action) {
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
                 action.accept(grid[i][j]);
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Rectangular window onto a {@link Grid} created by
+     * {@link Grid#region(int, int, int, int)}. Positions are relative to the
+     * window; every read and write goes through to the grid, so the view
+     * always shows the grid's current contents.
+     *
+     * @param <T> type of {@link GamePiece} stored within the grid tiles
+     */
+    public static final class Region<T extends GamePiece> {
+        private final Grid<T> source;
+        private final int top;
+        private final int left;
+        private final int rows;
+        private final int cols;
+
+        private Region(Grid<T> source, int top, int left, int rows, int cols) {
+            this.source = source;
+            this.top = top;
+            this.left = left;
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        /**
+         * @return row of the grid at which the region starts
+         */
+        public int getTop() {
+            return top;
+        }
+
+        /**
+         * @return column of the grid at which the region starts
+         */
+        public int getLeft() {
+            return left;
+        }
+
+        /**
+         * @return number of rows in the region
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * @return number of columns in the region
+         */
+        public int getCols() {
+            return cols;
+        }
+
+        /**
+         * Checks if the given region-relative position lies inside the region.
+         *
+         * @param row The row index to check
+         * @param col The column index to check
+         * @return true if the position is valid, false otherwise
+         */
+        public boolean isValidPosition(int row, int col) {
+            return row >= 0 && row < rows && col >= 0 && col < cols;
+        }
+
+        /**
+         * Gets the piece at a region-relative position.
+         *
+         * @param row The row index within the region (0-based)
+         * @param col The column index within the region (0-based)
+         * @return The game piece at the position, or {@code null} if empty
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public T getPiece(int row, int col) {
+            validateRegionBounds(row, col);
+            return source.getPiece(top + row, left + col);
+        }
+
+        /**
+         * Sets the piece at a region-relative position in the grid.
+         *
+         * @param row   The row index within the region (0-based)
+         * @param col   The column index within the region (0-based)
+         * @param value The value to set
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public void setPiece(int row, int col, T value) {
+            validateRegionBounds(row, col);
+            source.setPiece(top + row, left + col, value);
+        }
+
+        /**
+         * Clears the grid cell at a region-relative position.
+         *
+         * @param row The row index within the region (0-based)
+         * @param col The column index within the region (0-based)
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public void clearTile(int row, int col) {
+            validateRegionBounds(row, col);
+            source.clearTile(top + row, left + col);
+        }
+
+        /**
+         * Passes the region-relative row and column of every neighbor of a
+         * cell that lies inside the region to the action.
+         *
+         * @param row    The row index within the region (0-based)
+         * @param col    The column index within the region (0-based)
+         * @param action callback receiving each neighbor's row and column
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public void forEachNeighbor(int row, int col, IntBinaryConsumer action) {
+            validateRegionBounds(row, col);
+            // Computed inline in GridAdjacency order: regions are cheap views
+            // and must not add their shapes to the shared adjacency cache.
+            if (row > 0) {
+                action.accept(row - 1, col);
+            }
+            if (row < rows - 1) {
+                action.accept(row + 1, col);
+            }
+            if (col > 0) {
+                action.accept(row, col - 1);
+            }
+            if (col < cols - 1) {
+                action.accept(row, col + 1);
+            }
+        }
+
+        private void validateRegionBounds(int row, int col) {
+            if (row < 0 || row >= rows || col < 0 || col >= cols) {
+                throw new IndexOutOfBoundsException(
+                        "Position (" + row + ", " + col + ") is out of bounds for region of size " + rows + "x" + cols);
+            }
+        }
+    }
+
+    /**
+     * Immutable view of a grid's contents at the moment
+     * {@link Grid#snapshot()} was called. Later writes to the grid copy the
+     * affected rows instead of modifying the ones held here, so a snapshot can
+     * be shared with other threads without locking.
+     *
+     * @param <T> type of {@link GamePiece} stored within the grid tiles
+     */
+    public static final class Snapshot<T extends GamePiece> {
+        private final Class<T> componentType;
+        private final Storage storage;
+        private final PieceCodec<T> codec;
+        private final int rows;
+        private final int cols;
+        private final Object[][] cells;
+        private final long hash;
+
+        private Snapshot(Class<T> componentType, Storage storage, PieceCodec<T> codec, int rows, int cols,
+                Object[][] cells, long hash) {
+            this.componentType = componentType;
+            this.storage = storage;
+            this.codec = codec;
+            this.rows = rows;
+            this.cols = cols;
+            this.cells = cells;
+            this.hash = hash;
+        }
+
+        /**
+         * @return number of rows captured
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * @return number of columns captured
+         */
+        public int getCols() {
+            return cols;
+        }
+
+        /**
+         * @return position hash of the grid when the snapshot was taken
+         */
+        public long getZobristHash() {
+            return hash;
+        }
+
+        /**
+         * Gets the piece captured at the specified position.
+         *
+         * @param row The row index (0-based)
+         * @param col The column index (0-based)
+         * @return The game piece at the specified position, or {@code null} if empty
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        @SuppressWarnings("unchecked")
+        public T getPiece(int row, int col) {
+            if (row < 0 || row >= rows || col < 0 || col >= cols) {
+                throw new IndexOutOfBoundsException(
+                        "Position (" + row + ", " + col + ") is out of bounds for grid of size " + rows + "x" + cols);
+            }
+            return (T) cells[row][col];
+        }
+
+        /**
+         * Creates a mutable grid holding the captured contents, using the
+         * storage layout of the grid the snapshot was taken from. For
+         * {@link Storage#FLAT} storage this takes constant time.
+         *
+         * @return A new Grid instance with the captured contents
+         */
+        @SuppressWarnings("unchecked")
+        public Grid<T> toGrid() {
+            if (storage == Storage.FLAT) {
+                return new Grid<>(componentType, rows, cols, cells, hash);
+            }
+            Grid<T> restored = new Grid<>(componentType, rows, cols, storage, codec);
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    if (cells[i][j] != null) {
+                        restored.setPiece(i, j, (T) cells[i][j]);
+                    }
+                }
+            }
+            restored.resetTracking();
+            return restored;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * File: GridAdjacency.java
+ * Description: Precomputed orthogonal neighbor tables for a board shape,
+ *              shared by every grid, solver and game using that shape.
+ *
+ * Features:
+ * - Packed row-major neighbor indices, four slots per cell, in up, down,
+ *   left, right order
+ * - Direction-indexed lookup returning {@code -1} past the board edge
+ * - One immutable instance per (rows, cols), built on first use and cached
+ * - Primitive callbacks so that neighbor iteration allocates nothing
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Orthogonal adjacency of the cells of a rows-by-cols board, addressed by
+ * row-major index ({@code row * cols + col}). Instances are immutable and
+ * obtained through {@link #of(int, int)}, which returns the same instance for
+ * the same shape, so tables are built once per shape per process.
+ */
+public final class GridAdjacency {
+    /** Maximum number of orthogonal neighbors of a cell. */
+    public static final int MAX_NEIGHBORS = 4;
+    /** Direction towards the previous row. */
+    public static final int UP = 0;
+    /** Direction towards the next row. */
+    public static final int DOWN = 1;
+    /** Direction towards the previous column. */
+    public static final int LEFT = 2;
+    /** Direction towards the next column. */
+    public static final int RIGHT = 3;
+
+    private static final ConcurrentHashMap<Long, GridAdjacency> CACHE = new ConcurrentHashMap<>();
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final int[] neighbors;
+    private final int[] neighborCounts;
+    private final int[] directions;
+
+    private GridAdjacency(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        this.neighbors = new int[size * MAX_NEIGHBORS];
+        this.neighborCounts = new int[size];
+        this.directions = new int[size * MAX_NEIGHBORS];
+
+        for (int index = 0; index < size; index++) {
+            int row = index / cols;
+            int col = index % cols;
+            int base = index * MAX_NEIGHBORS;
+            directions[base + UP] = row > 0 ? index - cols : -1;
+            directions[base + DOWN] = row < rows - 1 ? index + cols : -1;
+            directions[base + LEFT] = col > 0 ? index - 1 : -1;
+            directions[base + RIGHT] = col < cols - 1 ? index + 1 : -1;
+            int count = 0;
+            for (int direction = 0; direction < MAX_NEIGHBORS; direction++) {
+                if (directions[base + direction] >= 0) {
+                    neighbors[base + count++] = directions[base + direction];
+                }
+            }
+            neighborCounts[index] = count;
+        }
+    }
+
+    /**
+     * Returns the shared adjacency tables for the supplied board shape.
+     *
+     * @param rows number of board rows
+     * @param cols number of board columns
+     * @return adjacency of a rows-by-cols board
+     * @throws IllegalArgumentException if either dimension is less than 1
+     */
+    public static GridAdjacency of(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        return CACHE.computeIfAbsent(((long) rows << 32) | cols, key -> new GridAdjacency(rows, cols));
+    }
+
+    /**
+     * @return number of rows of the board shape
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of columns of the board shape
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return number of cells of the board shape
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Indicates whether these tables describe the supplied shape.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the shape matches
+     */
+    public boolean matches(int rows, int cols) {
+        return this.rows == rows && this.cols == cols;
+    }
+
+    /**
+     * Counts the orthogonal neighbors of a cell.
+     *
+     * @param cell row-major cell index
+     * @return neighbor count between 1 and 4 (0 on a 1x1 board)
+     */
+    public int getNeighborCount(int cell) {
+        return neighborCounts[cell];
+    }
+
+    /**
+     * Gets one neighbor of a cell, in up, down, left, right order with the
+     * missing ones skipped.
+     *
+     * @param cell row-major cell index
+     * @param i    position among the cell's neighbors, below
+     *             {@link #getNeighborCount(int)}
+     * @return row-major index of the neighbor
+     */
+    public int getNeighbor(int cell, int i) {
+        return neighbors[cell * MAX_NEIGHBORS + i];
+    }
+
+    /**
+     * Gets the neighbor of a cell in the supplied direction.
+     *
+     * @param cell      row-major cell index
+     * @param direction one of {@link #UP}, {@link #DOWN}, {@link #LEFT} or
+     *                  {@link #RIGHT}
+     * @return row-major index of the neighbor, or {@code -1} past the edge
+     */
+    public int getNeighborInDirection(int cell, int direction) {
+        return directions[cell * MAX_NEIGHBORS + direction];
+    }
+
+    /**
+     * Checks whether two cells share an edge.
+     *
+     * @param first  row-major index of one cell
+     * @param second row-major index of the other cell
+     * @return {@code true} when the cells are orthogonal neighbors
+     */
+    public boolean areAdjacent(int first, int second) {
+        int base = first * MAX_NEIGHBORS;
+        for (int i = 0; i < neighborCounts[first]; i++) {
+            if (neighbors[base + i] == second) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes the row-major index of every neighbor of a cell to the action.
+     *
+     * @param cell   row-major cell index
+     * @param action callback receiving each neighbor index
+     */
+    public void forEachNeighbor(int cell, IntConsumer action) {
+        int base = cell * MAX_NEIGHBORS;
+        for (int i = 0; i < neighborCounts[cell]; i++) {
+            action.accept(neighbors[base + i]);
+        }
+    }
+
+    /**
+     * Passes the row and column of every neighbor of a cell to the action.
+     *
+     * @param row    row index of the cell
+     * @param col    column index of the cell
+     * @param action callback receiving each neighbor's row and column
+     */
+    public void forEachNeighbor(int row, int col, IntBinaryConsumer action) {
+        int cell = row * cols + col;
+        int base = cell * MAX_NEIGHBORS;
+        for (int i = 0; i < neighborCounts[cell]; i++) {
+            int neighbor = neighbors[base + i];
+            action.accept(neighbor / cols, neighbor % cols);
+        }
+    }
+
+    /**
+     * Shared packed neighbor table, {@link #MAX_NEIGHBORS} slots per cell, for
+     * hot loops that index it directly. Must not be modified.
+     */
+    int[] neighborTable() {
+        return neighbors;
+    }
+
+    /**
+     * Shared per-cell neighbor counts matching {@link #neighborTable()}. Must
+     * not be modified.
+     */
+    int[] neighborCounts() {
+        return neighborCounts;
+    }
+
+    /**
+     * Shared direction-indexed table: entry {@code cell * 4 + direction} is
+     * the neighbor in that direction or {@code -1}. Must not be modified.
+     */
+    int[] directionTable() {
+        return directions;
+    }
+}
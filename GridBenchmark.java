@@ -0,0 +1,670 @@
+/**
+ * File: GridBenchmark.java
+ * Description: Command-line micro-benchmarks for {@link Grid} storage layouts.
+ *              Compares the per-cell {@link Tile} layout with flat row-major
+ *              storage for piece reads, swaps, copies and full-grid iteration
+ *              across board sizes, and the cost of taking a snapshot before
+ *              every move as undo or search code would. The zobrist scenario
+ *              measures what keeping the position hash up to date adds to a
+ *              swap and how often hashes of distinct positions collide. The
+ *              parallel scenario times the row-block fork/join bulk
+ *              operations against their sequential form across grid sizes.
+ *              The offheap scenario compares heap footprint and access cost of
+ *              flat and off-heap storage and follows a memory-mapped board
+ *              through a second, read-only mapping of the same file. The
+ *              concurrent scenario runs one writer against 1 to N readers
+ *              taking whole-board snapshots, through {@link ConcurrentGrid}
+ *              and through a read-write lock.
+ *
+ * Usage: java GridBenchmark [get|swap|copy|iterate|snapshot|zobrist|parallel|offheap|concurrent]
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Lightweight benchmark harness for the grid. Each measurement warms up before
+ * timing and reports nanoseconds per operation on standard output.
+ */
+public final class GridBenchmark {
+    private static final int[] BOARD_SIZES = { 3, 8, 20, 100 };
+    private static final long WARMUP_NANOS = 200_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+    private static final int INDICES = 4096;
+    private static final int COLLISION_POSITIONS = 1_000_000;
+    private static final int[] COLLISION_BITS = { 64, 32, 24, 20 };
+    private static final int[] PARALLEL_SIZES = { 20, 50, 100, 200, 500, 1000 };
+    private static final int[] OFF_HEAP_SIZES = { 20, 100, 1000 };
+    private static final int CONTENTION_BOARD = 20;
+
+    /** Accumulates results so the JIT cannot discard the measured work. */
+    private static long sink;
+
+    private GridBenchmark() {
+    }
+
+    /**
+     * Runs the requested benchmark scenarios (all scenarios when no argument is
+     * supplied).
+     *
+     * @param args optional scenario name
+     */
+    public static void main(String[] args) {
+        String scenario = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "all";
+        switch (scenario) {
+            case "get":
+                run("getPiece (random cell)", GridBenchmark::benchmarkGet);
+                break;
+            case "swap":
+                run("swap (random adjacent cells)", GridBenchmark::benchmarkSwap);
+                break;
+            case "copy":
+                run("copy (whole grid)", GridBenchmark::benchmarkCopy);
+                break;
+            case "iterate":
+                run("iterate (row-major getPiece)", GridBenchmark::benchmarkIterate);
+                break;
+            case "snapshot":
+                run("snapshot + move", GridBenchmark::benchmarkSnapshot);
+                break;
+            case "zobrist":
+                benchmarkZobristUpdates();
+                benchmarkZobristCollisions();
+                break;
+            case "parallel":
+                benchmarkParallel();
+                break;
+            case "offheap":
+                benchmarkOffHeap();
+                benchmarkMapped();
+                break;
+            case "concurrent":
+                benchmarkContention();
+                break;
+            case "all":
+                run("getPiece (random cell)", GridBenchmark::benchmarkGet);
+                run("swap (random adjacent cells)", GridBenchmark::benchmarkSwap);
+                run("copy (whole grid)", GridBenchmark::benchmarkCopy);
+                run("iterate (row-major getPiece)", GridBenchmark::benchmarkIterate);
+                run("snapshot + move", GridBenchmark::benchmarkSnapshot);
+                benchmarkZobristUpdates();
+                benchmarkZobristCollisions();
+                benchmarkParallel();
+                benchmarkOffHeap();
+                benchmarkMapped();
+                benchmarkContention();
+                break;
+            default:
+                System.out.println("Unknown scenario: " + scenario);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Operation measured on a prepared grid; returns the number of operations
+     * performed by one call.
+     */
+    private interface Workload {
+        int run(Grid<SlidingPuzzlePiece> grid, int[] indices);
+    }
+
+    /**
+     * Prints one table row per board size with the cost of the workload under
+     * both storage layouts.
+     */
+    private static void run(String title, Workload workload) {
+        System.out.println("=== Grid " + title + " ===");
+        System.out.println(String.format(Locale.ROOT, "%-8s %12s %12s %9s", "Grid", "Tiles ns/op", "Flat ns/op",
+                "Speedup"));
+        for (int n : BOARD_SIZES) {
+            double tiles = measure(createGrid(n, Grid.Storage.TILES), workload);
+            double flat = measure(createGrid(n, Grid.Storage.FLAT), workload);
+            System.out.println(String.format(Locale.ROOT, "%-8s %12.2f %12.2f %8.2fx", n + "x" + n, tiles, flat,
+                    tiles / flat));
+        }
+        System.out.println();
+    }
+
+    private static double measure(Grid<SlidingPuzzlePiece> grid, Workload workload) {
+        SplittableRandom random = new SplittableRandom(42L);
+        int[] indices = new int[INDICES];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = random.nextInt(grid.getSize());
+        }
+
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            workload.run(grid, indices);
+        }
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operations += workload.run(grid, indices);
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return (double) elapsed / operations;
+    }
+
+    /**
+     * Builds an n-by-n grid holding distinct pieces in shuffled order, so reads
+     * follow pointers to objects spread across the heap as they do in play.
+     */
+    private static Grid<SlidingPuzzlePiece> createGrid(int n, Grid.Storage storage) {
+        Grid<SlidingPuzzlePiece> grid = storage == Grid.Storage.OFF_HEAP
+                ? new Grid<>(SlidingPuzzlePiece.class, n, n, SlidingPuzzlePiece.CODEC)
+                : new Grid<>(SlidingPuzzlePiece.class, n, n, storage);
+        shuffle(grid);
+        return grid;
+    }
+
+    private static void shuffle(Grid<SlidingPuzzlePiece> grid) {
+        int n = grid.getCols();
+        int[] values = new int[n * n];
+        new SlidingPuzzleShuffler(n, n).randomPermutation(values, new SplittableRandom(7L));
+        for (int i = 0; i < values.length; i++) {
+            grid.setPiece(i / n, i % n, SlidingPuzzlePiece.ofValue(values[i]));
+        }
+    }
+
+    private static int benchmarkGet(Grid<SlidingPuzzlePiece> grid, int[] indices) {
+        int cols = grid.getCols();
+        long total = 0;
+        for (int index : indices) {
+            total += grid.getPiece(index / cols, index % cols).getValue();
+        }
+        sink += total;
+        return indices.length;
+    }
+
+    private static int benchmarkSwap(Grid<SlidingPuzzlePiece> grid, int[] indices) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        for (int index : indices) {
+            int row = index / cols;
+            int col = index % cols;
+            if (col + 1 < cols) {
+                grid.swap(row, col, row, col + 1);
+            } else if (row + 1 < rows) {
+                grid.swap(row, col, row + 1, col);
+            } else {
+                grid.swap(row, col, row - 1, col);
+            }
+        }
+        return indices.length;
+    }
+
+    private static int benchmarkCopy(Grid<SlidingPuzzlePiece> grid, int[] indices) {
+        sink += grid.copy().getSize();
+        return 1;
+    }
+
+    /**
+     * Takes a snapshot, then makes one adjacent swap, as an undo stack or a
+     * search that keeps every position would.
+     */
+    private static int benchmarkSnapshot(Grid<SlidingPuzzlePiece> grid, int[] indices) {
+        int cols = grid.getCols();
+        for (int i = 0; i < 64; i++) {
+            int index = indices[i];
+            int row = index / cols;
+            int col = index % cols;
+            Grid.Snapshot<SlidingPuzzlePiece> snapshot = grid.snapshot();
+            grid.swap(row, col, row, col + 1 < cols ? col + 1 : col - 1);
+            sink += snapshot.getRows();
+        }
+        return 64;
+    }
+
+    /**
+     * Compares an adjacent swap on an {@link IntGrid}, which updates the
+     * Zobrist hash, with the same swap done directly on an {@code int[]}.
+     */
+    private static void benchmarkZobristUpdates() {
+        System.out.println("=== IntGrid swap with Zobrist update ===");
+        System.out.println(String.format(Locale.ROOT, "%-8s %12s %12s %9s", "Grid", "Array ns/op", "Hashed ns/op",
+                "Overhead"));
+        for (int n : BOARD_SIZES) {
+            IntGrid grid = new IntGrid(n, n);
+            int[] values = new int[n * n];
+            new SlidingPuzzleShuffler(n, n).randomPermutation(values, new SplittableRandom(7L));
+            grid.fillFrom(values);
+            int[] indices = new SplittableRandom(42L).ints(INDICES, 0, n * n - 1).toArray();
+            double array = measureNanos(() -> {
+                for (int index : indices) {
+                    int temp = values[index];
+                    values[index] = values[index + 1];
+                    values[index + 1] = temp;
+                }
+                sink += values[0];
+                return indices.length;
+            });
+            double hashed = measureNanos(() -> {
+                for (int index : indices) {
+                    grid.swap(index, index + 1);
+                }
+                sink += grid.getZobristHash();
+                return indices.length;
+            });
+            System.out.println(String.format(Locale.ROOT, "%-8s %12.2f %12.2f %8.2fx", n + "x" + n, array, hashed,
+                    hashed / array));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Walks the blank of a 4x4 sliding puzzle at random until a million
+     * distinct positions have been seen, then counts how many of their
+     * hashes collide in full and when truncated to a transposition-table
+     * index, next to the count expected of uniformly random hashes. Positions
+     * one move apart differ in only two cells, which is the input on which a
+     * weak key set shows clustering.
+     */
+    private static void benchmarkZobristCollisions() {
+        int n = 4;
+        IntGrid grid = new IntGrid(n, n);
+        long packed = 0;
+        for (int i = 0; i < n * n - 1; i++) {
+            grid.setValue(i, i + 1);
+            packed |= (long) (i + 1) << (4 * i);
+        }
+        int blank = n * n - 1;
+        int previous = -1;
+        SplittableRandom random = new SplittableRandom(42L);
+        Set<Long> seen = new HashSet<>();
+        long[] hashes = new long[COLLISION_POSITIONS];
+        int count = 0;
+        long start = System.nanoTime();
+        while (count < COLLISION_POSITIONS) {
+            if (seen.add(packed)) {
+                hashes[count++] = grid.getZobristHash();
+            }
+            int target;
+            do {
+                target = neighbour(blank, random.nextInt(4), n);
+            } while (target < 0 || target == previous);
+            long tile = grid.getValue(target);
+            packed ^= (tile << (4 * target)) ^ (tile << (4 * blank));
+            grid.swap(target, blank);
+            previous = blank;
+            blank = target;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println(String.format(Locale.ROOT,
+                "=== Zobrist collisions (%dx%d random walk, %d distinct positions, %.0f ms) ===", n, n, count,
+                elapsed / 1e6));
+        System.out.println(String.format(Locale.ROOT, "%-6s %12s %12s", "Bits", "Collisions", "Expected"));
+        for (int bits : COLLISION_BITS) {
+            long mask = bits == 64 ? -1L : (1L << bits) - 1;
+            long[] truncated = new long[count];
+            for (int i = 0; i < count; i++) {
+                truncated[i] = hashes[i] & mask;
+            }
+            Arrays.sort(truncated);
+            int collisions = 0;
+            for (int i = 1; i < count; i++) {
+                if (truncated[i] == truncated[i - 1]) {
+                    collisions++;
+                }
+            }
+            System.out.println(String.format(Locale.ROOT, "%-6d %12d %12.2f", bits, collisions,
+                    expectedCollisions(count, bits)));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Index of the cell next to {@code cell} in the supplied direction on an
+     * n-by-n board, or {@code -1} past the edge.
+     */
+    private static int neighbour(int cell, int direction, int n) {
+        switch (direction) {
+            case 0:
+                return cell >= n ? cell - n : -1;
+            case 1:
+                return cell < n * n - n ? cell + n : -1;
+            case 2:
+                return cell % n > 0 ? cell - 1 : -1;
+            default:
+                return cell % n < n - 1 ? cell + 1 : -1;
+        }
+    }
+
+    /**
+     * Number of keys expected to land in an already occupied bucket when
+     * {@code keys} uniformly random keys fill {@code 2^bits} buckets.
+     */
+    private static double expectedCollisions(int keys, int bits) {
+        double buckets = Math.pow(2, bits);
+        if (keys / buckets < 1e-6) {
+            return (double) keys * (keys - 1) / (2 * buckets);
+        }
+        return keys - buckets * -Math.expm1(keys * Math.log1p(-1 / buckets));
+    }
+
+    /**
+     * Times parallel fill, count and a Manhattan-distance sum over the index
+     * spliterator against the same operations on the calling thread, for flat
+     * grids from 20x20 up to 1000x1000. The parallel path is forced into at
+     * least 4 blocks per common-pool worker so that its overhead shows on
+     * small grids too.
+     */
+    private static void benchmarkParallel() {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        System.out.println("=== Grid parallel bulk operations (common pool parallelism " + parallelism + ") ===");
+        System.out.println(String.format(Locale.ROOT, "%-10s %-10s %14s %14s %9s", "Grid", "Operation", "Seq us/op",
+                "Par us/op", "Speedup"));
+        SlidingPuzzlePiece piece = SlidingPuzzlePiece.ofValue(1);
+        for (int n : PARALLEL_SIZES) {
+            Grid<SlidingPuzzlePiece> grid = createGrid(n, Grid.Storage.FLAT);
+            int blockCells = Math.max(n, n * n / (4 * Math.max(2, parallelism)));
+            printParallelRow(n, "fill", measureNanos(() -> {
+                grid.parallelFill(piece, Integer.MAX_VALUE);
+                return 1;
+            }), measureNanos(() -> {
+                grid.parallelFill(piece, blockCells);
+                return 1;
+            }));
+
+            Grid<SlidingPuzzlePiece> shuffled = createGrid(n, Grid.Storage.FLAT);
+            printParallelRow(n, "count", measureNanos(() -> {
+                sink += shuffled.parallelCount(p -> (p.getValue() & 1) == 0, Integer.MAX_VALUE);
+                return 1;
+            }), measureNanos(() -> {
+                sink += shuffled.parallelCount(p -> (p.getValue() & 1) == 0, blockCells);
+                return 1;
+            }));
+
+            printParallelRow(n, "manhattan", measureNanos(() -> {
+                sink += shuffled.indexStream().map(index -> manhattan(shuffled, index)).sum();
+                return 1;
+            }), measureNanos(() -> {
+                sink += shuffled.indexStream().parallel().map(index -> manhattan(shuffled, index)).sum();
+                return 1;
+            }));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Compares flat and off-heap storage of the same shuffled boards: heap
+     * retained by the grid and its pieces, random reads and row-major
+     * iteration. Off-heap reads decode through {@link SlidingPuzzlePiece#CODEC},
+     * which allocates a piece for values beyond the shared cache.
+     */
+    private static void benchmarkOffHeap() {
+        System.out.println("=== Grid flat vs off-heap storage ===");
+        System.out.println(String.format(Locale.ROOT, "%-10s %-10s %14s %14s", "Grid", "Measure", "Flat",
+                "Off-heap"));
+        for (int n : OFF_HEAP_SIZES) {
+            System.out.println(String.format(Locale.ROOT, "%-10s %-10s %14s %14s", n + "x" + n, "heap KiB",
+                    retainedHeap(n, Grid.Storage.FLAT) / 1024, retainedHeap(n, Grid.Storage.OFF_HEAP) / 1024));
+            Grid<SlidingPuzzlePiece> flat = createGrid(n, Grid.Storage.FLAT);
+            Grid<SlidingPuzzlePiece> offHeap = createGrid(n, Grid.Storage.OFF_HEAP);
+            System.out.println(String.format(Locale.ROOT, "%-10s %-10s %14.2f %14.2f", n + "x" + n, "get ns",
+                    measure(flat, GridBenchmark::benchmarkGet), measure(offHeap, GridBenchmark::benchmarkGet)));
+            System.out.println(String.format(Locale.ROOT, "%-10s %-10s %14.2f %14.2f", n + "x" + n, "swap ns",
+                    measure(flat, GridBenchmark::benchmarkSwap), measure(offHeap, GridBenchmark::benchmarkSwap)));
+            System.out.println(String.format(Locale.ROOT, "%-10s %-10s %14.2f %14.2f", n + "x" + n, "iterate ns",
+                    measure(flat, GridBenchmark::benchmarkIterate),
+                    measure(offHeap, GridBenchmark::benchmarkIterate)));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Heap still in use after building a shuffled board of the supplied
+     * storage, as reported by the runtime around a collection.
+     */
+    private static long retainedHeap(int n, Grid.Storage storage) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Grid<SlidingPuzzlePiece> grid = createGrid(n, storage);
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        sink += grid.getSize();
+        return Math.max(0, after - before);
+    }
+
+    /**
+     * Writes moves to a memory-mapped 1000x1000 board while a second grid maps
+     * the same file read-only, and reports the cost of a write on the writer
+     * and of a full scan on the reader. The reader sees every write without
+     * copying, as another process mapping the file would.
+     */
+    private static void benchmarkMapped() {
+        System.out.println("=== Grid memory-mapped board ===");
+        int n = 1000;
+        Path file = null;
+        try {
+            file = Files.createTempFile("grid-benchmark", ".grid");
+            Grid<SlidingPuzzlePiece> writer = Grid.createMapped(SlidingPuzzlePiece.class, file, n, n,
+                    SlidingPuzzlePiece.CODEC);
+            shuffle(writer);
+            Grid<SlidingPuzzlePiece> reader = Grid.openMapped(SlidingPuzzlePiece.class, file,
+                    SlidingPuzzlePiece.CODEC, true);
+            writer.swap(0, 0, 0, 1);
+            boolean visible = reader.getPiece(0, 0).equals(writer.getPiece(0, 0))
+                    && reader.getPiece(0, 1).equals(writer.getPiece(0, 1));
+            System.out.println(String.format(Locale.ROOT, "%-24s %s", "writes visible to reader", visible));
+            System.out.println(String.format(Locale.ROOT, "%-24s %12.2f", "writer swap ns/op",
+                    measure(writer, GridBenchmark::benchmarkSwap)));
+            System.out.println(String.format(Locale.ROOT, "%-24s %12.2f", "reader scan ns/cell",
+                    measure(reader, GridBenchmark::benchmarkIterate)));
+            System.out.println(String.format(Locale.ROOT, "%-24s %12d", "file KiB", Files.size(file) / 1024));
+        } catch (IOException e) {
+            System.out.println("Memory-mapped benchmark failed: " + e.getMessage());
+        } finally {
+            if (file != null) {
+                file.toFile().deleteOnExit();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Board shared between one writer and several readers in the contention
+     * benchmark.
+     */
+    private interface SharedBoard {
+        void swap(int row1, int col1, int row2, int col2);
+
+        Grid.Snapshot<SlidingPuzzlePiece> snapshot();
+    }
+
+    /**
+     * Plain grid guarded by a read-write lock, the baseline for
+     * {@link ConcurrentGrid}.
+     */
+    private static final class LockedBoard implements SharedBoard {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Grid<SlidingPuzzlePiece> grid;
+
+        LockedBoard(Grid<SlidingPuzzlePiece> grid) {
+            this.grid = grid;
+        }
+
+        @Override
+        public void swap(int row1, int col1, int row2, int col2) {
+            lock.writeLock().lock();
+            try {
+                grid.swap(row1, col1, row2, col2);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public Grid.Snapshot<SlidingPuzzlePiece> snapshot() {
+            lock.readLock().lock();
+            try {
+                return grid.copySnapshot();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * One writer making random adjacent swaps on a 20x20 board while 1 to N
+     * readers copy the whole board, with {@link ConcurrentGrid} and with a
+     * {@link ReentrantReadWriteLock} baseline. Every snapshot is checked for
+     * tearing: swaps preserve the sum of the tile values, so a snapshot taken
+     * mid-swap would show a different sum.
+     */
+    private static void benchmarkContention() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        System.out.println("=== Grid 1 writer / N readers on " + CONTENTION_BOARD + "x" + CONTENTION_BOARD + " ("
+                + cpus + " CPUs) ===");
+        System.out.println(String.format(Locale.ROOT, "%-8s %-10s %14s %16s %10s %8s", "Readers", "Guard",
+                "Writes/ms", "Snapshots/ms", "Fallbacks", "Torn"));
+        int[] readerCounts = { 1, 2, 4, Math.max(8, cpus) };
+        for (int readers : readerCounts) {
+            ConcurrentGrid<SlidingPuzzlePiece> concurrent = new ConcurrentGrid<>(
+                    createGrid(CONTENTION_BOARD, Grid.Storage.FLAT));
+            runContention(readers, "stamped", new SharedBoard() {
+                @Override
+                public void swap(int row1, int col1, int row2, int col2) {
+                    concurrent.swap(row1, col1, row2, col2);
+                }
+
+                @Override
+                public Grid.Snapshot<SlidingPuzzlePiece> snapshot() {
+                    return concurrent.snapshot();
+                }
+            }, concurrent::getReadFallbacks);
+            runContention(readers, "rwlock", new LockedBoard(createGrid(CONTENTION_BOARD, Grid.Storage.FLAT)),
+                    () -> 0);
+        }
+        System.out.println();
+    }
+
+    private static void runContention(int readers, String guard, SharedBoard board, LongSupplier fallbacks) {
+        int n = CONTENTION_BOARD;
+        long expectedSum = (long) n * n * (n * n - 1) / 2;
+        LongAdder snapshots = new LongAdder();
+        LongAdder torn = new LongAdder();
+        long[] writes = new long[1];
+        long start = System.nanoTime();
+        long measureStart = start + WARMUP_NANOS;
+        long end = measureStart + MEASURE_NANOS;
+
+        Thread writer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(11L);
+            long count = 0;
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                int row = random.nextInt(n);
+                int col = random.nextInt(n - 1);
+                board.swap(row, col, row, col + 1);
+                if (now >= measureStart) {
+                    count++;
+                }
+            }
+            writes[0] = count;
+        });
+        Thread[] readerThreads = new Thread[readers];
+        for (int i = 0; i < readers; i++) {
+            readerThreads[i] = new Thread(() -> {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    Grid.Snapshot<SlidingPuzzlePiece> snapshot = board.snapshot();
+                    long sum = 0;
+                    for (int row = 0; row < n; row++) {
+                        for (int col = 0; col < n; col++) {
+                            sum += snapshot.getPiece(row, col).getValue();
+                        }
+                    }
+                    if (now >= measureStart) {
+                        snapshots.increment();
+                        if (sum != expectedSum) {
+                            torn.increment();
+                        }
+                    }
+                }
+            });
+        }
+
+        writer.start();
+        for (Thread reader : readerThreads) {
+            reader.start();
+        }
+        try {
+            writer.join();
+            for (Thread reader : readerThreads) {
+                reader.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        double millis = MEASURE_NANOS / 1e6;
+        System.out.println(String.format(Locale.ROOT, "%-8d %-10s %14.1f %16.1f %10d %8d", readers, guard,
+                writes[0] / millis, snapshots.sum() / millis, fallbacks.getAsLong(), torn.sum()));
+    }
+
+    private static void printParallelRow(int n, String operation, double sequential, double parallel) {
+        System.out.println(String.format(Locale.ROOT, "%-10s %-10s %14.2f %14.2f %8.2fx", n + "x" + n, operation,
+                sequential / 1e3, parallel / 1e3, sequential / parallel));
+    }
+
+    /**
+     * Distance of the piece in the cell from its solved position.
+     */
+    private static int manhattan(Grid<SlidingPuzzlePiece> grid, int index) {
+        int cols = grid.getCols();
+        int value = grid.getPiece(index / cols, index % cols).getValue();
+        if (value == 0) {
+            return 0;
+        }
+        int home = value - 1;
+        return Math.abs(index / cols - home / cols) + Math.abs(index % cols - home % cols);
+    }
+
+    /**
+     * Times a workload that is not tied to a {@link Grid}; returns nanoseconds
+     * per operation.
+     */
+    private static double measureNanos(IntSupplier workload) {
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            workload.getAsInt();
+        }
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operations += workload.getAsInt();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return (double) elapsed / operations;
+    }
+
+    private static int benchmarkIterate(Grid<SlidingPuzzlePiece> grid, int[] indices) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        long total = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                total += grid.getPiece(row, col).getValue();
+            }
+        }
+        sink += total;
+        return rows * cols;
+    }
+}
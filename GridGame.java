@@ -59,7 +59,24 @@ public abstract class GridGame<T extends GamePiece> {
     protected GridGame(Class<T> componentType, int rows, int cols,
             InputService inputService,
             OutputService outputService) {
-        this.gameGrid = new Grid<>(componentType, rows, cols);
+        this(new Grid<>(componentType, rows, cols), inputService, outputService);
+    }
+
+    /**
+     * Constructs a grid game without a piece grid, for games that keep their
+     * board in another representation. {@link #gameGrid} stays {@code null},
+     * so such games must override {@link #getRows()}, {@link #getCols()} and
+     * {@link #getGridSize()}.
+     *
+     * @param inputService  input provider used during gameplay
+     * @param outputService output destination used during gameplay
+     */
+    protected GridGame(InputService inputService, OutputService outputService) {
+        this((Grid<T>) null, inputService, outputService);
+    }
+
+    private GridGame(Grid<T> gameGrid, InputService inputService, OutputService outputService) {
+        this.gameGrid = gameGrid;
         this.isGameOver = false;
         this.players = new ArrayList<>();
         this.players.add(new Player());
@@ -345,6 +362,27 @@ public abstract class GridGame<T extends GamePiece> {
         return true;
     }
 
+    /**
+     * Describes game-specific commands offered in the pre-game menu in addition
+     * to the controller's own options.
+     *
+     * @return menu fragment appended after the built-in options (for example
+     *         {@code ", [daily] Daily challenge"}), or an empty string
+     */
+    public String describePreGameOptions() {
+        return "";
+    }
+
+    /**
+     * Handles a pre-game menu command the controller does not recognize.
+     *
+     * @param command trimmed, lower-cased command entered by the player
+     * @return {@code true} when the command was handled
+     */
+    public boolean handlePreGameOption(String command) {
+        return false;
+    }
+
     private void ensurePrimaryPlayer() {
         if (players.isEmpty()) {
             players.add(new Player());
@@ -0,0 +1,21 @@
+/**
+ * File: IntBinaryConsumer.java
+ * Description: Primitive two-argument callback used for row/column iteration
+ *              over grids without boxing.
+ */
+
+/**
+ * Operation accepting two {@code int} arguments, typically a row and a
+ * column, and returning no result. The {@code int} specialization of
+ * {@link java.util.function.BiConsumer}.
+ */
+@FunctionalInterface
+public interface IntBinaryConsumer {
+    /**
+     * Performs the operation on the supplied arguments.
+     *
+     * @param first  first argument, usually a row index
+     * @param second second argument, usually a column index
+     */
+    void accept(int first, int second);
+}
@@ -0,0 +1,565 @@
+/**
+ * File: IntGrid.java
+ * Description: Primitive-specialized sibling of {@link Grid} for games whose
+ *              pieces are plain integers. Values live in a single row-major
+ *              {@code int[]}, so boards of any size hold no per-cell objects.
+ *
+ * Features:
+ * - Row/column and row-major index access with bounds checking
+ * - Swap, fill, search, copy and resize on contiguous memory
+ * - Read-only {@link GamePiece} adapter for rendering code
+ * - Incrementally maintained {@link Zobrist} hash of the position
+ * - Allocation-free neighbor iteration over shared {@link GridAdjacency} tables
+ * - Non-copying rectangular region views
+ */
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Two-dimensional grid of {@code int} values stored in row-major order at
+ * {@code row * cols + col}. Mirrors the {@link Grid} API where it applies.
+ */
+public final class IntGrid {
+    private int[] values;
+    private long hash;
+    private int rows;
+    private int cols;
+
+    /**
+     * Constructor to create a grid with specified dimensions, filled with
+     * {@code 0}.
+     *
+     * @param rows The number of rows in the grid
+     * @param cols The number of columns in the grid
+     * @throws IllegalArgumentException if rows or cols are less than 1
+     */
+    public IntGrid(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.values = new int[rows * cols];
+    }
+
+    /**
+     * Gets the number of rows in the grid.
+     *
+     * @return The number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns in the grid.
+     *
+     * @return The number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Gets the total number of cells in the grid.
+     *
+     * @return The total number of cells (rows * cols)
+     */
+    public int getSize() {
+        return values.length;
+    }
+
+    /**
+     * Gets the value at the specified position.
+     *
+     * @param row The row index (0-based)
+     * @param col The column index (0-based)
+     * @return The value at the specified position
+     * @throws IndexOutOfBoundsException if the position is invalid
+     */
+    public int getValue(int row, int col) {
+        validateBounds(row, col);
+        return values[row * cols + col];
+    }
+
+    /**
+     * Gets the value at the specified row-major index.
+     *
+     * @param index The row-major cell index
+     * @return The value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Sets the value at the specified position.
+     *
+     * @param row   The row index (0-based)
+     * @param col   The column index (0-based)
+     * @param value The value to set
+     * @throws IndexOutOfBoundsException if the position is invalid
+     */
+    public void setValue(int row, int col, int value) {
+        validateBounds(row, col);
+        setValue(row * cols + col, value);
+    }
+
+    /**
+     * Sets the value at the specified row-major index.
+     *
+     * @param index The row-major cell index
+     * @param value The value to set
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void setValue(int index, int value) {
+        hash ^= Zobrist.key(index, values[index]) ^ Zobrist.key(index, value);
+        values[index] = value;
+    }
+
+    /**
+     * Checks if the given position is within the grid bounds.
+     *
+     * @param row The row index to check
+     * @param col The column index to check
+     * @return true if the position is valid, false otherwise
+     */
+    public boolean isValidPosition(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * Gets the shared neighbor tables for the grid's current dimensions.
+     *
+     * @return adjacency of the grid's shape
+     */
+    public GridAdjacency getAdjacency() {
+        return GridAdjacency.of(rows, cols);
+    }
+
+    /**
+     * Passes the row-major index of every orthogonal neighbor of a cell to the
+     * action, in up, down, left, right order. Nothing is allocated per call.
+     *
+     * @param index  The row-major cell index
+     * @param action callback receiving each neighbor index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void forEachNeighbor(int index, IntConsumer action) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for grid of size " + rows + "x"
+                    + cols);
+        }
+        getAdjacency().forEachNeighbor(index, action);
+    }
+
+    /**
+     * Creates a view of a rectangle of this grid. The view copies nothing:
+     * reads and writes go straight to this grid, with positions relative to
+     * the rectangle's top-left cell.
+     *
+     * @param top        row of the rectangle's top-left cell
+     * @param left       column of the rectangle's top-left cell
+     * @param regionRows number of rows in the rectangle
+     * @param regionCols number of columns in the rectangle
+     * @return view of the rectangle
+     * @throws IllegalArgumentException  if the rectangle is empty
+     * @throws IndexOutOfBoundsException if the rectangle extends past the grid
+     */
+    public Region region(int top, int left, int regionRows, int regionCols) {
+        if (regionRows < 1 || regionCols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        validateBounds(top, left);
+        validateBounds(top + regionRows - 1, left + regionCols - 1);
+        return new Region(this, top, left, regionRows, regionCols);
+    }
+
+    /**
+     * Fills the entire grid with the specified value.
+     *
+     * @param value The value to fill the grid with
+     */
+    public void fill(int value) {
+        Arrays.fill(values, value);
+        recomputeZobristHash();
+    }
+
+    /**
+     * Fills the grid with values from the provided array in row-major order.
+     *
+     * @param source The values to copy into the grid
+     * @throws IllegalArgumentException if the array length doesn't match grid size
+     */
+    public void fillFrom(int[] source) {
+        if (source.length != values.length) {
+            throw new IllegalArgumentException(
+                    "Array length (" + source.length + ") must match grid size (" + values.length + ")");
+        }
+        System.arraycopy(source, 0, values, 0, values.length);
+        recomputeZobristHash();
+    }
+
+    /**
+     * Finds the position of the first occurrence of the specified value.
+     *
+     * @param value The value to search for
+     * @return An array containing [row, col] of the first occurrence, or null if
+     *         not found
+     */
+    public int[] findValue(int value) {
+        int index = indexOf(value);
+        return index < 0 ? null : new int[] { index / cols, index % cols };
+    }
+
+    /**
+     * Finds the row-major index of the first occurrence of the specified value.
+     *
+     * @param value The value to search for
+     * @return The index of the first occurrence, or {@code -1} if not found
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Swaps the values at two positions in the grid.
+     *
+     * @param row1 The row of the first position
+     * @param col1 The column of the first position
+     * @param row2 The row of the second position
+     * @param col2 The column of the second position
+     * @throws IndexOutOfBoundsException if any position is invalid
+     */
+    public void swap(int row1, int col1, int row2, int col2) {
+        validateBounds(row1, col1);
+        validateBounds(row2, col2);
+        swap(row1 * cols + col1, row2 * cols + col2);
+    }
+
+    /**
+     * Swaps the values at two row-major indices.
+     *
+     * @param first  The index of the first cell
+     * @param second The index of the second cell
+     * @throws IndexOutOfBoundsException if any index is invalid
+     */
+    public void swap(int first, int second) {
+        int a = values[first];
+        int b = values[second];
+        values[first] = b;
+        values[second] = a;
+        hash ^= Zobrist.key(first, a) ^ Zobrist.key(first, b) ^ Zobrist.key(second, b) ^ Zobrist.key(second, a);
+    }
+
+    /**
+     * Gets the {@link Zobrist} hash of the current position: the XOR of
+     * {@link Zobrist#key(int, long)} over every cell, where the value is the
+     * state and cells holding {@code 0} contribute nothing. Each write and
+     * swap updates it in constant time. The hash matches that of a
+     * {@link Grid} of {@link SlidingPuzzlePiece}s with the same values, and is
+     * the same in every process.
+     *
+     * @return The position hash
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    /**
+     * Recomputes the position hash from every cell, for use after the array
+     * returned by {@link #getRawValues()} was modified directly.
+     *
+     * @return The recomputed position hash
+     */
+    public long recomputeZobristHash() {
+        long computed = 0;
+        for (int i = 0; i < values.length; i++) {
+            computed ^= Zobrist.key(i, values[i]);
+        }
+        hash = computed;
+        return computed;
+    }
+
+    /**
+     * Creates a copy of the current grid.
+     *
+     * @return A new IntGrid instance with the same contents
+     */
+    public IntGrid copy() {
+        IntGrid newGrid = new IntGrid(rows, cols);
+        System.arraycopy(values, 0, newGrid.values, 0, values.length);
+        newGrid.hash = hash;
+        return newGrid;
+    }
+
+    /**
+     * Copies the values in row-major order into a new array.
+     *
+     * @return A new array holding the grid's values
+     */
+    public int[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Resizes the grid to new dimensions.
+     * Content is preserved where possible, new cells are set to {@code 0}.
+     *
+     * @param newRows The new number of rows
+     * @param newCols The new number of columns
+     * @throws IllegalArgumentException if new dimensions are invalid
+     */
+    public void resize(int newRows, int newCols) {
+        if (newRows < 1 || newCols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+
+        int[] newValues = new int[newRows * newCols];
+        int copyRows = Math.min(rows, newRows);
+        int copyCols = Math.min(cols, newCols);
+        for (int i = 0; i < copyRows; i++) {
+            System.arraycopy(values, i * cols, newValues, i * newCols, copyCols);
+        }
+
+        this.values = newValues;
+        this.rows = newRows;
+        this.cols = newCols;
+        recomputeZobristHash();
+    }
+
+    /**
+     * Creates a read-only view presenting each value as a {@link GamePiece}.
+     * The view reads through to this grid, so it always reflects the current
+     * values; supplying a mapper that returns shared instances keeps rendering
+     * free of allocation.
+     *
+     * @param pieceForValue maps a cell value to the piece used to render it
+     * @param <T>           type of piece exposed by the view
+     * @return piece view over this grid
+     */
+    public <T extends GamePiece> PieceView<T> asPieces(IntFunction<T> pieceForValue) {
+        return new PieceView<>(this, pieceForValue);
+    }
+
+    /**
+     * Returns a string representation of the grid for debugging.
+     *
+     * @return String representation of the grid
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("IntGrid[").append(rows).append("x").append(cols).append("]:\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append("[");
+            for (int j = 0; j < cols; j++) {
+                sb.append(values[i * cols + j]);
+                if (j < cols - 1)
+                    sb.append(", ");
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Provides access to the raw value array for advanced operations.
+     * WARNING: The array is replaced on resize, and direct modification
+     * bypasses bounds checks and leaves the position hash stale until
+     * {@link #recomputeZobristHash()} is called.
+     *
+     * @return The raw row-major array (use with caution)
+     */
+    public int[] getRawValues() {
+        return values;
+    }
+
+    /**
+     * Validates that the given row and column indices are within bounds.
+     *
+     * @param row The row index to validate
+     * @param col The column index to validate
+     * @throws IndexOutOfBoundsException if the indices are out of bounds
+     */
+    private void validateBounds(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException(
+                    "Position (" + row + ", " + col + ") is out of bounds for grid of size " + rows + "x" + cols);
+        }
+    }
+
+    /**
+     * Rectangular window onto an {@link IntGrid} created by
+     * {@link IntGrid#region(int, int, int, int)}. Positions are relative to
+     * the window; every read and write goes through to the grid.
+     */
+    public static final class Region {
+        private final IntGrid source;
+        private final int top;
+        private final int left;
+        private final int rows;
+        private final int cols;
+
+        private Region(IntGrid source, int top, int left, int rows, int cols) {
+            this.source = source;
+            this.top = top;
+            this.left = left;
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        /**
+         * @return row of the grid at which the region starts
+         */
+        public int getTop() {
+            return top;
+        }
+
+        /**
+         * @return column of the grid at which the region starts
+         */
+        public int getLeft() {
+            return left;
+        }
+
+        /**
+         * @return number of rows in the region
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * @return number of columns in the region
+         */
+        public int getCols() {
+            return cols;
+        }
+
+        /**
+         * Converts a region-relative position into the grid's row-major index.
+         *
+         * @param row The row index within the region (0-based)
+         * @param col The column index within the region (0-based)
+         * @return row-major index of the cell in the underlying grid
+         * @throws IndexOutOfBoundsException if the position is invalid for the
+         *                                   region or, after a resize, for the
+         *                                   grid
+         */
+        public int toGridIndex(int row, int col) {
+            validateRegionBounds(row, col);
+            source.validateBounds(top + row, left + col);
+            return (top + row) * source.cols + left + col;
+        }
+
+        /**
+         * Gets the value at a region-relative position.
+         *
+         * @param row The row index within the region (0-based)
+         * @param col The column index within the region (0-based)
+         * @return The value at the position
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public int getValue(int row, int col) {
+            validateRegionBounds(row, col);
+            return source.getValue(top + row, left + col);
+        }
+
+        /**
+         * Sets the value at a region-relative position in the grid.
+         *
+         * @param row   The row index within the region (0-based)
+         * @param col   The column index within the region (0-based)
+         * @param value The value to set
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public void setValue(int row, int col, int value) {
+            validateRegionBounds(row, col);
+            source.setValue(top + row, left + col, value);
+        }
+
+        /**
+         * Passes the region-relative row and column of every neighbor of a
+         * cell that lies inside the region to the action.
+         *
+         * @param row    The row index within the region (0-based)
+         * @param col    The column index within the region (0-based)
+         * @param action callback receiving each neighbor's row and column
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public void forEachNeighbor(int row, int col, IntBinaryConsumer action) {
+            validateRegionBounds(row, col);
+            // Computed inline in GridAdjacency order: regions are cheap views
+            // and must not add their shapes to the shared adjacency cache.
+            if (row > 0) {
+                action.accept(row - 1, col);
+            }
+            if (row < rows - 1) {
+                action.accept(row + 1, col);
+            }
+            if (col > 0) {
+                action.accept(row, col - 1);
+            }
+            if (col < cols - 1) {
+                action.accept(row, col + 1);
+            }
+        }
+
+        private void validateRegionBounds(int row, int col) {
+            if (row < 0 || row >= rows || col < 0 || col >= cols) {
+                throw new IndexOutOfBoundsException(
+                        "Position (" + row + ", " + col + ") is out of bounds for region of size " + rows + "x" + cols);
+            }
+        }
+    }
+
+    /**
+     * Read-only {@link GamePiece} view over an {@link IntGrid}.
+     *
+     * @param <T> type of piece exposed by the view
+     */
+    public static final class PieceView<T extends GamePiece> {
+        private final IntGrid source;
+        private final IntFunction<T> pieceForValue;
+
+        private PieceView(IntGrid source, IntFunction<T> pieceForValue) {
+            this.source = source;
+            this.pieceForValue = pieceForValue;
+        }
+
+        /**
+         * @return number of rows in the underlying grid
+         */
+        public int getRows() {
+            return source.getRows();
+        }
+
+        /**
+         * @return number of columns in the underlying grid
+         */
+        public int getCols() {
+            return source.getCols();
+        }
+
+        /**
+         * Gets the piece representing the value at the specified position.
+         *
+         * @param row The row index (0-based)
+         * @param col The column index (0-based)
+         * @return The piece for the cell's current value
+         * @throws IndexOutOfBoundsException if the position is invalid
+         */
+        public T getPiece(int row, int col) {
+            return pieceForValue.apply(source.getValue(row, col));
+        }
+    }
+}
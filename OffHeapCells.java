@@ -0,0 +1,186 @@
+/**
+ * File: OffHeapCells.java
+ * Description: Cell storage for {@link Grid.Storage#OFF_HEAP} grids. Holds one
+ *              {@code int} code per cell in a direct or memory-mapped
+ *              {@link ByteBuffer}, so the heap footprint does not grow with
+ *              the board.
+ *
+ * Mapped file layout (little-endian):
+ * - int    magic "GRID" (0x47524944)
+ * - int    format version (1)
+ * - int    rows
+ * - int    cols
+ * - int[]  rows * cols cell codes in row-major order; {@code 0} is an empty
+ *          cell and {@code code + 1} stores the piece's codec code
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap array of cell codes with a small header describing its shape. The
+ * same layout is used in memory and in mapped files, so a mapped board can be
+ * opened by another process knowing only the codec.
+ *
+ * @param <T> type of piece stored in the cells
+ */
+final class OffHeapCells<T extends GamePiece> {
+    static final int MAGIC = 0x47524944;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final PieceCodec<T> codec;
+    private final int rows;
+    private final int cols;
+    private final boolean mapped;
+
+    private OffHeapCells(ByteBuffer buffer, PieceCodec<T> codec, int rows, int cols, boolean mapped) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.codec = codec;
+        this.rows = rows;
+        this.cols = cols;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Allocates empty cells in direct memory.
+     */
+    static <T extends GamePiece> OffHeapCells<T> allocate(int rows, int cols, PieceCodec<T> codec) {
+        OffHeapCells<T> cells = new OffHeapCells<>(ByteBuffer.allocateDirect(byteSize(rows, cols)), codec, rows, cols,
+                false);
+        cells.writeHeader();
+        return cells;
+    }
+
+    /**
+     * Creates or truncates a file and maps empty cells onto it.
+     */
+    static <T extends GamePiece> OffHeapCells<T> create(Path file, int rows, int cols, PieceCodec<T> codec)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, byteSize(rows, cols));
+            OffHeapCells<T> cells = new OffHeapCells<>(buffer, codec, rows, cols, true);
+            cells.writeHeader();
+            return cells;
+        }
+    }
+
+    /**
+     * Maps the cells of an existing board file, read-only or for writing.
+     */
+    static <T extends GamePiece> OffHeapCells<T> open(Path file, PieceCodec<T> codec, boolean readOnly)
+            throws IOException {
+        FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+        try (FileChannel channel = readOnly ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a grid file: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a grid file: " + file);
+            }
+            int rows = header.getInt(8);
+            int cols = header.getInt(12);
+            if (rows < 1 || cols < 1 || fileSize < byteSize(rows, cols)) {
+                throw new IOException("Corrupt grid file: " + file);
+            }
+            return new OffHeapCells<>(channel.map(mode, 0, byteSize(rows, cols)), codec, rows, cols, true);
+        }
+    }
+
+    private static int byteSize(int rows, int cols) {
+        long bytes = HEADER_BYTES + (long) rows * cols * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid of size " + rows + "x" + cols + " exceeds 2 GB of cell codes");
+        }
+        return (int) bytes;
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, rows);
+        buffer.putInt(12, cols);
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getCols() {
+        return cols;
+    }
+
+    PieceCodec<T> getCodec() {
+        return codec;
+    }
+
+    boolean isMapped() {
+        return mapped;
+    }
+
+    boolean isReadOnly() {
+        return buffer.isReadOnly();
+    }
+
+    /**
+     * Reads the piece in a cell.
+     *
+     * @param index row-major cell index
+     * @return decoded piece, or {@code null} for an empty cell
+     */
+    T get(int index) {
+        int code = buffer.getInt(HEADER_BYTES + index * Integer.BYTES);
+        return code == 0 ? null : codec.decode(code - 1);
+    }
+
+    /**
+     * Writes the piece in a cell.
+     *
+     * @param index row-major cell index
+     * @param piece piece to encode, or {@code null} to empty the cell
+     * @throws java.nio.ReadOnlyBufferException if the cells were mapped read-only
+     */
+    void set(int index, T piece) {
+        int code = 0;
+        if (piece != null) {
+            code = codec.encode(piece);
+            if (code < 0 || code == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Codec produced out-of-range code " + code + " for " + piece);
+            }
+            code++;
+        }
+        buffer.putInt(HEADER_BYTES + index * Integer.BYTES, code);
+    }
+
+    /**
+     * Copies the cells into new direct memory of the supplied shape, keeping
+     * the overlapping rectangle and leaving other cells empty.
+     */
+    OffHeapCells<T> copy(int newRows, int newCols) {
+        OffHeapCells<T> target = allocate(newRows, newCols, codec);
+        int copyRows = Math.min(rows, newRows);
+        int copyCols = Math.min(cols, newCols);
+        if (newCols == cols) {
+            target.buffer.put(HEADER_BYTES, buffer, HEADER_BYTES, copyRows * cols * Integer.BYTES);
+            return target;
+        }
+        for (int i = 0; i < copyRows; i++) {
+            for (int j = 0; j < copyCols; j++) {
+                target.buffer.putInt(HEADER_BYTES + (i * newCols + j) * Integer.BYTES,
+                        buffer.getInt(HEADER_BYTES + (i * cols + j) * Integer.BYTES));
+            }
+        }
+        return target;
+    }
+}
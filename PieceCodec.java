@@ -0,0 +1,32 @@
+/**
+ * File: PieceCodec.java
+ * Description: Conversion between game pieces and the integer codes stored by
+ *              off-heap and memory-mapped grids.
+ */
+
+/**
+ * Encodes pieces of one {@link GamePiece} type as non-negative {@code int}
+ * codes and decodes them back. Grids with {@link Grid.Storage#OFF_HEAP}
+ * storage keep only these codes, so a codec must map equal pieces to equal
+ * codes and decode every code it produces. Empty cells ({@code null}) are
+ * handled by the grid and never reach the codec.
+ *
+ * @param <T> type of piece handled by the codec
+ */
+public interface PieceCodec<T extends GamePiece> {
+    /**
+     * Encodes a piece.
+     *
+     * @param piece non-null piece to encode
+     * @return code between {@code 0} and {@code Integer.MAX_VALUE - 1}
+     */
+    int encode(T piece);
+
+    /**
+     * Decodes a code produced by {@link #encode(GamePiece)}.
+     *
+     * @param code code read from storage
+     * @return the piece represented by the code
+     */
+    T decode(int code);
+}
@@ -0,0 +1,496 @@
+/**
+ * File: SlidingPuzzleBenchmark.java
+ * Description: Command-line micro-benchmarks for the sliding puzzle engine.
+ *              Measures shuffle throughput per difficulty level and board size
+ *              using the same move budgets the game applies at runtime, and the
+ *              direct solvable-permutation generator across every board size,
+ *              and the optimal IDA* solver on standard 15-puzzle instances with
+ *              both the Manhattan and pattern database heuristics, sequentially
+ *              and on fork/join pools of increasing size, plus the suboptimal
+ *              reduction solver on random boards up to 20x20, and replay
+ *              verification throughput, in memory and for replay directories.
+ *
+ * Usage: java SlidingPuzzleBenchmark [shuffle|permutation|solver|patterns|parallel|reduction|replay]
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lightweight benchmark harness for sliding puzzle components. Each scenario
+ * warms up before timing and reports throughput on standard output.
+ */
+public final class SlidingPuzzleBenchmark {
+    private static final int[] BOARD_SIZES = { 3, 4, 5, 8, 10, 15, 20 };
+    private static final int MAX_DIFFICULTY = 6;
+    private static final long WARMUP_NANOS = 200_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    /**
+     * Opening instances of Korf's standard 15-puzzle test set (1985), written
+     * in the original notation where {@code 0} is the blank and the goal places
+     * the blank first. They are converted to this game's goal orientation by a
+     * 180-degree rotation, which preserves optimal solution lengths.
+     */
+    private static final int[][] KORF_INSTANCES = {
+            { 14, 13, 15, 7, 11, 12, 9, 5, 6, 0, 2, 1, 4, 8, 10, 3 },
+            { 13, 5, 4, 10, 9, 12, 8, 14, 2, 3, 7, 1, 0, 15, 11, 6 },
+            { 14, 7, 8, 2, 13, 11, 10, 4, 9, 12, 5, 0, 3, 6, 1, 15 },
+            { 5, 12, 10, 7, 15, 11, 14, 0, 8, 2, 1, 13, 3, 4, 9, 6 },
+            { 4, 7, 14, 13, 10, 3, 9, 12, 11, 5, 6, 15, 1, 2, 8, 0 },
+    };
+    private static final int[] KORF_OPTIMAL_LENGTHS = { 57, 55, 59, 56, 56 };
+    private static final int[] PARALLELISM_LEVELS = { 1, 2, 4, 8, 16 };
+    private static final int REDUCTION_BOARDS = 100;
+    private static final int[] REPLAY_SIZES = { 4, 10, 20 };
+    private static final int REPLAY_BOARDS = 200;
+
+    private SlidingPuzzleBenchmark() {
+    }
+
+    /**
+     * Runs the requested benchmark scenarios (all scenarios when no argument is
+     * supplied).
+     *
+     * @param args optional scenario names
+     */
+    public static void main(String[] args) {
+        String scenario = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "all";
+        switch (scenario) {
+            case "shuffle":
+                benchmarkShuffle();
+                break;
+            case "permutation":
+                benchmarkPermutation();
+                break;
+            case "solver":
+                benchmarkSolver();
+                break;
+            case "patterns":
+                benchmarkPatternSolver();
+                break;
+            case "parallel":
+                benchmarkParallelSolver();
+                break;
+            case "reduction":
+                benchmarkReductionSolver();
+                break;
+            case "replay":
+                benchmarkReplayVerifier();
+                break;
+            case "all":
+                benchmarkShuffle();
+                benchmarkPermutation();
+                benchmarkSolver();
+                benchmarkPatternSolver();
+                benchmarkParallelSolver();
+                benchmarkReductionSolver();
+                benchmarkReplayVerifier();
+                break;
+            default:
+                System.out.println("Unknown scenario: " + scenario);
+        }
+    }
+
+    /**
+     * Reports shuffles per second and random-walk steps per second for every
+     * difficulty level and board size combination.
+     */
+    private static void benchmarkShuffle() {
+        System.out.println("=== Shuffle throughput (random walk) ===");
+        System.out.println(String.format(Locale.ROOT, "%-6s %-5s %12s %14s %14s",
+                "Level", "Grid", "Moves", "Shuffles/sec", "Steps/sec"));
+
+        SplittableRandom random = new SplittableRandom(42L);
+        long sink = 0;
+        for (int level = 1; level <= MAX_DIFFICULTY; level++) {
+            for (int n : BOARD_SIZES) {
+                SlidingPuzzleShuffler shuffler = new SlidingPuzzleShuffler(n, n);
+                int[] board = new int[n * n];
+                int moves = SlidingPuzzleGame.getShuffleMoves(level, n * n);
+
+                long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+                while (System.nanoTime() < warmupEnd) {
+                    sink += shuffler.shuffle(board, moves, random);
+                }
+
+                long shuffles = 0;
+                long start = System.nanoTime();
+                long elapsed;
+                do {
+                    sink += shuffler.shuffle(board, moves, random);
+                    shuffles++;
+                    elapsed = System.nanoTime() - start;
+                } while (elapsed < MEASURE_NANOS);
+
+                double seconds = elapsed / 1e9;
+                System.out.println(String.format(Locale.ROOT, "%-6d %-5s %12d %14.1f %14.3e",
+                        level, n + "x" + n, moves, shuffles / seconds, (double) moves * shuffles / seconds));
+            }
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Reports direct permutation generation throughput, including the Fenwick
+     * tree parity check, for every supported square board size.
+     */
+    private static void benchmarkPermutation() {
+        System.out.println("=== Solvable permutation throughput ===");
+        System.out.println(String.format(Locale.ROOT, "%-5s %16s", "Grid", "Boards/sec"));
+
+        SplittableRandom random = new SplittableRandom(42L);
+        long sink = 0;
+        for (int n = SlidingPuzzleGame.MIN_SIZE; n <= SlidingPuzzleGame.MAX_SIZE; n++) {
+            SlidingPuzzleShuffler shuffler = new SlidingPuzzleShuffler(n, n);
+            int[] board = new int[n * n];
+
+            long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+            while (System.nanoTime() < warmupEnd) {
+                sink += shuffler.randomPermutation(board, random);
+            }
+
+            long boards = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                sink += shuffler.randomPermutation(board, random);
+                boards++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MEASURE_NANOS);
+
+            System.out.println(String.format(Locale.ROOT, "%-5s %16.1f", n + "x" + n, boards / (elapsed / 1e9)));
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Solves each standard 15-puzzle instance optimally and reports solution
+     * length, expanded nodes, and nodes per second.
+     */
+    private static void benchmarkSolver() {
+        System.out.println("=== IDA* solver (Manhattan + linear conflict), 15-puzzle ===");
+        runKorfInstances(new SlidingPuzzleSolver(4, 4));
+    }
+
+    /**
+     * Loads (building and saving when absent) the default 4x4 pattern
+     * databases, then solves the same 15-puzzle instances with them.
+     */
+    private static void benchmarkPatternSolver() {
+        System.out.println("=== IDA* solver (6-6-3 pattern databases + reflection), 15-puzzle ===");
+        long start = System.nanoTime();
+        SlidingPuzzlePatternHeuristic patterns = SlidingPuzzlePatternHeuristic.loadIfPresent(4, 4);
+        if (patterns == null) {
+            List<SlidingPuzzlePatternDatabase> databases = new ArrayList<>();
+            for (int[] pattern : SlidingPuzzlePatternHeuristic.defaultPartition(4, 4)) {
+                SlidingPuzzlePatternDatabase database = SlidingPuzzlePatternDatabase.build(4, 4, pattern);
+                try {
+                    Files.createDirectories(SlidingPuzzlePatternHeuristic.DEFAULT_DIRECTORY);
+                    database.write(SlidingPuzzlePatternHeuristic.DEFAULT_DIRECTORY
+                            .resolve(SlidingPuzzlePatternHeuristic.fileName(4, 4, pattern)));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                databases.add(database);
+            }
+            patterns = SlidingPuzzlePatternHeuristic.of(4, 4, databases);
+            System.out.println(String.format(Locale.ROOT, "Built tables in %.1f s", (System.nanoTime() - start) / 1e9));
+        } else {
+            System.out.println("Using tables from " + SlidingPuzzlePatternHeuristic.DEFAULT_DIRECTORY);
+        }
+        runKorfInstances(new SlidingPuzzleSolver(4, 4, patterns));
+    }
+
+    /**
+     * Compares the sequential solver with the fork/join solver on 1, 2, 4, 8
+     * and 16 worker threads over the same 15-puzzle instances. Uses the 4x4
+     * pattern databases when they have been built, otherwise Manhattan distance
+     * plus linear conflict. Speedups beyond the machine's core count only
+     * measure scheduling overhead.
+     */
+    private static void benchmarkParallelSolver() {
+        SlidingPuzzlePatternHeuristic patterns = SlidingPuzzlePatternHeuristic.loadIfPresent(4, 4);
+        System.out.println("=== Parallel IDA* speedup, 15-puzzle ("
+                + (patterns == null ? "Manhattan + linear conflict" : "pattern databases") + ", "
+                + Runtime.getRuntime().availableProcessors() + " available cores) ===");
+        System.out.println(String.format(Locale.ROOT, "%-10s %14s %10s %9s", "Threads", "Nodes", "Seconds",
+                "Speedup"));
+
+        int[][] boards = new int[KORF_INSTANCES.length][];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = toGameOrientation(KORF_INSTANCES[i]);
+        }
+
+        SlidingPuzzleSolver sequential = new SlidingPuzzleSolver(4, 4, patterns);
+        long baselineNodes = 0;
+        long start = System.nanoTime();
+        for (int[] board : boards) {
+            baselineNodes += sequential.solve(board).getNodes();
+        }
+        double baseline = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%-10s %14d %10.2f %9s", "sequential", baselineNodes,
+                baseline, "1.00x"));
+
+        for (int threads : PARALLELISM_LEVELS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                SlidingPuzzleParallelSolver solver = new SlidingPuzzleParallelSolver(4, 4, patterns, pool);
+                long nodes = 0;
+                start = System.nanoTime();
+                for (int i = 0; i < boards.length; i++) {
+                    SlidingPuzzleSolver.Solution solution = solver.solve(boards[i]);
+                    if (solution.getLength() != KORF_OPTIMAL_LENGTHS[i]) {
+                        throw new IllegalStateException("Parallel solver returned length " + solution.getLength()
+                                + " for instance #" + (i + 1));
+                    }
+                    nodes += solution.getNodes();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.println(String.format(Locale.ROOT, "%-10d %14d %10.2f %8.2fx", threads, nodes, seconds,
+                        baseline / seconds));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Solves uniformly random solvable boards of every supported size with the
+     * reduction solver, replays each solution to confirm it reaches the goal,
+     * and reports mean and worst solve time and mean solution length.
+     */
+    private static void benchmarkReductionSolver() {
+        System.out.println("=== Reduction solver on random boards ===");
+        System.out.println(String.format(Locale.ROOT, "%-5s %12s %12s %14s", "Grid", "Mean ms", "Worst ms",
+                "Mean moves"));
+
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int n = SlidingPuzzleGame.MIN_SIZE; n <= SlidingPuzzleGame.MAX_SIZE; n++) {
+            SlidingPuzzleShuffler shuffler = new SlidingPuzzleShuffler(n, n);
+            SlidingPuzzleReductionSolver solver = new SlidingPuzzleReductionSolver(n, n);
+            int[] board = new int[n * n];
+
+            long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+            while (System.nanoTime() < warmupEnd) {
+                shuffler.randomPermutation(board, random);
+                solver.solve(board);
+            }
+
+            long totalNanos = 0;
+            long worstNanos = 0;
+            long totalMoves = 0;
+            for (int i = 0; i < REDUCTION_BOARDS; i++) {
+                shuffler.randomPermutation(board, random);
+                SlidingPuzzleSolver.Solution solution = solver.solve(board);
+                if (!solution.isSolved() || !replaysToGoal(board, n, solution.getTiles())) {
+                    throw new IllegalStateException("Reduction solver failed on a " + n + "x" + n + " board");
+                }
+                totalNanos += solution.getElapsedNanos();
+                worstNanos = Math.max(worstNanos, solution.getElapsedNanos());
+                totalMoves += solution.getLength();
+            }
+            System.out.println(String.format(Locale.ROOT, "%-5s %12.3f %12.3f %14d", n + "x" + n,
+                    totalNanos / 1e6 / REDUCTION_BOARDS, worstNanos / 1e6, totalMoves / REDUCTION_BOARDS));
+        }
+    }
+
+    /**
+     * Builds Legendary-level replays by solving seeded boards with the reduction
+     * solver, then reports replay verification throughput in moves per second,
+     * first in memory on one thread and then for a directory of saved replays
+     * on pools of increasing size.
+     */
+    private static void benchmarkReplayVerifier() {
+        System.out.println("=== Replay verification ===");
+        System.out.println(String.format(Locale.ROOT, "%-10s %-6s %10s %14s %14s", "Mode", "Grid", "Replays",
+                "Moves/replay", "M moves/s"));
+
+        Path directory;
+        try {
+            directory = Files.createTempDirectory("replays");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            SplittableRandom random = new SplittableRandom(42L);
+            SlidingPuzzleReplayVerifier verifier = new SlidingPuzzleReplayVerifier();
+            for (int n : REPLAY_SIZES) {
+                List<SlidingPuzzleReplay> replays = new ArrayList<>(REPLAY_BOARDS);
+                long totalMoves = 0;
+                for (int i = 0; i < REPLAY_BOARDS; i++) {
+                    SlidingPuzzleReplay replay = createSolvedReplay(n, random.nextLong() >>> 1);
+                    replays.add(replay);
+                    totalMoves += replay.getMoveCount();
+                    replay.save(directory.resolve(n + "x" + n + "-" + i + SlidingPuzzleReplay.FILE_EXTENSION));
+                }
+
+                long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+                while (System.nanoTime() < warmupEnd) {
+                    for (SlidingPuzzleReplay replay : replays) {
+                        verifier.verify(replay);
+                    }
+                }
+                long rounds = 0;
+                long start = System.nanoTime();
+                long elapsed;
+                do {
+                    for (SlidingPuzzleReplay replay : replays) {
+                        if (!verifier.verify(replay).isValid()) {
+                            throw new IllegalStateException("Generated replay failed verification");
+                        }
+                    }
+                    rounds++;
+                    elapsed = System.nanoTime() - start;
+                } while (elapsed < MEASURE_NANOS);
+                System.out.println(String.format(Locale.ROOT, "%-10s %-6s %10d %14d %14.1f", "memory",
+                        n + "x" + n, REPLAY_BOARDS, totalMoves / REPLAY_BOARDS,
+                        rounds * totalMoves / (elapsed / 1e9) / 1e6));
+            }
+
+            long directoryMoves = 0;
+            for (int threads : PARALLELISM_LEVELS) {
+                long start = System.nanoTime();
+                List<SlidingPuzzleReplayVerifier.FileResult> results =
+                        SlidingPuzzleReplayVerifier.verifyDirectory(directory, threads);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                directoryMoves = 0;
+                for (SlidingPuzzleReplayVerifier.FileResult result : results) {
+                    if (!result.getResult().isValid()) {
+                        throw new IllegalStateException("Saved replay failed verification: " + result.getFile());
+                    }
+                    directoryMoves += result.getResult().getMovesReplayed();
+                }
+                System.out.println(String.format(Locale.ROOT, "%-10s %-6s %10d %14d %14.1f", threads + " thr",
+                        "mixed", results.size(), directoryMoves / results.size(), directoryMoves / seconds / 1e6));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try (Stream<Path> listing = Files.list(directory)) {
+                for (Path file : listing.collect(Collectors.toList())) {
+                    Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(directory);
+            } catch (IOException ignored) {
+                // Temporary files are left behind; nothing else to clean up.
+            }
+        }
+    }
+
+    /**
+     * Generates the Legendary board for a seed exactly as the game does, solves
+     * it with the reduction solver, and packs the solution into a replay.
+     */
+    private static SlidingPuzzleReplay createSolvedReplay(int n, long seed) {
+        int level = MAX_DIFFICULTY;
+        long shuffleMoves = SlidingPuzzleGame.getShuffleMoves(level, n * n);
+        SlidingPuzzleReplay empty = new SlidingPuzzleReplay(seed, n, n, level,
+                SlidingPuzzleShuffler.Mode.RANDOM_PERMUTATION, shuffleMoves, 0, 0, new long[0], new int[0]);
+        int[] board = empty.createStartingBoard();
+        int[] tiles = new SlidingPuzzleReductionSolver(n, n).solve(board).getTiles();
+
+        int[] where = new int[board.length];
+        for (int cell = 0; cell < board.length; cell++) {
+            where[board[cell]] = cell;
+        }
+        long[] moves = new long[(tiles.length + 31) / 32];
+        for (int i = 0; i < tiles.length; i++) {
+            int from = where[tiles[i]];
+            int blank = where[0];
+            int direction;
+            if (from == blank - n) {
+                direction = SlidingPuzzleMoveLog.UP;
+            } else if (from == blank + n) {
+                direction = SlidingPuzzleMoveLog.DOWN;
+            } else if (from == blank - 1) {
+                direction = SlidingPuzzleMoveLog.LEFT;
+            } else {
+                direction = SlidingPuzzleMoveLog.RIGHT;
+            }
+            moves[i / 32] |= (long) direction << ((i % 32) * 2);
+            where[tiles[i]] = blank;
+            where[0] = from;
+        }
+        return new SlidingPuzzleReplay(seed, n, n, level, SlidingPuzzleShuffler.Mode.RANDOM_PERMUTATION,
+                shuffleMoves, tiles.length, tiles.length, moves, new int[tiles.length]);
+    }
+
+    /**
+     * Applies a list of tile moves to a copy of the board, checking that every
+     * tile is adjacent to the empty slot, and reports whether the goal results.
+     */
+    private static boolean replaysToGoal(int[] initial, int cols, int[] tiles) {
+        int[] board = initial.clone();
+        int[] where = new int[board.length];
+        for (int cell = 0; cell < board.length; cell++) {
+            where[board[cell]] = cell;
+        }
+        for (int tile : tiles) {
+            int from = where[tile];
+            int to = where[0];
+            if (Math.abs(from / cols - to / cols) + Math.abs(from % cols - to % cols) != 1) {
+                return false;
+            }
+            board[to] = tile;
+            board[from] = 0;
+            where[tile] = to;
+            where[0] = from;
+        }
+        for (int cell = 0; cell < board.length - 1; cell++) {
+            if (board[cell] != cell + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves each standard instance with the supplied solver and prints one
+     * line per instance followed by totals.
+     */
+    private static void runKorfInstances(SlidingPuzzleSolver solver) {
+        System.out.println(String.format(Locale.ROOT, "%-9s %7s %9s %14s %10s %14s",
+                "Instance", "Length", "Expected", "Nodes", "Seconds", "Nodes/sec"));
+
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < KORF_INSTANCES.length; i++) {
+            SlidingPuzzleSolver.Solution solution = solver.solve(toGameOrientation(KORF_INSTANCES[i]));
+            totalNodes += solution.getNodes();
+            totalNanos += solution.getElapsedNanos();
+            double seconds = solution.getElapsedNanos() / 1e9;
+            System.out.println(String.format(Locale.ROOT, "%-9s %7d %9d %14d %10.2f %14.3e",
+                    "#" + (i + 1), solution.getLength(), KORF_OPTIMAL_LENGTHS[i], solution.getNodes(), seconds,
+                    solution.getNodes() / seconds));
+        }
+        System.out.println(String.format(Locale.ROOT, "Total: %d nodes in %.2f s (%.3e nodes/sec)",
+                totalNodes, totalNanos / 1e9, totalNodes / (totalNanos / 1e9)));
+    }
+
+    /**
+     * Rotates a 4x4 instance given in blank-first goal notation by 180 degrees
+     * so its goal matches this game's blank-last layout.
+     *
+     * @param instance board in blank-first notation
+     * @return equivalent board in blank-last notation
+     */
+    private static int[] toGameOrientation(int[] instance) {
+        int size = instance.length;
+        int[] board = new int[size];
+        for (int position = 0; position < size; position++) {
+            int value = instance[position];
+            board[size - 1 - position] = value == 0 ? 0 : size - value;
+        }
+        return board;
+    }
+}
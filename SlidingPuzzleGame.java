@@ -9,15 +9,37 @@
  * - Configurable grid sizes ranging from 3x3 to 20x20
  * - Difficulty-aware shuffling and score calculations
  * - Solvability maintained by performing randomized valid moves from the solved state
+ *   on a primitive board via {@link SlidingPuzzleShuffler}
+ * - Per-difficulty choice between random-walk and direct solvable-permutation shuffles
+ * - Tile values held in a primitive {@link IntGrid}, with no per-cell objects
+ * - Repeated positions detected through the board's incremental Zobrist hash
+ * - Value-to-position index giving constant-time tile lookup and move validation
+ * - Incrementally maintained placed-tile count and Manhattan distance for O(1) win checks
+ * - Reproducible boards: every board is generated from a shareable seed, and a
+ *   daily-challenge mode derives the seed from the date
+ * - Unlimited undo/redo backed by a packed two-bit move log, with a per-difficulty
+ *   allowance of free undos
+ * - Binary replay of every finished game, verified by
+ *   {@link SlidingPuzzleReplayVerifier} before the score reaches the leaderboard
+ * - Optimal next-move hints via {@link SlidingPuzzleSolver}, with a fast
+ *   row-and-column reduction fallback for large boards
  * - Per-grid, per-difficulty score tracking via {@link Player}
  */
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Sliding puzzle game implementation extending the generic {@link GridGame}
@@ -31,18 +53,58 @@ import java.util.Random;
 public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
     public static final int MIN_SIZE = 3;
     public static final int MAX_SIZE = 20;
+    /** Hardest difficulty level the sliding puzzle offers. */
+    public static final int MAX_LEVEL = 6;
+    /** Longest shuffle the game ever performs, on the largest board at the hardest level. */
+    static final long MAX_SHUFFLE_MOVES = getShuffleMoves(MAX_LEVEL, MAX_SIZE * MAX_SIZE);
 
+    private final IntGrid board = new IntGrid(DEFAULT_ROWS, DEFAULT_COLS);
+    private final IntGrid.PieceView<SlidingPuzzlePiece> pieces = board.asPieces(SlidingPuzzlePiece::ofValue);
     private int emptyRow;
     private int emptyCol;
+    private int[] tilePositions = new int[0];
+    private int correctTiles;
+    private int manhattanDistance;
 
     private int currentScore;
     private int moveCount;
     private long startTime;
-    private PuzzleSnapshot pendingUndo;
-    private boolean undoUsed;
+    private final SlidingPuzzleMoveLog moveLog = new SlidingPuzzleMoveLog();
+    private int[] moveTimes = new int[64];
+    private final Map<Long, Integer> positionHistory = new HashMap<>();
+    private int undosUsed;
+    private SlidingPuzzleShuffler shuffler;
+    private SlidingPuzzleSolver solver;
+    private SlidingPuzzleParallelSolver parallelSolver;
+    private SlidingPuzzleReductionSolver reductionSolver;
+    private long patternsMissingFor = -1L;
+    private boolean parallelHints = Runtime.getRuntime().availableProcessors() > 1;
+    private final Map<Integer, SlidingPuzzleShuffler.Mode> shuffleModes = new HashMap<>();
+    private final Map<Integer, Integer> freeUndoLimits = new HashMap<>();
+    private final SplittableRandom seedSource = new SplittableRandom();
+    private Long pendingSeed;
+    private boolean dailyChallenge;
+    private LocalDate challengeDate;
+    private long currentSeed;
+
+    /**
+     * Optimal (or, on large boards, best known) solution length of each daily
+     * challenge board, shared by every game on this host so that a par found
+     * once per date, shape and difficulty is reused. Boards that neither
+     * solver finished are left out so that a later request can retry.
+     */
+    private static final Map<String, Integer> DAILY_PAR_CACHE = new ConcurrentHashMap<>();
+
+    /** Directory where replays of finished games are written. */
+    private static final Path REPLAY_DIRECTORY = Path.of("replays");
 
     private static final int DEFAULT_ROWS = 3;
     private static final int DEFAULT_COLS = 3;
+    private static final long HINT_BUDGET_MILLIS = 2000L;
+    private static final long REDUCTION_BUDGET_MILLIS = 1000L;
+    private static final int MAX_OPTIMAL_CELLS = 16;
+    private static final int SOLUTION_PREVIEW_MOVES = 60;
+    private static final long DAILY_SALT = 0x5EED_DA11_C4A1_1E6EL;
 
     private String emptyCell = "  ";
     private String topLeftCorner = "+";
@@ -55,10 +117,7 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
      * services.
      */
     public SlidingPuzzleGame() {
-        super(SlidingPuzzlePiece.class, DEFAULT_ROWS, DEFAULT_COLS);
-        addDifficultyLevel(4, "Expert");
-        addDifficultyLevel(5, "Master");
-        addDifficultyLevel(6, "Legendary");
+        this(new ConsoleInputService(), new ConsoleOutputService());
     }
 
     /**
@@ -69,10 +128,288 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
      * @param outputService service used for writing game output
      */
     public SlidingPuzzleGame(InputService inputService, OutputService outputService) {
-        super(SlidingPuzzlePiece.class, DEFAULT_ROWS, DEFAULT_COLS, inputService, outputService);
-        addDifficultyLevel(4, "Expert");
-        addDifficultyLevel(5, "Master");
-        addDifficultyLevel(6, "Legendary");
+        super(inputService, outputService);
+        configurePuzzleDifficultyLevels();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tile values live in an {@link IntGrid} and no piece grid is allocated,
+     * so the board's dimensions are reported from there.
+     */
+    @Override
+    protected int getRows() {
+        return board.getRows();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getCols() {
+        return board.getCols();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getGridSize() {
+        return board.getSize();
+    }
+
+    /**
+     * Registers the sliding puzzle's extended difficulty levels, the shuffle
+     * strategy used for each, and how many undos each level forgives. Easier
+     * levels keep the short random walk so boards stay near solved; the extreme
+     * levels draw a uniformly random solvable permutation so setup is instant
+     * on every board size.
+     */
+    private void configurePuzzleDifficultyLevels() {
+        for (int level = 4; level <= MAX_LEVEL; level++) {
+            addDifficultyLevel(level, getDifficultyLabel(level));
+        }
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            shuffleModes.put(level, getDefaultShuffleMode(level));
+        }
+
+        freeUndoLimits.put(1, Integer.MAX_VALUE);
+        freeUndoLimits.put(2, 10);
+        freeUndoLimits.put(3, 5);
+        freeUndoLimits.put(4, 3);
+        freeUndoLimits.put(5, 1);
+        freeUndoLimits.put(6, 0);
+    }
+
+    /**
+     * Names a sliding puzzle difficulty level without a game instance, for
+     * labels derived from stored data such as replays.
+     *
+     * @param level difficulty level
+     * @return display name, or {@code "Unknown"} outside
+     *         {@code 1..}{@link #MAX_LEVEL}
+     */
+    static String getDifficultyLabel(int level) {
+        switch (level) {
+            case 1:
+                return "Easy";
+            case 2:
+                return "Medium";
+            case 3:
+                return "Hard";
+            case 4:
+                return "Expert";
+            case 5:
+                return "Master";
+            case 6:
+                return "Legendary";
+            default:
+                return "Unknown";
+        }
+    }
+
+    /**
+     * Resolves the shuffle strategy a new game uses for a difficulty level
+     * before any call to {@link #setShuffleMode(int, SlidingPuzzleShuffler.Mode)}.
+     * Replay verification holds boards to these settings.
+     *
+     * @param level difficulty level
+     * @return random walk up to Hard, direct permutation above
+     */
+    static SlidingPuzzleShuffler.Mode getDefaultShuffleMode(int level) {
+        return level <= 3 ? SlidingPuzzleShuffler.Mode.RANDOM_WALK : SlidingPuzzleShuffler.Mode.RANDOM_PERMUTATION;
+    }
+
+    /**
+     * Sets how many undos per game are free at the supplied difficulty level.
+     * Free undos also take back the move they revert; every undo beyond the
+     * limit is counted as an extra move instead, lowering the score.
+     *
+     * @param level difficulty level to configure
+     * @param limit number of free undos, or {@link Integer#MAX_VALUE} for no
+     *              penalty at all
+     * @throws IllegalArgumentException if the level is not configured or the
+     *                                  limit is negative
+     */
+    public void setFreeUndoLimit(int level, int limit) {
+        if (!isValidDifficultyLevel(level)) {
+            throw new IllegalArgumentException("Unknown difficulty level: " + level);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Undo limit must not be negative");
+        }
+        freeUndoLimits.put(level, limit);
+    }
+
+    /**
+     * Resolves the free-undo allowance for the supplied difficulty level.
+     * Levels without an explicit setting forgive every undo.
+     *
+     * @param level difficulty level to query
+     * @return number of free undos per game
+     */
+    public int getFreeUndoLimit(int level) {
+        return freeUndoLimits.getOrDefault(level, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Requests that the next generated board use the supplied seed. The same
+     * seed, grid size and difficulty always yield the same board. The request
+     * applies to a single board; later boards return to random or daily seeds.
+     *
+     * @param seed non-negative board seed, as shown during play
+     * @throws IllegalArgumentException if the seed is negative
+     */
+    public void setNextSeed(long seed) {
+        if (seed < 0) {
+            throw new IllegalArgumentException("Seed must not be negative");
+        }
+        pendingSeed = seed;
+    }
+
+    /**
+     * Enables or disables daily-challenge mode. While enabled, every board is
+     * generated from a seed derived from the current local date, so all players
+     * on this host who choose the same size and difficulty get the same puzzle.
+     *
+     * @param enabled {@code true} to play the daily challenge
+     */
+    public void setDailyChallenge(boolean enabled) {
+        dailyChallenge = enabled;
+    }
+
+    /**
+     * @return {@code true} when boards are generated from the daily seed
+     */
+    public boolean isDailyChallenge() {
+        return dailyChallenge;
+    }
+
+    /**
+     * @return seed of the current board
+     */
+    public long getCurrentSeed() {
+        return currentSeed;
+    }
+
+    /**
+     * Derives the daily-challenge seed for a date.
+     *
+     * @param date calendar date
+     * @return non-negative seed shared by every board of that day
+     */
+    public static long dailySeed(LocalDate date) {
+        return Zobrist.mix(date.toEpochDay() ^ DAILY_SALT) >>> 1;
+    }
+
+    /**
+     * Derives the random-number stream seed for one board so that each grid
+     * size and difficulty produces an unrelated board from the same seed.
+     *
+     * @param seed       board seed chosen by the player or derived from the date
+     * @param rows       number of board rows
+     * @param cols       number of board columns
+     * @param difficulty difficulty level
+     * @return seed for the {@link SplittableRandom} that shuffles the board
+     */
+    static long boardSeed(long seed, int rows, int cols, int difficulty) {
+        long key = Zobrist.mix(seed);
+        key = Zobrist.mix(key ^ rows);
+        key = Zobrist.mix(key ^ cols);
+        return Zobrist.mix(key ^ difficulty);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Adds seeded boards and the daily challenge to the pre-game menu.
+     */
+    @Override
+    public String describePreGameOptions() {
+        return ", [seed N] Play board N, [daily] Daily challenge" + (dailyChallenge ? ", [random] Random boards" : "");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Understands {@code seed N}, {@code daily} and {@code random}; each one
+     * regenerates the board immediately.
+     */
+    @Override
+    public boolean handlePreGameOption(String command) {
+        OutputService outputService = getOutputService();
+        if (command.startsWith("seed")) {
+            String argument = command.substring("seed".length()).trim();
+            try {
+                setNextSeed(Long.parseLong(argument));
+            } catch (IllegalArgumentException ex) {
+                outputService.println("Please enter a non-negative seed, for example 'seed 12345'.");
+                return true;
+            }
+            dailyChallenge = false;
+        } else if ("daily".equals(command)) {
+            dailyChallenge = true;
+        } else if ("random".equals(command)) {
+            dailyChallenge = false;
+        } else {
+            return false;
+        }
+
+        initializeGame();
+        if (isDailyBoard()) {
+            outputService.println("Daily challenge for " + challengeDate + " loaded.");
+            displayDailyPar(outputService);
+        } else {
+            outputService.println("Board " + currentSeed + " loaded.");
+        }
+        displayGrid();
+        return true;
+    }
+
+    /**
+     * Selects the shuffle strategy applied when boards are generated for the
+     * supplied difficulty level. Replays of boards generated with a strategy
+     * other than {@link #getDefaultShuffleMode(int)} do not verify, so their
+     * scores stay off the global leaderboard.
+     *
+     * @param level difficulty level to configure
+     * @param mode  shuffle strategy to use for that level
+     * @throws IllegalArgumentException if the level is not configured
+     */
+    public void setShuffleMode(int level, SlidingPuzzleShuffler.Mode mode) {
+        if (!isValidDifficultyLevel(level)) {
+            throw new IllegalArgumentException("Unknown difficulty level: " + level);
+        }
+        shuffleModes.put(level, Objects.requireNonNull(mode, "mode must not be null"));
+    }
+
+    /**
+     * Resolves the shuffle strategy for the supplied difficulty level, falling
+     * back to the random walk for levels without an explicit setting.
+     *
+     * @param level difficulty level to query
+     * @return configured shuffle strategy
+     */
+    public SlidingPuzzleShuffler.Mode getShuffleMode(int level) {
+        return shuffleModes.getOrDefault(level, SlidingPuzzleShuffler.Mode.RANDOM_WALK);
+    }
+
+    /**
+     * Chooses whether hints are computed by the parallel solver on the common
+     * fork/join pool. Enabled by default on machines with more than one core.
+     *
+     * @param enabled {@code true} to split hint searches across all cores
+     */
+    public void setParallelHints(boolean enabled) {
+        parallelHints = enabled;
+    }
+
+    /**
+     * @return {@code true} when hints use the parallel solver
+     */
+    public boolean isParallelHints() {
+        return parallelHints;
     }
 
     /**
@@ -124,7 +461,7 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
                     cols = DEFAULT_COLS;
                 }
 
-                gameGrid.resize(rows, cols);
+                board.resize(rows, cols);
 
                 if (getGridSize() < 100) {
                     horizontalBorder = "--+";
@@ -153,8 +490,19 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
      * @return number of shuffling iterations to execute
      */
     private int getShuffleMoves() {
+        return getShuffleMoves(getPlayer().getDifficultyLevel(), getGridSize());
+    }
+
+    /**
+     * Computes the shuffle length for an arbitrary difficulty level and board
+     * size. Exposed to the package so benchmarks can reproduce real workloads.
+     *
+     * @param diffLevel difficulty level selected by the player
+     * @param gridSize  total number of cells on the board
+     * @return number of shuffling iterations to execute
+     */
+    static int getShuffleMoves(int diffLevel, int gridSize) {
         int baseMultiplier;
-        int diffLevel = getPlayer().getDifficultyLevel();
 
         if (diffLevel <= 3) {
             switch (diffLevel) {
@@ -176,7 +524,6 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
         }
 
         double exponent = 1.5;
-        double gridSize = getGridSize();
 
         return (int) (baseMultiplier * Math.pow(gridSize, exponent));
     }
@@ -188,50 +535,38 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
      * @return up-to-date score for the player
      */
     private int calculateScore() {
-        if (moveCount == 0) {
+        long elapsedTimeSeconds = (System.currentTimeMillis() - startTime) / 1000;
+        return computeScore(getPlayer().getDifficultyLevel(), getGridSize(), moveCount, elapsedTimeSeconds);
+    }
+
+    /**
+     * Applies the scoring formula to explicit inputs so that replays can be
+     * scored the same way as live games.
+     *
+     * @param diffLevel          difficulty level of the game
+     * @param gridSize           total number of cells on the board
+     * @param moves              move count, including undo penalties
+     * @param elapsedTimeSeconds whole seconds taken
+     * @return score for the supplied inputs
+     */
+    static int computeScore(int diffLevel, int gridSize, int moves, long elapsedTimeSeconds) {
+        if (moves == 0) {
             return 0;
         }
-
-        long elapsedTimeSeconds = (System.currentTimeMillis() - startTime) / 1000;
         if (elapsedTimeSeconds == 0) {
             elapsedTimeSeconds = 1;
         }
 
         // Base score scales with difficulty and grid size
-        int baseScore = getPlayer().getDifficultyLevel() * getGridSize() * 100;
+        int baseScore = diffLevel * gridSize * 100;
 
         // Apply penalties for moves and time taken
-        double moveEfficiency = Math.max(0.1, 1.0 / moveCount);
+        double moveEfficiency = Math.max(0.1, 1.0 / moves);
         double timeEfficiency = Math.max(0.1, 1.0 / elapsedTimeSeconds);
 
         return (int) (baseScore * moveEfficiency * timeEfficiency * 10);
     }
 
-    /**
-     * Determines the set of board coordinates that are adjacent to the empty
-     * tile and therefore movable.
-     *
-     * @return list of row/column index pairs eligible to slide into the gap
-     */
-    private List<int[]> getPossibleMoves() {
-        List<int[]> moves = new ArrayList<>();
-
-        if (emptyRow > 0) {
-            moves.add(new int[] { emptyRow - 1, emptyCol });
-        }
-        if (emptyRow < getRows() - 1) {
-            moves.add(new int[] { emptyRow + 1, emptyCol });
-        }
-        if (emptyCol > 0) {
-            moves.add(new int[] { emptyRow, emptyCol - 1 });
-        }
-        if (emptyCol < getCols() - 1) {
-            moves.add(new int[] { emptyRow, emptyCol + 1 });
-        }
-
-        return moves;
-    }
-
     /**
      * {@inheritDoc}
      * <p>
@@ -245,7 +580,8 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
         outputService.println("    WELCOME TO THE SLIDING PUZZLE GAME!  ");
         outputService.println("=========================================");
         outputService.println("Type 'quit' at any prompt to exit the game.");
-        outputService.println("Type 'undo' once per game to revert your most recent move.");
+        outputService.println("Type 'undo' and 'redo' to step back and forth through your moves.");
+        outputService.println("Type 'hint' to see the next move of a solution, or 'solve' to list the moves.");
         outputService.println("\n--- How to Play ---");
         outputService
                 .println("1. Objective: Arrange the numbers in ascending order, from left to right, top to bottom.");
@@ -269,61 +605,262 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
      * {@inheritDoc}
      * <p>
      * Moves the selected {@link SlidingPuzzlePiece} into the empty slot while
-     * tracking the new location of that empty tile for future moves.
+     * tracking the new location of that empty tile, the moved tile's entry in
+     * the value-to-position index, and the progress metrics used for win
+     * detection.
      */
     @Override
     protected void makeMove(int row, int col) {
-        Tile<SlidingPuzzlePiece> sourceTile = gameGrid.getTile(row, col);
-        SlidingPuzzlePiece tilePiece = sourceTile.getOccupant();
-        if (tilePiece == null || tilePiece.isEmpty()) {
+        int direction = directionTo(row, col);
+        if (!slideTile(row, col)) {
             return;
         }
+        moveLog.record(direction);
+        stampMove();
+        moveCount++;
+        currentScore = calculateScore();
+        positionHistory.putIfAbsent(board.getZobristHash(), moveLog.getPosition());
+    }
+
+    /**
+     * Looks up the earliest point of the current move sequence at which the
+     * board stood in its present position, keyed by the board's Zobrist hash.
+     *
+     * @return number of moves applied when the position first appeared, or
+     *         {@code -1} if the position is new
+     */
+    private int firstOccurrenceOfPosition() {
+        Integer first = positionHistory.get(board.getZobristHash());
+        return first != null && first < moveLog.getPosition() ? first : -1;
+    }
+
+    /**
+     * Records the time of the move just before the log cursor, in milliseconds
+     * since the game started, for the replay.
+     */
+    private void stampMove() {
+        int index = moveLog.getPosition() - 1;
+        if (index >= moveTimes.length) {
+            moveTimes = Arrays.copyOf(moveTimes, Math.max(index + 1, moveTimes.length * 2));
+        }
+        moveTimes[index] = (int) Math.min(Integer.MAX_VALUE, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Captures the moves currently applied to the board as a replay of this
+     * game.
+     *
+     * @return replay proving the current move count
+     */
+    SlidingPuzzleReplay createReplay() {
+        int level = getPlayer().getDifficultyLevel();
+        int count = moveLog.getPosition();
+        int[] deltas = new int[count];
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            deltas[i] = Math.max(0, moveTimes[i] - previous);
+            previous += deltas[i];
+        }
+        return new SlidingPuzzleReplay(currentSeed, getRows(), getCols(), level, getShuffleMode(level),
+                getShuffleMoves(), moveCount, count, moveLog.toPackedArray(), deltas);
+    }
 
-        Tile<SlidingPuzzlePiece> emptyTile = gameGrid.getTile(emptyRow, emptyCol);
-        emptyTile.setOccupant(tilePiece);
-        sourceTile.setOccupant(SlidingPuzzlePiece.empty());
+    /**
+     * Slides the tile at the supplied position into the adjacent empty slot
+     * and updates the position index and progress metrics, without touching
+     * the move count or log.
+     *
+     * @return {@code false} when the position does not hold a tile
+     */
+    private boolean slideTile(int row, int col) {
+        int value = board.getValue(row, col);
+        if (value == 0) {
+            return false;
+        }
+
+        int source = row * getCols() + col;
+        int destination = emptyRow * getCols() + emptyCol;
+        board.swap(source, destination);
+        if (source == value - 1) {
+            correctTiles--;
+        } else if (destination == value - 1) {
+            correctTiles++;
+        }
+        manhattanDistance += tileDistance(value, destination) - tileDistance(value, source);
 
+        tilePositions[value] = destination;
+        tilePositions[0] = source;
         emptyRow = row;
         emptyCol = col;
+        return true;
+    }
+
+    /**
+     * Encodes the direction the empty slot travels when the tile at the
+     * supplied adjacent position slides into it.
+     */
+    private int directionTo(int row, int col) {
+        if (row < emptyRow) {
+            return SlidingPuzzleMoveLog.UP;
+        }
+        if (row > emptyRow) {
+            return SlidingPuzzleMoveLog.DOWN;
+        }
+        return col < emptyCol ? SlidingPuzzleMoveLog.LEFT : SlidingPuzzleMoveLog.RIGHT;
+    }
+
+    /**
+     * Moves the empty slot one step in the supplied direction by sliding the
+     * neighbouring tile into it.
+     */
+    private void moveEmptySlot(int direction) {
+        int source = board.getAdjacency().getNeighborInDirection(emptyRow * getCols() + emptyCol, direction);
+        slideTile(source / getCols(), source % getCols());
+    }
 
+    /**
+     * Reverts the most recent applied move. Undos within the difficulty's free
+     * allowance also take back the move count; later undos add a move instead.
+     *
+     * @return {@code true} when the undo counted against the score
+     */
+    private boolean undoMove() {
+        positionHistory.remove(board.getZobristHash(), moveLog.getPosition());
+        moveEmptySlot(SlidingPuzzleMoveLog.opposite(moveLog.undo()));
+        undosUsed++;
+        boolean penalized = undosUsed > getFreeUndoLimit(getPlayer().getDifficultyLevel());
+        moveCount += penalized ? 1 : -1;
+        currentScore = calculateScore();
+        return penalized;
+    }
+
+    /**
+     * Applies the next undone move again, counting it as a move.
+     */
+    private void redoMove() {
+        moveEmptySlot(moveLog.redo());
+        stampMove();
         moveCount++;
         currentScore = calculateScore();
+        positionHistory.putIfAbsent(board.getZobristHash(), moveLog.getPosition());
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Builds the solved board configuration and then performs a series of valid
-     * random moves to produce a solvable shuffled state.
+     * Shuffles a primitive board via {@link SlidingPuzzleShuffler}, using the
+     * random walk or direct permutation strategy configured for the current
+     * difficulty, and writes the resulting solvable permutation back to the grid
+     * in a single pass. The shuffle is driven by a {@link SplittableRandom}
+     * seeded from the board seed, grid size and difficulty, so the same tuple
+     * always reproduces the same board.
      */
     @Override
     protected void initializeGame() {
-        List<SlidingPuzzlePiece> pieces = new ArrayList<>(getGridSize());
-        for (int i = 1; i < getGridSize(); i++) {
-            pieces.add(SlidingPuzzlePiece.ofValue(i));
-        }
-        pieces.add(SlidingPuzzlePiece.empty());
-
-        gameGrid.fillFromList(pieces);
-        emptyRow = getRows() - 1;
-        emptyCol = getCols() - 1;
-
-        int shuffleMoves = getShuffleMoves();
-        Random random = new Random();
-        for (int i = 0; i < shuffleMoves; i++) {
-            List<int[]> possibleMoves = getPossibleMoves();
-            if (!possibleMoves.isEmpty()) {
-                int[] move = possibleMoves.get(random.nextInt(possibleMoves.size()));
-                makeMove(move[0], move[1]);
-            }
+        if (shuffler == null || !shuffler.matches(getRows(), getCols())) {
+            shuffler = new SlidingPuzzleShuffler(getRows(), getCols());
         }
+
+        int level = getPlayer().getDifficultyLevel();
+        if (pendingSeed != null) {
+            currentSeed = pendingSeed;
+            pendingSeed = null;
+        } else if (dailyChallenge) {
+            challengeDate = LocalDate.now();
+            currentSeed = dailySeed(challengeDate);
+        } else {
+            currentSeed = seedSource.nextLong() >>> 1;
+        }
+
+        int[] board = new int[getGridSize()];
+        SlidingPuzzleShuffler.Mode mode = getShuffleMode(level);
+        SplittableRandom random = new SplittableRandom(boardSeed(currentSeed, getRows(), getCols(), level));
+        int emptyIndex = shuffler.shuffle(board, mode, getShuffleMoves(), random);
+        loadBoard(board, emptyIndex);
         isGameOver = false;
 
         currentScore = 0;
         moveCount = 0;
         startTime = System.currentTimeMillis();
-        pendingUndo = null;
-        undoUsed = false;
+        moveLog.clear();
+        undosUsed = 0;
+        positionHistory.clear();
+        positionHistory.put(this.board.getZobristHash(), 0);
+    }
+
+    /**
+     * Copies a primitive row-major board into the grid and records the empty
+     * slot location.
+     *
+     * @param values     tile values where {@code 0} marks the empty slot
+     * @param emptyIndex row-major index of the empty slot
+     */
+    private void loadBoard(int[] values, int emptyIndex) {
+        board.fillFrom(values);
+        emptyRow = emptyIndex / getCols();
+        emptyCol = emptyIndex % getCols();
+        rebuildTilePositions(values);
+    }
+
+    /**
+     * Rebuilds the value-to-position index from a primitive row-major board and
+     * refreshes the derived progress metrics.
+     *
+     * @param board tile values where {@code 0} marks the empty slot
+     */
+    private void rebuildTilePositions(int[] board) {
+        if (tilePositions.length != board.length) {
+            tilePositions = new int[board.length];
+        }
+        for (int index = 0; index < board.length; index++) {
+            tilePositions[board[index]] = index;
+        }
+        recomputeProgressMetrics();
+    }
+
+    /**
+     * Recomputes the correctly placed tile count and Manhattan distance total
+     * from the value-to-position index. Only needed when the whole board is
+     * replaced; individual moves update both metrics incrementally.
+     */
+    private void recomputeProgressMetrics() {
+        correctTiles = 0;
+        manhattanDistance = 0;
+        for (int value = 1; value < tilePositions.length; value++) {
+            int position = tilePositions[value];
+            if (position == value - 1) {
+                correctTiles++;
+            }
+            manhattanDistance += tileDistance(value, position);
+        }
+    }
+
+    /**
+     * Computes the Manhattan distance between a tile's position and its home
+     * cell in the solved configuration.
+     *
+     * @param value    tile value (1-based)
+     * @param position current row-major position of the tile
+     * @return number of row and column steps separating the tile from home
+     */
+    private int tileDistance(int value, int position) {
+        int cols = getCols();
+        int home = value - 1;
+        return Math.abs(position / cols - home / cols) + Math.abs(position % cols - home % cols);
+    }
+
+    /**
+     * @return number of numbered tiles currently sitting on their home cell
+     */
+    public int getCorrectlyPlacedTiles() {
+        return correctTiles;
+    }
+
+    /**
+     * @return sum of every numbered tile's Manhattan distance from its home cell
+     */
+    public int getManhattanDistance() {
+        return manhattanDistance;
     }
 
     /**
@@ -338,7 +875,7 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
         InputService inputService = getInputService();
 
         outputService.print(getPlayer().getName()
-                + ", which tile do you want to slide to the empty space? (type 'undo' or 'quit') ");
+                + ", which tile do you want to slide to the empty space? (type 'hint', 'solve', 'undo', 'redo' or 'quit') ");
         String input = inputService.readLine();
         if (input == null || isQuitCommand(input)) {
             requestExit();
@@ -347,20 +884,33 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
 
         String trimmedInput = input.trim();
         if ("undo".equalsIgnoreCase(trimmedInput) || "u".equalsIgnoreCase(trimmedInput)) {
-            if (undoUsed) {
-                outputService.println("Undo already used for this game.");
-                return;
-            }
-            if (pendingUndo == null) {
+            if (!moveLog.canUndo()) {
                 outputService.println("No moves available to undo yet.");
                 return;
             }
 
-            restorePuzzleSnapshot(pendingUndo);
-            pendingUndo = null;
-            undoUsed = true;
+            boolean penalized = undoMove();
             setGameOver(false);
-            outputService.println("Last move undone. Further undos are not available.");
+            outputService.println(penalized ? "Move undone. Free undos are used up, so this one counts as a move."
+                    : "Move undone.");
+            return;
+        }
+        if ("redo".equalsIgnoreCase(trimmedInput) || "r".equalsIgnoreCase(trimmedInput)) {
+            if (!moveLog.canRedo()) {
+                outputService.println("No undone moves to redo.");
+                return;
+            }
+
+            redoMove();
+            outputService.println("Move redone.");
+            return;
+        }
+        if ("hint".equalsIgnoreCase(trimmedInput) || "h".equalsIgnoreCase(trimmedInput)) {
+            displayHint(outputService);
+            return;
+        }
+        if ("solve".equalsIgnoreCase(trimmedInput)) {
+            displaySolution(outputService);
             return;
         }
         try {
@@ -371,20 +921,17 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
                 return;
             }
 
-            for (int i = 0; i < getRows(); i++) {
-                for (int j = 0; j < getCols(); j++) {
-                    SlidingPuzzlePiece candidate = gameGrid.getPiece(i, j);
-                    if (candidate != null && candidate.hasValue(moveTile)) {
-                        if ((Math.abs(emptyRow - i) == 1 && emptyCol == j) ||
-                                (Math.abs(emptyCol - j) == 1 && emptyRow == i)) {
-                            if (!undoUsed) {
-                                pendingUndo = capturePuzzleSnapshot();
-                            }
-                            makeMove(i, j);
-                            return;
-                        }
-                    }
+            int position = tilePositions[moveTile];
+            if (board.getAdjacency().areAdjacent(position, tilePositions[0])) {
+                makeMove(position / getCols(), position % getCols());
+                int first = firstOccurrenceOfPosition();
+                if (first == 0) {
+                    outputService.println("This is the starting position again.");
+                } else if (first > 0) {
+                    outputService.println("This position already appeared after move " + first + "; the last "
+                            + (moveLog.getPosition() - first) + " moves went in a circle.");
                 }
+                return;
             }
 
             outputService.println("Invalid move. The tile must be adjacent to the empty space.");
@@ -397,29 +944,12 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
      * {@inheritDoc}
      * <p>
      * Validates that tiles appear in ascending order with the empty tile
-     * occupying the lower-right corner of the grid.
+     * occupying the lower-right corner of the grid. The correctly placed tile
+     * count is maintained by every move, so the check is a single comparison.
      */
     @Override
     protected boolean checkWinCondition() {
-        SlidingPuzzlePiece bottomRight = gameGrid.getPiece(getRows() - 1, getCols() - 1);
-        if (bottomRight == null || !bottomRight.isEmpty()) {
-            return false;
-        }
-
-        for (int i = 0; i < getRows(); i++) {
-            for (int j = 0; j < getCols(); j++) {
-                if (i == getRows() - 1 && j == getCols() - 1) {
-                    continue;
-                }
-
-                SlidingPuzzlePiece expected = gameGrid.getPiece(i, j);
-                if (expected == null || !expected.hasValue(i * getCols() + j + 1)) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+        return correctTiles == getGridSize() - 1;
     }
 
     /**
@@ -468,6 +998,7 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
         }
         outputService.println("Difficulty: " + difficultyLabel);
         outputService.println("Grid Size: " + getRows() + "x" + getCols());
+        outputService.println("Board " + describeSeed());
 
         int previousTopScore = currentPlayer.getTopScore(getRows(), getCols());
         boolean newRecord = currentPlayer.updateTopScore(finalScore, getRows(), getCols());
@@ -514,9 +1045,24 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
         }
         outputService.println("");
 
-        SlidingPuzzleLeaderboard.LeaderboardSnapshot leaderboardSnapshot = SlidingPuzzleLeaderboard.recordScore(
-                currentPlayer.getName(), finalScore, getRows(), getCols(), difficultyLabel,
-                currentPlayer.getDifficultyLevel());
+        SlidingPuzzleReplay replay = createReplay();
+        Path replayFile = REPLAY_DIRECTORY.resolve(currentSeed + "-" + getRows() + "x" + getCols() + "-L"
+                + replay.getDifficulty() + "-" + System.currentTimeMillis() + SlidingPuzzleReplay.FILE_EXTENSION);
+        try {
+            replay.save(replayFile);
+            outputService.println("Replay saved to " + replayFile);
+        } catch (IOException e) {
+            outputService.println("Could not save replay: " + e.getMessage());
+        }
+
+        SlidingPuzzleLeaderboard.LeaderboardSnapshot leaderboardSnapshot;
+        try {
+            leaderboardSnapshot = SlidingPuzzleLeaderboard.recordScore(currentPlayer.getName(), finalScore, replay);
+        } catch (IllegalArgumentException e) {
+            outputService.println(e.getMessage() + " Score not added to the global leaderboard.");
+            leaderboardSnapshot = SlidingPuzzleLeaderboard.getSnapshot();
+        }
+        outputService.println("");
 
         outputService.println("=== GLOBAL LEADERBOARD ===");
         List<SlidingPuzzleLeaderboard.LeaderboardEntry> globalTop = leaderboardSnapshot.getTopEntries();
@@ -564,17 +1110,12 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
         for (int i = 0; i < getRows(); i++) {
             sb.append(verticalBorder);
             for (int j = 0; j < getCols(); j++) {
-                Tile<SlidingPuzzlePiece> tile = gameGrid.getTile(i, j);
-                SlidingPuzzlePiece piece = tile.getOccupant();
-                if (piece == null || piece.isEmpty()) {
+                SlidingPuzzlePiece piece = pieces.getPiece(i, j);
+                if (piece.isEmpty()) {
                     sb.append(emptyCell).append(verticalBorder);
                 } else {
                     sb.append(String.format(cellFormat, piece.getDisplayToken())).append(verticalBorder);
                 }
-
-                if (tile.wasRecentlyUpdated()) {
-                    tile.acknowledgeUpdate();
-                }
             }
 
             sb.append("\n" + topLeftCorner);
@@ -592,11 +1133,213 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
             outputService
                     .println("Moves: " + moveCount + " | Time: " + elapsedTime + "s | Current Score: " + currentScore
                             + " | Difficulty: " + currentDifficulty + " | Grid: " + getRows() + "x" + getCols());
+            outputService.println("Tiles in place: " + correctTiles + "/" + (getGridSize() - 1)
+                    + " | Distance to solved: " + manhattanDistance + " | " + describeSeed());
             outputService.println(getPlayer().getName() + "'s Top Score (" + currentDifficulty + ", " + getRows() + "x"
                     + getCols() + "): " + getPlayer().getTopScore(getRows(), getCols()));
+        } else {
+            outputService.println(describeSeed());
+        }
+    }
+
+    /**
+     * @return label identifying the current board, e.g. {@code Seed: 42} or
+     *         {@code Seed: 42 (daily challenge 2024-05-01)}
+     */
+    private String describeSeed() {
+        return "Seed: " + currentSeed + (isDailyBoard() ? " (daily challenge " + challengeDate + ")" : "");
+    }
+
+    /**
+     * @return {@code true} when the current board came from the daily seed,
+     *         not from an explicit seed requested while daily mode was on
+     */
+    private boolean isDailyBoard() {
+        return dailyChallenge && challengeDate != null && currentSeed == dailySeed(challengeDate);
+    }
+
+    /**
+     * Prints the par for today's challenge board, solving it only until some
+     * game on this host finds a par for the same date, shape and difficulty.
+     * The solve runs outside the cache so that it holds no map lock, and a
+     * board neither solver managed is tried again next time.
+     *
+     * @param outputService destination for the par message
+     */
+    private void displayDailyPar(OutputService outputService) {
+        String key = challengeDate + "|" + getRows() + "x" + getCols() + "|" + getPlayer().getDifficultyLevel();
+        Integer cached = DAILY_PAR_CACHE.get(key);
+        int par;
+        if (cached != null) {
+            par = cached;
+        } else {
+            int[] board = currentBoard();
+            SlidingPuzzleSolver.Solution solution = solveOptimally(board);
+            if (solution != null) {
+                par = solution.getLength();
+            } else {
+                solution = solveByReduction(board);
+                par = solution.isSolved() ? -solution.getLength() : 0;
+            }
+            if (par != 0) {
+                Integer previous = DAILY_PAR_CACHE.putIfAbsent(key, par);
+                if (previous != null) {
+                    par = previous;
+                }
+            }
+        }
+        if (par > 0) {
+            outputService.println("Par: " + par + " moves (optimal).");
+        } else if (par < 0) {
+            outputService.println("Par: " + -par + " moves (best known).");
         }
     }
 
+    /**
+     * Reports the next tile to slide together with the remaining solution
+     * length, preferring an optimal solution when one can be found in time.
+     *
+     * @param outputService destination for the hint message
+     */
+    private void displayHint(OutputService outputService) {
+        int[] board = currentBoard();
+        SlidingPuzzleSolver.Solution solution = solveOptimally(board);
+        boolean optimal = solution != null;
+        if (!optimal) {
+            solution = solveByReduction(board);
+        }
+
+        if (!solution.isSolved()) {
+            outputService.println("No hint available: the board is too complex to solve right now.");
+        } else if (solution.getLength() == 0) {
+            outputService.println("The puzzle is already solved!");
+        } else {
+            outputService.println("Hint: slide tile " + solution.getFirstTile() + " ("
+                    + (optimal ? "optimal solution: " : "solution found: ") + solution.getLength()
+                    + " moves remaining).");
+        }
+    }
+
+    /**
+     * Lists the tiles to slide, in order, to solve the current board. Long
+     * solutions are truncated after {@link #SOLUTION_PREVIEW_MOVES} moves.
+     *
+     * @param outputService destination for the solution
+     */
+    private void displaySolution(OutputService outputService) {
+        int[] board = currentBoard();
+        SlidingPuzzleSolver.Solution solution = solveOptimally(board);
+        boolean optimal = solution != null;
+        if (!optimal) {
+            solution = solveByReduction(board);
+        }
+
+        if (!solution.isSolved()) {
+            outputService.println("No solution available: the board is too complex to solve right now.");
+            return;
+        }
+        if (solution.getLength() == 0) {
+            outputService.println("The puzzle is already solved!");
+            return;
+        }
+        int[] tiles = solution.getTiles();
+        StringBuilder sb = new StringBuilder();
+        sb.append(optimal ? "Optimal solution (" : "Solution (").append(tiles.length).append(" moves): ");
+        int shown = Math.min(tiles.length, SOLUTION_PREVIEW_MOVES);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(tiles[i]);
+        }
+        if (shown < tiles.length) {
+            sb.append(" ... (").append(tiles.length - shown).append(" more)");
+        }
+        outputService.println(sb.toString());
+    }
+
+    /**
+     * Attempts an optimal solution within the hint budget. Boards larger than
+     * {@link #MAX_OPTIMAL_CELLS} are only attempted when pattern databases for
+     * their shape have been built; a shape found without them is remembered so
+     * that later hints do not look on disk again.
+     *
+     * @param board primitive snapshot of the current board
+     * @return optimal solution, or {@code null} when none was found in time
+     */
+    private SlidingPuzzleSolver.Solution solveOptimally(int[] board) {
+        long shape = (long) getRows() << 32 | getCols();
+        if (patternsMissingFor == shape) {
+            return null;
+        }
+        SlidingPuzzleSolver.Solution solution;
+        if (parallelHints) {
+            if (parallelSolver == null || !parallelSolver.matches(getRows(), getCols())) {
+                SlidingPuzzlePatternHeuristic patterns = loadPatterns(shape);
+                if (patternsMissingFor == shape) {
+                    return null;
+                }
+                parallelSolver = new SlidingPuzzleParallelSolver(getRows(), getCols(), patterns,
+                        ForkJoinPool.commonPool());
+            }
+            solution = parallelSolver.solve(board, HINT_BUDGET_MILLIS);
+        } else {
+            if (solver == null || !solver.matches(getRows(), getCols())) {
+                SlidingPuzzlePatternHeuristic patterns = loadPatterns(shape);
+                if (patternsMissingFor == shape) {
+                    return null;
+                }
+                solver = new SlidingPuzzleSolver(getRows(), getCols(), patterns);
+            }
+            solution = solver.solve(board, HINT_BUDGET_MILLIS);
+        }
+        return solution.isSolved() ? solution : null;
+    }
+
+    /**
+     * Loads the prebuilt pattern databases for the current shape, which give
+     * far stronger estimates when present. Records the shape in
+     * {@code patternsMissingFor} when it is too large to solve without them.
+     *
+     * @param shape current rows in the high half, columns in the low half
+     * @return pattern heuristic, or {@code null} when none has been built
+     */
+    private SlidingPuzzlePatternHeuristic loadPatterns(long shape) {
+        SlidingPuzzlePatternHeuristic patterns = SlidingPuzzlePatternHeuristic.loadIfPresent(getRows(), getCols());
+        if (patterns == null && getGridSize() > MAX_OPTIMAL_CELLS) {
+            patternsMissingFor = shape;
+        }
+        return patterns;
+    }
+
+    /**
+     * Produces a complete, possibly longer than optimal, solution with the
+     * row-and-column reduction solver.
+     *
+     * @param board primitive snapshot of the current board
+     * @return reduction solver result
+     */
+    private SlidingPuzzleSolver.Solution solveByReduction(int[] board) {
+        if (reductionSolver == null || !reductionSolver.matches(getRows(), getCols())) {
+            reductionSolver = new SlidingPuzzleReductionSolver(getRows(), getCols());
+        }
+        return reductionSolver.solve(board, REDUCTION_BUDGET_MILLIS);
+    }
+
+    /**
+     * Builds a primitive row-major copy of the current board from the
+     * value-to-position index.
+     *
+     * @return tile values where {@code 0} marks the empty slot
+     */
+    private int[] currentBoard() {
+        int[] board = new int[tilePositions.length];
+        for (int value = 0; value < tilePositions.length; value++) {
+            board[tilePositions[value]] = value;
+        }
+        return board;
+    }
+
     public List<SlidingPuzzleLeaderboard.LeaderboardEntry> getTopScoresForCurrentGrid() {
         return SlidingPuzzleLeaderboard.getTopEntriesForGrid(getRows(), getCols(),
                 getPlayer().getDifficultyLevel());
@@ -622,56 +1365,4 @@ public final class SlidingPuzzleGame extends GridGame<SlidingPuzzlePiece> {
             return Integer.MAX_VALUE;
         }
     }
-
-    private PuzzleSnapshot capturePuzzleSnapshot() {
-        int rows = getRows();
-        int cols = getCols();
-        int[][] values = new int[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                SlidingPuzzlePiece piece = gameGrid.getPiece(i, j);
-                values[i][j] = piece == null ? 0 : piece.getValue();
-            }
-        }
-        return new PuzzleSnapshot(values, emptyRow, emptyCol, moveCount, currentScore, isGameOver());
-    }
-
-    private void restorePuzzleSnapshot(PuzzleSnapshot snapshot) {
-        int rows = snapshot.gridValues.length;
-        int cols = snapshot.gridValues[0].length;
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                int value = snapshot.gridValues[i][j];
-                SlidingPuzzlePiece piece = (value == 0)
-                        ? SlidingPuzzlePiece.empty()
-                        : SlidingPuzzlePiece.ofValue(value);
-                gameGrid.setPiece(i, j, piece);
-            }
-        }
-
-        emptyRow = snapshot.emptyRow;
-        emptyCol = snapshot.emptyCol;
-        moveCount = snapshot.moveCount;
-        currentScore = snapshot.currentScore;
-        setGameOver(snapshot.gameOver);
-    }
-
-    private static final class PuzzleSnapshot {
-        private final int[][] gridValues;
-        private final int emptyRow;
-        private final int emptyCol;
-        private final int moveCount;
-        private final int currentScore;
-        private final boolean gameOver;
-
-        private PuzzleSnapshot(int[][] gridValues, int emptyRow, int emptyCol,
-                int moveCount, int currentScore, boolean gameOver) {
-            this.gridValues = gridValues;
-            this.emptyRow = emptyRow;
-            this.emptyCol = emptyCol;
-            this.moveCount = moveCount;
-            this.currentScore = currentScore;
-            this.gameOver = gameOver;
-        }
-    }
 }
@@ -35,8 +35,9 @@ public final class SlidingPuzzleLeaderboard {
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_INSTANT;
 
     /**
-     * Records a completed game score to persistent storage, trimming historical
-     * data and returning an updated leaderboard snapshot focused on the player.
+     * Writes a score that has already been checked to persistent storage,
+     * trimming historical data and returning an updated leaderboard snapshot
+     * focused on the player.
      *
      * @param playerName      name of the player finishing the game
      * @param score           score achieved
@@ -46,7 +47,7 @@ public final class SlidingPuzzleLeaderboard {
      * @param difficultyLevel numeric difficulty level
      * @return snapshot containing ordered leaderboard entries
      */
-    public static LeaderboardSnapshot recordScore(String playerName, int score, int rows, int cols,
+    private static LeaderboardSnapshot recordScore(String playerName, int score, int rows, int cols,
             String difficultyLabel, int difficultyLevel) {
         List<LeaderboardEntry> history = loadEntries();
         history.add(new LeaderboardEntry(playerName, score, rows, cols, difficultyLabel, difficultyLevel,
@@ -56,6 +57,32 @@ public final class SlidingPuzzleLeaderboard {
         return buildSnapshot(history, normalizePlayerKey(playerName));
     }
 
+    /**
+     * Records a completed game score after re-executing its replay. The score
+     * is accepted only when the replay's moves are legal, solve the board the
+     * game generates for its seed and difficulty in the claimed move count,
+     * and justify at least the submitted score. The entry is labelled with the
+     * replay's difficulty.
+     *
+     * @param playerName name of the player finishing the game
+     * @param score      score achieved
+     * @param replay     replay of the finished game
+     * @return snapshot containing ordered leaderboard entries
+     * @throws IllegalArgumentException if the replay does not prove the score
+     */
+    public static LeaderboardSnapshot recordScore(String playerName, int score, SlidingPuzzleReplay replay) {
+        SlidingPuzzleReplayVerifier.Result result = new SlidingPuzzleReplayVerifier().verify(replay);
+        if (!result.isValid()) {
+            throw new IllegalArgumentException("Replay rejected: " + result.getMessage());
+        }
+        if (score > SlidingPuzzleReplayVerifier.maximumScore(replay)) {
+            throw new IllegalArgumentException(
+                    "Replay rejected: score " + score + " exceeds what the replay supports.");
+        }
+        return recordScore(playerName, score, replay.getRows(), replay.getCols(),
+                SlidingPuzzleGame.getDifficultyLabel(replay.getDifficulty()), replay.getDifficulty());
+    }
+
     /**
      * Retrieves a snapshot of the leaderboard without recording a new score.
      *
@@ -0,0 +1,160 @@
+/**
+ * File: SlidingPuzzleMoveLog.java
+ * Description: Compact history of sliding puzzle moves supporting unlimited
+ *              undo and redo. Each move is stored as the two-bit direction the
+ *              empty slot travelled, packed 32 moves to a {@code long}.
+ *
+ * Features:
+ * - Growable primitive storage; no per-move allocation
+ * - O(1) undo and redo by replaying the opposite or same direction
+ * - Recording after an undo discards the redo tail, like a text editor
+ */
+
+import java.util.Arrays;
+
+/**
+ * Packed log of empty-slot directions with an undo/redo cursor. Moves before
+ * the cursor are applied to the board; moves from the cursor up to
+ * {@link #getLength()} have been undone and may be redone.
+ */
+public final class SlidingPuzzleMoveLog {
+    /** Empty slot moved one row up. */
+    public static final int UP = GridAdjacency.UP;
+    /** Empty slot moved one row down. */
+    public static final int DOWN = GridAdjacency.DOWN;
+    /** Empty slot moved one column left. */
+    public static final int LEFT = GridAdjacency.LEFT;
+    /** Empty slot moved one column right. */
+    public static final int RIGHT = GridAdjacency.RIGHT;
+
+    private static final int MOVES_PER_WORD = 32;
+    private static final int INITIAL_WORDS = 4;
+
+    private long[] words = new long[INITIAL_WORDS];
+    private int length;
+    private int cursor;
+
+    /**
+     * Returns the direction that undoes the supplied one. Directions are laid
+     * out so that opposites differ only in the lowest bit.
+     *
+     * @param direction empty-slot direction
+     * @return opposite direction
+     */
+    public static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    /**
+     * Appends a move at the cursor, discarding any moves that were undone.
+     *
+     * @param direction direction the empty slot moved
+     * @throws IllegalArgumentException if the direction is not one of the
+     *                                  constants of this class
+     */
+    public void record(int direction) {
+        if (direction < UP || direction > RIGHT) {
+            throw new IllegalArgumentException("Unknown direction: " + direction);
+        }
+        int word = cursor / MOVES_PER_WORD;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        int shift = (cursor % MOVES_PER_WORD) * 2;
+        words[word] = (words[word] & ~(3L << shift)) | ((long) direction << shift);
+        cursor++;
+        length = cursor;
+    }
+
+    /**
+     * @return {@code true} when at least one applied move can be undone
+     */
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    /**
+     * Steps the cursor back over the most recent applied move.
+     *
+     * @return direction of the move being undone; the caller moves the empty
+     *         slot in the {@link #opposite(int) opposite} direction
+     * @throws IllegalStateException if there is nothing to undo
+     */
+    public int undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("No moves to undo");
+        }
+        return get(--cursor);
+    }
+
+    /**
+     * @return {@code true} when at least one undone move can be redone
+     */
+    public boolean canRedo() {
+        return cursor < length;
+    }
+
+    /**
+     * Steps the cursor forward over the next undone move.
+     *
+     * @return direction of the move to apply again
+     * @throws IllegalStateException if there is nothing to redo
+     */
+    public int redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("No moves to redo");
+        }
+        return get(cursor++);
+    }
+
+    /**
+     * Reads a recorded move.
+     *
+     * @param index zero-based move index, below {@link #getLength()}
+     * @return direction the empty slot moved
+     */
+    public int get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Move index " + index + " outside 0.." + (length - 1));
+        }
+        return (int) (words[index / MOVES_PER_WORD] >>> ((index % MOVES_PER_WORD) * 2)) & 3;
+    }
+
+    /**
+     * @return number of moves currently applied to the board
+     */
+    public int getPosition() {
+        return cursor;
+    }
+
+    /**
+     * @return number of recorded moves, including undone moves that can still
+     *         be redone
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Copies the applied moves (those before the cursor) in packed form, 32 per
+     * word with the lowest bits first. Bits past the cursor are cleared.
+     *
+     * @return packed applied moves
+     */
+    long[] toPackedArray() {
+        long[] packed = Arrays.copyOf(words, (cursor + MOVES_PER_WORD - 1) / MOVES_PER_WORD);
+        int tail = cursor % MOVES_PER_WORD;
+        if (tail != 0) {
+            packed[packed.length - 1] &= (1L << (tail * 2)) - 1;
+        }
+        return packed;
+    }
+
+    /**
+     * Forgets every recorded move while keeping the allocated storage.
+     */
+    public void clear() {
+        length = 0;
+        cursor = 0;
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * File: SlidingPuzzleParallelSolver.java
+ * Description: Parallel IDA* for the sliding puzzle. Each iteration expands the
+ *              search tree breadth-first to a shallow frontier and hands every
+ *              frontier board to a fork/join task running the sequential solver.
+ *
+ * Features:
+ * - Work items split recursively across a caller-supplied {@link ForkJoinPool}
+ * - One shared cost bound per iteration and an atomic minimum for the next one
+ * - Cooperative cancellation of every worker as soon as one finds a solution
+ * - Per-thread solver instances reused across tasks and iterations
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optimal solver that distributes each IDA* iteration over a fork/join pool.
+ * Every solution found under a bound is optimal, so the first worker to succeed
+ * publishes its moves and cancels the rest. The pool is owned by the caller;
+ * instances may be reused but must not solve two boards concurrently.
+ */
+public final class SlidingPuzzleParallelSolver {
+    private static final int MAX_NEIGHBORS = GridAdjacency.MAX_NEIGHBORS;
+    private static final int TASKS_PER_THREAD = 32;
+    private static final int MAX_SPLIT_DEPTH = 24;
+    private static final int FOUND = -1;
+    private static final int NOT_FOUND = Integer.MAX_VALUE;
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final SlidingPuzzlePatternHeuristic patterns;
+    private final ForkJoinPool pool;
+    private final int[] neighbors;
+    private final int[] neighborCounts;
+    private final SlidingPuzzleShuffler parityChecker;
+    private final SlidingPuzzleSolver estimator;
+    private final ConcurrentLinkedQueue<SlidingPuzzleSolver> idleSolvers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a parallel solver for one board shape.
+     *
+     * @param rows     number of board rows
+     * @param cols     number of board columns
+     * @param patterns pattern database heuristic shared by all workers, or
+     *                 {@code null} for Manhattan distance plus linear conflict
+     * @param pool     pool that runs the subtree searches
+     * @throws IllegalArgumentException if the shape is unsupported
+     */
+    public SlidingPuzzleParallelSolver(int rows, int cols, SlidingPuzzlePatternHeuristic patterns,
+            ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("A fork/join pool is required.");
+        }
+        this.estimator = new SlidingPuzzleSolver(rows, cols, patterns);
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        this.patterns = patterns;
+        this.pool = pool;
+        GridAdjacency adjacency = GridAdjacency.of(rows, cols);
+        this.neighbors = adjacency.neighborTable();
+        this.neighborCounts = adjacency.neighborCounts();
+        this.parityChecker = new SlidingPuzzleShuffler(rows, cols);
+    }
+
+    /**
+     * Indicates whether this solver can be reused for the supplied dimensions.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the precomputed tables match the shape
+     */
+    public boolean matches(int rows, int cols) {
+        return this.rows == rows && this.cols == cols;
+    }
+
+    /**
+     * @return parallelism of the pool running the workers
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Solves the supplied board optimally without a time limit.
+     *
+     * @param initialBoard row-major board where {@code 0} marks the empty slot
+     * @return search result containing an optimal move sequence
+     */
+    public SlidingPuzzleSolver.Solution solve(int[] initialBoard) {
+        return solve(initialBoard, 0L);
+    }
+
+    /**
+     * Solves the supplied board optimally using every worker of the pool,
+     * giving up once the time budget has been exhausted.
+     *
+     * @param initialBoard row-major board where {@code 0} marks the empty slot
+     * @param budgetMillis maximum wall-clock time to spend, or {@code 0} for no
+     *                     limit
+     * @return search result; {@link SlidingPuzzleSolver.Solution#isSolved()} is
+     *         {@code false} when the board is unsolvable or the budget ran out
+     */
+    public SlidingPuzzleSolver.Solution solve(int[] initialBoard, long budgetMillis) {
+        if (initialBoard == null || initialBoard.length != size) {
+            throw new IllegalArgumentException("Board must contain exactly " + size + " cells");
+        }
+        long start = System.nanoTime();
+        if (!parityChecker.isSolvable(initialBoard)) {
+            return new SlidingPuzzleSolver.Solution(null, 0L, System.nanoTime() - start, false);
+        }
+        long deadline = budgetMillis > 0 ? start + budgetMillis * 1_000_000L : Long.MAX_VALUE;
+        long totalNodes = 0L;
+
+        int bound = estimator.estimate(initialBoard);
+        while (true) {
+            Iteration iteration = new Iteration(bound, deadline);
+            List<WorkItem> frontier = expandFrontier(initialBoard, iteration);
+            if (iteration.solution.get() == null && !frontier.isEmpty()) {
+                pool.invoke(new SubtreeTask(frontier, 0, frontier.size(), iteration));
+            }
+            totalNodes += iteration.nodes.get();
+
+            int[] tiles = iteration.solution.get();
+            if (tiles != null) {
+                return new SlidingPuzzleSolver.Solution(tiles, totalNodes, System.nanoTime() - start, true);
+            }
+            int next = iteration.nextBound.get();
+            if (iteration.timedOut.get() || next == NOT_FOUND || System.nanoTime() > deadline) {
+                return new SlidingPuzzleSolver.Solution(null, totalNodes, System.nanoTime() - start, false);
+            }
+            bound = next;
+        }
+    }
+
+    /**
+     * Expands the tree level by level under the iteration bound until there
+     * are enough independent subtrees to keep every worker busy. Children whose
+     * f-cost exceeds the bound only contribute to the next bound; a goal found
+     * during expansion is published directly.
+     */
+    private List<WorkItem> expandFrontier(int[] initialBoard, Iteration iteration) {
+        int target = pool.getParallelism() * TASKS_PER_THREAD;
+        List<WorkItem> frontier = new ArrayList<>();
+        frontier.add(new WorkItem(initialBoard.clone(), indexOfEmpty(initialBoard), -1, new int[0]));
+
+        for (int depth = 0; depth < MAX_SPLIT_DEPTH && frontier.size() < target; depth++) {
+            List<WorkItem> next = new ArrayList<>(frontier.size() * 3);
+            for (WorkItem item : frontier) {
+                int heuristic = estimator.estimate(item.board);
+                if (heuristic == 0) {
+                    iteration.publish(item.prefix);
+                    return List.of();
+                }
+                int base = item.blank * MAX_NEIGHBORS;
+                for (int i = 0; i < neighborCounts[item.blank]; i++) {
+                    int cell = neighbors[base + i];
+                    if (cell == item.previous) {
+                        continue;
+                    }
+                    int[] board = item.board.clone();
+                    int tile = board[cell];
+                    board[item.blank] = tile;
+                    board[cell] = 0;
+                    int cost = depth + 1 + estimator.estimate(board);
+                    if (cost > iteration.bound) {
+                        iteration.offerBound(cost);
+                        continue;
+                    }
+                    int[] prefix = Arrays.copyOf(item.prefix, depth + 1);
+                    prefix[depth] = tile;
+                    next.add(new WorkItem(board, cell, item.blank, prefix));
+                }
+            }
+            if (next.isEmpty()) {
+                break;
+            }
+            frontier = next;
+        }
+        return frontier;
+    }
+
+    private SlidingPuzzleSolver acquireSolver() {
+        SlidingPuzzleSolver solver = idleSolvers.poll();
+        return solver != null ? solver : new SlidingPuzzleSolver(rows, cols, patterns);
+    }
+
+    private int indexOfEmpty(int[] board) {
+        for (int i = 0; i < size; i++) {
+            if (board[i] == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Board does not contain an empty slot");
+    }
+
+    /**
+     * State shared by every task of one IDA* iteration.
+     */
+    private static final class Iteration {
+        private final int bound;
+        private final long deadline;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean timedOut = new AtomicBoolean();
+        private final AtomicInteger nextBound = new AtomicInteger(NOT_FOUND);
+        private final AtomicLong nodes = new AtomicLong();
+        private final AtomicReference<int[]> solution = new AtomicReference<>();
+
+        private Iteration(int bound, long deadline) {
+            this.bound = bound;
+            this.deadline = deadline;
+        }
+
+        private void offerBound(int cost) {
+            nextBound.accumulateAndGet(cost, Math::min);
+        }
+
+        private void publish(int[] tiles) {
+            if (solution.compareAndSet(null, tiles)) {
+                cancelled.set(true);
+            }
+        }
+    }
+
+    /**
+     * Frontier board together with the moves that produced it.
+     */
+    private static final class WorkItem {
+        private final int[] board;
+        private final int blank;
+        private final int previous;
+        private final int[] prefix;
+
+        private WorkItem(int[] board, int blank, int previous, int[] prefix) {
+            this.board = board;
+            this.blank = blank;
+            this.previous = previous;
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * Splits a range of frontier items in halves until a single item remains,
+     * then searches that subtree with a pooled sequential solver.
+     */
+    private final class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<WorkItem> items;
+        private final int from;
+        private final int to;
+        private final transient Iteration iteration;
+
+        private SubtreeTask(List<WorkItem> items, int from, int to, Iteration iteration) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.iteration = iteration;
+        }
+
+        @Override
+        protected void compute() {
+            if (iteration.cancelled.get()) {
+                return;
+            }
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SubtreeTask(items, from, middle, iteration),
+                        new SubtreeTask(items, middle, to, iteration));
+                return;
+            }
+
+            WorkItem item = items.get(from);
+            SlidingPuzzleSolver solver = acquireSolver();
+            try {
+                int depth = item.prefix.length;
+                int result = solver.searchSubtree(item.board, item.previous, depth, iteration.bound,
+                        iteration.cancelled, iteration.deadline);
+                iteration.nodes.addAndGet(solver.getNodes());
+                if (result == FOUND) {
+                    int[] tiles = Arrays.copyOf(item.prefix, iteration.bound);
+                    System.arraycopy(solver.copyPath(depth, iteration.bound), 0, tiles, depth,
+                            iteration.bound - depth);
+                    iteration.publish(tiles);
+                } else if (solver.wasAborted()) {
+                    if (!iteration.cancelled.get()) {
+                        iteration.timedOut.set(true);
+                        iteration.cancelled.set(true);
+                    }
+                } else if (result != NOT_FOUND) {
+                    iteration.offerBound(result);
+                }
+            } finally {
+                idleSolvers.offer(solver);
+            }
+        }
+    }
+}
@@ -0,0 +1,443 @@
+/**
+ * File: SlidingPuzzlePatternDatabase.java
+ * Description: Single additive pattern database for the sliding puzzle. Stores,
+ *              for every placement of a subset of tiles, the minimum number of
+ *              moves of those tiles needed to bring them home.
+ *
+ * Features:
+ * - Breadth-first retrograde search from the goal over (placement, empty slot) states
+ * - Only moves of pattern tiles are counted, making disjoint patterns additive
+ * - Compact one-byte-per-placement table indexed by a partial-permutation rank
+ * - Binary file format loaded lazily through a read-only memory mapping
+ *
+ * Usage: java SlidingPuzzlePatternDatabase build ROWSxCOLS [directory]
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Pattern database for one disjoint tile pattern on a fixed board shape. The
+ * table is either built in memory with {@link #build(int, int, int[])} or
+ * mapped lazily from a file written by {@link #write(Path)}. Lookups are
+ * thread-safe once the table is available.
+ */
+public final class SlidingPuzzlePatternDatabase {
+    private static final int MAGIC = 0x53504442; // "SPDB"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_CELLS = 32;
+    private static final byte UNVISITED = (byte) 0xFF;
+
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final int[] tiles;
+    private final int[] radix;
+    private final int entries;
+    private final Path source;
+    private final long dataOffset;
+    private volatile ByteBuffer table;
+
+    private SlidingPuzzlePatternDatabase(int rows, int cols, int[] tiles, ByteBuffer table, Path source,
+            long dataOffset) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        this.tiles = tiles.clone();
+        this.radix = new int[tiles.length];
+        long count = 1;
+        for (int i = tiles.length - 1; i >= 0; i--) {
+            radix[i] = (int) count;
+            count *= cells - i;
+        }
+        this.entries = (int) count;
+        this.table = table;
+        this.source = source;
+        this.dataOffset = dataOffset;
+    }
+
+    /**
+     * Builds the pattern database for the supplied tiles with a breadth-first
+     * retrograde search from the solved state. Moving the empty slot through
+     * non-pattern cells is free; moving a pattern tile costs one. Every state is
+     * labelled in order of increasing cost, and the table keeps the cheapest
+     * cost over all empty-slot positions for each tile placement.
+     *
+     * @param rows  number of board rows
+     * @param cols  number of board columns
+     * @param tiles tile values belonging to the pattern
+     * @return in-memory pattern database
+     * @throws IllegalArgumentException if the board or pattern is unsupported
+     */
+    public static SlidingPuzzlePatternDatabase build(int rows, int cols, int[] tiles) {
+        validatePattern(rows, cols, tiles);
+        SlidingPuzzlePatternDatabase shape = new SlidingPuzzlePatternDatabase(rows, cols, tiles, null, null, 0L);
+        int cells = shape.cells;
+        int k = tiles.length;
+        long stateCount = (long) shape.entries * cells;
+        if (stateCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Pattern is too large to build in memory");
+        }
+
+        int[][] neighbors = buildNeighbors(rows, cols);
+        byte[] costs = new byte[(int) stateCount];
+        Arrays.fill(costs, UNVISITED);
+        int[] stack = new int[cells];
+        int[] positions = new int[k];
+
+        for (int i = 0; i < k; i++) {
+            positions[i] = tiles[i] - 1;
+        }
+        int goalRank = shape.rank(positions);
+        floodFill(costs, goalRank, cells - 1, occupancy(positions), 0, neighbors, stack);
+
+        for (int depth = 0;; depth++) {
+            if (depth >= 0xFE) {
+                throw new IllegalStateException("Pattern database depth exceeds byte range");
+            }
+            boolean expanded = false;
+            for (int placement = 0; placement < shape.entries; placement++) {
+                int base = placement * cells;
+                boolean decoded = false;
+                int occupied = 0;
+                for (int blank = 0; blank < cells; blank++) {
+                    if ((costs[base + blank] & 0xFF) != depth) {
+                        continue;
+                    }
+                    if (!decoded) {
+                        shape.unrank(placement, positions);
+                        occupied = occupancy(positions);
+                        decoded = true;
+                    }
+                    expanded = true;
+                    for (int next : neighbors[blank]) {
+                        if ((occupied & (1 << next)) == 0) {
+                            continue;
+                        }
+                        int slot = slotAt(positions, next);
+                        positions[slot] = blank;
+                        int successor = shape.rank(positions);
+                        positions[slot] = next;
+                        if (costs[successor * cells + next] == UNVISITED) {
+                            int successorOccupied = (occupied & ~(1 << next)) | (1 << blank);
+                            floodFill(costs, successor, next, successorOccupied, depth + 1, neighbors, stack);
+                        }
+                    }
+                }
+            }
+            if (!expanded) {
+                break;
+            }
+        }
+
+        byte[] values = new byte[shape.entries];
+        for (int placement = 0; placement < shape.entries; placement++) {
+            int best = Integer.MAX_VALUE;
+            int base = placement * cells;
+            for (int blank = 0; blank < cells; blank++) {
+                // Depths above 127 are stored as negative bytes; compare them
+                // unsigned so they neither stop the search nor win the minimum.
+                int cost = costs[base + blank] & 0xFF;
+                if (cost != (UNVISITED & 0xFF) && cost < best) {
+                    best = cost;
+                }
+            }
+            values[placement] = (byte) (best == Integer.MAX_VALUE ? 0 : best);
+        }
+        return new SlidingPuzzlePatternDatabase(rows, cols, tiles, ByteBuffer.wrap(values), null, 0L);
+    }
+
+    /**
+     * Opens a pattern database file without reading its table. The table is
+     * memory-mapped read-only on first lookup so several processes share the
+     * same page cache.
+     *
+     * @param file pattern database file written by {@link #write(Path)}
+     * @return lazily mapped pattern database
+     * @throws IOException if the header cannot be read or is invalid
+     */
+    public static SlidingPuzzlePatternDatabase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(5 * Integer.BYTES);
+            readFully(channel, header, 0L);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a sliding puzzle pattern database: " + file);
+            }
+            int rows = header.getInt();
+            int cols = header.getInt();
+            int k = header.getInt();
+            if (k < 1 || k >= MAX_CELLS) {
+                throw new IOException("Corrupt pattern database header: " + file);
+            }
+
+            ByteBuffer tileBuffer = ByteBuffer.allocate(k * Integer.BYTES);
+            readFully(channel, tileBuffer, header.capacity());
+            tileBuffer.flip();
+            int[] tiles = new int[k];
+            for (int i = 0; i < k; i++) {
+                tiles[i] = tileBuffer.getInt();
+            }
+            validatePattern(rows, cols, tiles);
+
+            long dataOffset = header.capacity() + tileBuffer.capacity();
+            SlidingPuzzlePatternDatabase database = new SlidingPuzzlePatternDatabase(rows, cols, tiles, null, file,
+                    dataOffset);
+            if (channel.size() != dataOffset + database.entries) {
+                throw new IOException("Pattern database has unexpected length: " + file);
+            }
+            return database;
+        }
+    }
+
+    /**
+     * Writes the table to disk in the binary format understood by
+     * {@link #open(Path)}: a small header (magic, version, rows, cols, pattern
+     * size, tiles) followed by one byte per tile placement.
+     *
+     * @param file destination file
+     * @throws IOException if writing fails
+     */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ByteBuffer data = table();
+        try (OutputStream stream = Files.newOutputStream(file);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(rows);
+            out.writeInt(cols);
+            out.writeInt(tiles.length);
+            for (int tile : tiles) {
+                out.writeInt(tile);
+            }
+            byte[] chunk = new byte[1 << 16];
+            for (int offset = 0; offset < entries; offset += chunk.length) {
+                int length = Math.min(chunk.length, entries - offset);
+                for (int i = 0; i < length; i++) {
+                    chunk[i] = data.get(offset + i);
+                }
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Looks up the cost for the supplied pattern tile positions.
+     *
+     * @param positions cell index of each pattern tile, in the order returned by
+     *                  {@link #getTiles()}
+     * @return minimum number of pattern-tile moves needed to reach the goal
+     */
+    public int lookup(int[] positions) {
+        return table().get(rank(positions)) & 0xFF;
+    }
+
+    /**
+     * @return number of rows of the board this table was built for
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of columns of the board this table was built for
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return copy of the tile values covered by this pattern
+     */
+    public int[] getTiles() {
+        return tiles.clone();
+    }
+
+    /**
+     * @return number of table entries (one per tile placement)
+     */
+    public int getEntryCount() {
+        return entries;
+    }
+
+    /**
+     * Ranks a placement of distinct cells as a partial permutation. Each digit
+     * is the cell index minus the number of lower cells already used, giving a
+     * dense index in {@code [0, cells! / (cells - k)!)}.
+     *
+     * @param positions cell index of each pattern tile
+     * @return dense placement index
+     */
+    int rank(int[] positions) {
+        int index = 0;
+        int used = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            int cell = positions[i];
+            index += (cell - Integer.bitCount(used & ((1 << cell) - 1))) * radix[i];
+            used |= 1 << cell;
+        }
+        return index;
+    }
+
+    private void unrank(int index, int[] positions) {
+        int used = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            int digit = index / radix[i];
+            index -= digit * radix[i];
+            int cell = 0;
+            for (int free = -1;; cell++) {
+                if ((used & (1 << cell)) == 0 && ++free == digit) {
+                    break;
+                }
+            }
+            positions[i] = cell;
+            used |= 1 << cell;
+        }
+    }
+
+    private ByteBuffer table() {
+        ByteBuffer current = table;
+        if (current == null) {
+            synchronized (this) {
+                current = table;
+                if (current == null) {
+                    current = map();
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private MappedByteBuffer map() {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, entries);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to map pattern database " + source, ex);
+        }
+    }
+
+    private static void floodFill(byte[] costs, int placement, int start, int occupied, int cost,
+            int[][] neighbors, int[] stack) {
+        int cells = neighbors.length;
+        int base = placement * cells;
+        int top = 0;
+        costs[base + start] = (byte) cost;
+        stack[top++] = start;
+        while (top > 0) {
+            int cell = stack[--top];
+            for (int next : neighbors[cell]) {
+                if ((occupied & (1 << next)) == 0 && costs[base + next] == UNVISITED) {
+                    costs[base + next] = (byte) cost;
+                    stack[top++] = next;
+                }
+            }
+        }
+    }
+
+    private static int occupancy(int[] positions) {
+        int occupied = 0;
+        for (int position : positions) {
+            occupied |= 1 << position;
+        }
+        return occupied;
+    }
+
+    private static int slotAt(int[] positions, int cell) {
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == cell) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No pattern tile at cell " + cell);
+    }
+
+    private static int[][] buildNeighbors(int rows, int cols) {
+        int[][] neighbors = new int[rows * cols][];
+        int[] scratch = new int[4];
+        for (int index = 0; index < rows * cols; index++) {
+            int row = index / cols;
+            int col = index % cols;
+            int count = 0;
+            if (row > 0) {
+                scratch[count++] = index - cols;
+            }
+            if (row < rows - 1) {
+                scratch[count++] = index + cols;
+            }
+            if (col > 0) {
+                scratch[count++] = index - 1;
+            }
+            if (col < cols - 1) {
+                scratch[count++] = index + 1;
+            }
+            neighbors[index] = Arrays.copyOf(scratch, count);
+        }
+        return neighbors;
+    }
+
+    private static void validatePattern(int rows, int cols, int[] tiles) {
+        if (rows < 2 || cols < 2 || rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Pattern databases support boards of up to " + MAX_CELLS + " cells");
+        }
+        if (tiles == null || tiles.length == 0 || tiles.length >= rows * cols) {
+            throw new IllegalArgumentException("Pattern must contain between 1 and " + (rows * cols - 1) + " tiles");
+        }
+        int seen = 0;
+        for (int tile : tiles) {
+            if (tile < 1 || tile >= rows * cols || (seen & (1 << tile)) != 0) {
+                throw new IllegalArgumentException("Invalid or duplicate pattern tile: " + tile);
+            }
+            seen |= 1 << tile;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of pattern database file");
+            }
+        }
+    }
+
+    /**
+     * Builds the default partition for a board shape and writes every table to
+     * the chosen directory.
+     *
+     * @param args {@code build ROWSxCOLS [directory]}
+     * @throws IOException if a table cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !"build".equalsIgnoreCase(args[0])) {
+            System.out.println("Usage: java SlidingPuzzlePatternDatabase build ROWSxCOLS [directory]");
+            return;
+        }
+        String[] parts = args[1].trim().split("\\s*x\\s*");
+        int rows = Integer.parseInt(parts[0]);
+        int cols = Integer.parseInt(parts[1]);
+        Path directory = args.length > 2 ? Path.of(args[2]) : SlidingPuzzlePatternHeuristic.DEFAULT_DIRECTORY;
+
+        for (int[] pattern : SlidingPuzzlePatternHeuristic.defaultPartition(rows, cols)) {
+            long start = System.nanoTime();
+            SlidingPuzzlePatternDatabase database = build(rows, cols, pattern);
+            Path file = directory.resolve(SlidingPuzzlePatternHeuristic.fileName(rows, cols, pattern));
+            database.write(file);
+            System.out.println(String.format(java.util.Locale.ROOT, "Built %s (%d entries) in %.1f s",
+                    file, database.getEntryCount(), (System.nanoTime() - start) / 1e9));
+        }
+    }
+}
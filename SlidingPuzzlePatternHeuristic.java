@@ -0,0 +1,316 @@
+/**
+ * File: SlidingPuzzlePatternHeuristic.java
+ * Description: Additive disjoint pattern database heuristic for the sliding
+ *              puzzle solver. Groups one pattern database per tile subset and
+ *              sums their values, optionally taking the maximum with the sum
+ *              obtained from the board reflected about the main diagonal.
+ *
+ * Features:
+ * - Default 6-6-3 partition for 4x4 boards and 5-5-5-5-4 partition for 5x5 boards
+ * - Tables located by shape in a shared directory and memory-mapped lazily
+ * - Per-pattern evaluation so the solver can refresh only the moved tile's pattern
+ * - Diagonal reflection lookups on square boards reusing the same tables
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Heuristic made of disjoint, additive pattern databases covering every tile of
+ * one board shape. Because each table only counts moves of its own tiles, the
+ * sum over all patterns never overestimates the true distance. On square boards
+ * the same tables also bound the transposed board, and the solver may use the
+ * larger of the two sums. Lookups only read the tables, so one instance may be
+ * shared by solvers running on different threads.
+ */
+public final class SlidingPuzzlePatternHeuristic {
+    /** Directory searched for prebuilt pattern database files. */
+    public static final Path DEFAULT_DIRECTORY = Path.of("pattern_databases");
+
+    private static final int[][] PARTITION_4X4 = {
+            { 1, 2, 5, 6, 9, 13 },
+            { 3, 4, 7, 8, 11, 12 },
+            { 10, 14, 15 },
+    };
+
+    private static final int[][] PARTITION_5X5 = {
+            { 1, 2, 3, 6, 7 },
+            { 4, 5, 8, 9, 10 },
+            { 11, 12, 16, 17, 21 },
+            { 13, 14, 15, 18, 19 },
+            { 20, 22, 23, 24 },
+    };
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final SlidingPuzzlePatternDatabase[] databases;
+    private final int[][] patternTiles;
+    private final int[] patternOf;
+    private final int[] reflectedTiles;
+    private final int[] reflectedCells;
+    private final boolean reflectable;
+    private final int maxPatternSize;
+
+    private SlidingPuzzlePatternHeuristic(int rows, int cols, SlidingPuzzlePatternDatabase[] databases) {
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        this.databases = databases.clone();
+        this.patternTiles = new int[databases.length][];
+        this.patternOf = new int[size];
+        Arrays.fill(patternOf, -1);
+
+        for (int p = 0; p < databases.length; p++) {
+            SlidingPuzzlePatternDatabase database = databases[p];
+            if (database.getRows() != rows || database.getCols() != cols) {
+                throw new IllegalArgumentException("Pattern database shape does not match " + rows + "x" + cols);
+            }
+            patternTiles[p] = database.getTiles();
+            for (int tile : patternTiles[p]) {
+                if (patternOf[tile] >= 0) {
+                    throw new IllegalArgumentException("Tile " + tile + " appears in more than one pattern");
+                }
+                patternOf[tile] = p;
+            }
+        }
+        int largest = 0;
+        for (int[] tiles : patternTiles) {
+            largest = Math.max(largest, tiles.length);
+        }
+        this.maxPatternSize = largest;
+        for (int tile = 1; tile < size; tile++) {
+            if (patternOf[tile] < 0) {
+                throw new IllegalArgumentException("Tile " + tile + " is not covered by any pattern");
+            }
+        }
+
+        // Transposing the board maps cell (r, c) to (c, r) and tile t to the tile
+        // whose home is the transposed home of t. The goal is its own transpose,
+        // so the transposed board is exactly as far from solved as the original.
+        this.reflectable = rows == cols;
+        this.reflectedCells = new int[size];
+        this.reflectedTiles = new int[size];
+        if (reflectable) {
+            for (int cell = 0; cell < size; cell++) {
+                reflectedCells[cell] = (cell % cols) * cols + cell / cols;
+            }
+            for (int tile = 1; tile < size; tile++) {
+                reflectedTiles[tile] = reflectedCells[tile - 1] + 1;
+            }
+        }
+    }
+
+    /**
+     * Creates a heuristic from already built or opened pattern databases.
+     *
+     * @param rows      number of board rows
+     * @param cols      number of board columns
+     * @param databases disjoint tables covering every tile exactly once
+     * @return combined heuristic
+     * @throws IllegalArgumentException if the tables overlap or leave tiles out
+     */
+    public static SlidingPuzzlePatternHeuristic of(int rows, int cols, List<SlidingPuzzlePatternDatabase> databases) {
+        return new SlidingPuzzlePatternHeuristic(rows, cols, databases.toArray(new SlidingPuzzlePatternDatabase[0]));
+    }
+
+    /**
+     * Opens the default partition for the supplied shape from
+     * {@link #DEFAULT_DIRECTORY} when every table file is present.
+     *
+     * @param rows number of board rows
+     * @param cols number of board columns
+     * @return heuristic backed by memory-mapped files, or {@code null} when the
+     *         shape has no default partition or its files have not been built
+     */
+    public static SlidingPuzzlePatternHeuristic loadIfPresent(int rows, int cols) {
+        return loadIfPresent(rows, cols, DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Opens the default partition for the supplied shape from a directory.
+     *
+     * @param rows      number of board rows
+     * @param cols      number of board columns
+     * @param directory directory containing the table files
+     * @return heuristic backed by memory-mapped files, or {@code null} when the
+     *         shape has no default partition or any file is missing or invalid
+     */
+    public static SlidingPuzzlePatternHeuristic loadIfPresent(int rows, int cols, Path directory) {
+        int[][] partition = defaultPartition(rows, cols);
+        if (partition.length == 0) {
+            return null;
+        }
+        SlidingPuzzlePatternDatabase[] databases = new SlidingPuzzlePatternDatabase[partition.length];
+        try {
+            for (int p = 0; p < partition.length; p++) {
+                Path file = directory.resolve(fileName(rows, cols, partition[p]));
+                if (!Files.isRegularFile(file)) {
+                    return null;
+                }
+                databases[p] = SlidingPuzzlePatternDatabase.open(file);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            return null;
+        }
+        return new SlidingPuzzlePatternHeuristic(rows, cols, databases);
+    }
+
+    /**
+     * Returns the built-in partition for a board shape.
+     *
+     * @param rows number of board rows
+     * @param cols number of board columns
+     * @return tile groups of the default partition, or an empty array when the
+     *         shape has none
+     */
+    public static int[][] defaultPartition(int rows, int cols) {
+        if (rows == 4 && cols == 4) {
+            return deepCopy(PARTITION_4X4);
+        }
+        if (rows == 5 && cols == 5) {
+            return deepCopy(PARTITION_5X5);
+        }
+        return new int[0][];
+    }
+
+    /**
+     * Builds the file name used for one pattern of a board shape, for example
+     * {@code pdb-4x4-1-2-5-6-9-13.bin}.
+     *
+     * @param rows  number of board rows
+     * @param cols  number of board columns
+     * @param tiles pattern tiles
+     * @return file name relative to the pattern database directory
+     */
+    public static String fileName(int rows, int cols, int[] tiles) {
+        StringJoiner joiner = new StringJoiner("-", "pdb-" + rows + "x" + cols + "-", ".bin");
+        for (int tile : tiles) {
+            joiner.add(Integer.toString(tile));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Indicates whether this heuristic applies to the supplied shape.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the tables were built for that shape
+     */
+    public boolean matches(int rows, int cols) {
+        return this.rows == rows && this.cols == cols;
+    }
+
+    /**
+     * @return {@code true} when reflected lookups are available
+     */
+    public boolean isReflectable() {
+        return reflectable;
+    }
+
+    /**
+     * @return number of tiles in the largest pattern, i.e. the scratch length
+     *         required by the evaluation methods
+     */
+    int getMaxPatternSize() {
+        return maxPatternSize;
+    }
+
+    /**
+     * @return number of patterns in the partition
+     */
+    int getPatternCount() {
+        return databases.length;
+    }
+
+    /**
+     * @param tile tile value
+     * @return index of the pattern containing the tile
+     */
+    int patternOf(int tile) {
+        return patternOf[tile];
+    }
+
+    /**
+     * @param tile tile value
+     * @return index of the pattern whose reflected value depends on the tile
+     */
+    int reflectedPatternOf(int tile) {
+        return patternOf[reflectedTiles[tile]];
+    }
+
+    /**
+     * Looks up one pattern for the supplied tile positions.
+     *
+     * @param pattern   pattern index
+     * @param positions cell index of every tile, indexed by tile value
+     * @param cells     caller-owned scratch of at least
+     *                  {@link #getMaxPatternSize()} entries
+     * @return pattern database value
+     */
+    int evaluate(int pattern, int[] positions, int[] cells) {
+        int[] tiles = patternTiles[pattern];
+        for (int i = 0; i < tiles.length; i++) {
+            cells[i] = positions[tiles[i]];
+        }
+        return databases[pattern].lookup(cells);
+    }
+
+    /**
+     * Looks up one pattern against the transposed board: pattern tile
+     * {@code t} is represented by the tile whose home reflects onto the home of
+     * {@code t}, read at the reflected position.
+     *
+     * @param pattern   pattern index
+     * @param positions cell index of every tile, indexed by tile value
+     * @param cells     caller-owned scratch of at least
+     *                  {@link #getMaxPatternSize()} entries
+     * @return pattern database value for the reflected board
+     */
+    int evaluateReflected(int pattern, int[] positions, int[] cells) {
+        int[] tiles = patternTiles[pattern];
+        for (int i = 0; i < tiles.length; i++) {
+            cells[i] = reflectedCells[positions[reflectedTiles[tiles[i]]]];
+        }
+        return databases[pattern].lookup(cells);
+    }
+
+    /**
+     * Evaluates the full heuristic for a board.
+     *
+     * @param board row-major board where {@code 0} marks the empty slot
+     * @return admissible estimate of the remaining moves
+     */
+    public int estimate(int[] board) {
+        if (board == null || board.length != size) {
+            throw new IllegalArgumentException("Board must contain exactly " + size + " cells");
+        }
+        int[] positions = new int[size];
+        int[] cells = new int[maxPatternSize];
+        for (int cell = 0; cell < size; cell++) {
+            positions[board[cell]] = cell;
+        }
+        int total = 0;
+        int reflected = 0;
+        for (int p = 0; p < databases.length; p++) {
+            total += evaluate(p, positions, cells);
+            if (reflectable) {
+                reflected += evaluateReflected(p, positions, cells);
+            }
+        }
+        return Math.max(total, reflected);
+    }
+
+    private static int[][] deepCopy(int[][] partition) {
+        int[][] copy = new int[partition.length][];
+        for (int i = 0; i < partition.length; i++) {
+            copy[i] = partition[i].clone();
+        }
+        return copy;
+    }
+}
@@ -14,7 +14,33 @@
  */
 public final class SlidingPuzzlePiece implements GamePiece {
     private static final int EMPTY_VALUE = 0;
-    private static final SlidingPuzzlePiece EMPTY_PIECE = new SlidingPuzzlePiece(EMPTY_VALUE);
+    /** Shared pieces for every value a 20x20 board can hold. */
+    private static final int CACHED_VALUES = 20 * 20;
+    private static final SlidingPuzzlePiece[] CACHE = new SlidingPuzzlePiece[CACHED_VALUES];
+    private static final SlidingPuzzlePiece EMPTY_PIECE;
+
+    static {
+        for (int value = 0; value < CACHED_VALUES; value++) {
+            CACHE[value] = new SlidingPuzzlePiece(value);
+        }
+        EMPTY_PIECE = CACHE[EMPTY_VALUE];
+    }
+
+    /**
+     * Codec storing a piece as its tile value, for off-heap and memory-mapped
+     * grids. Decoding returns the shared instances where they exist.
+     */
+    public static final PieceCodec<SlidingPuzzlePiece> CODEC = new PieceCodec<>() {
+        @Override
+        public int encode(SlidingPuzzlePiece piece) {
+            return piece.value;
+        }
+
+        @Override
+        public SlidingPuzzlePiece decode(int code) {
+            return ofValue(code);
+        }
+    };
 
     private final int value;
 
@@ -23,15 +49,17 @@ public final class SlidingPuzzlePiece implements GamePiece {
     }
 
     /**
-     * Factory method for creating a numbered puzzle piece. The value {@code 0}
+     * Factory method for obtaining a numbered puzzle piece. The value {@code 0}
      * is reserved for the empty slot and will return the shared empty instance.
+     * Pieces are immutable, so values found on boards up to 20x20 return a
+     * shared instance instead of allocating.
      *
      * @param value numeric identifier of the piece
      * @return puzzle piece representing the provided value
      */
     public static SlidingPuzzlePiece ofValue(int value) {
-        if (value == EMPTY_VALUE) {
-            return EMPTY_PIECE;
+        if (value >= 0 && value < CACHED_VALUES) {
+            return CACHE[value];
         }
         return new SlidingPuzzlePiece(value);
     }
@@ -74,6 +102,17 @@ public final class SlidingPuzzlePiece implements GamePiece {
         return value == EMPTY_VALUE;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the tile value, so a grid of pieces hashes like an {@link IntGrid}
+     * holding the same values.
+     */
+    @Override
+    public long getStateKey() {
+        return value;
+    }
+
     @Override
     public String toString() {
         return isEmpty() ? "SlidingPuzzlePiece{empty}" : "SlidingPuzzlePiece{" + value + "}";
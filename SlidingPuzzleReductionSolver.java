@@ -0,0 +1,549 @@
+/**
+ * File: SlidingPuzzleReductionSolver.java
+ * Description: Fast suboptimal sliding puzzle solver for boards of any size.
+ *              Reduces the board one row or column at a time until only a 2x2
+ *              block remains, the way people solve large puzzles by hand.
+ *
+ * Features:
+ * - Solves the longer side first so the remaining region stays close to square
+ * - Tiles routed by breadth-first search around already placed (locked) cells
+ * - Last two tiles of every line finished by an exhaustive search in a small window
+ * - Reusable scratch buffers and a wall-clock budget for interactive callers
+ */
+
+import java.util.Arrays;
+
+/**
+ * Produces complete, though not optimal, solutions for sliding puzzle boards
+ * up to the largest size supported by the game. Every tile is moved with short
+ * breadth-first searches over the unlocked part of the board, so the running
+ * time grows roughly with the cube of the side length. Instances are tied to a
+ * single board shape, hold reusable scratch buffers, and are therefore not
+ * thread-safe.
+ */
+public final class SlidingPuzzleReductionSolver {
+    private static final int MAX_NEIGHBORS = GridAdjacency.MAX_NEIGHBORS;
+    private static final int MAX_WINDOW_TILES = 3;
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final int[] neighbors;
+    private final int[] neighborCounts;
+    private final SlidingPuzzleShuffler parityChecker;
+    private final boolean[] locked;
+    private final int[] where;
+    private final int[] queue;
+    private final int[] parent;
+    private final int[] visited;
+    private final int[] windowIndex;
+    private int[] pairParent;
+    private int[] pairVisited;
+    private int generation;
+
+    private int[] board;
+    private int blank;
+    private int[] moves;
+    private int moveCount;
+    private long nodes;
+    private long deadline;
+
+    /**
+     * Creates a reduction solver for boards of the supplied dimensions.
+     *
+     * @param rows number of board rows
+     * @param cols number of board columns
+     * @throws IllegalArgumentException if either dimension is less than 2
+     */
+    public SlidingPuzzleReductionSolver(int rows, int cols) {
+        if (rows < 2 || cols < 2) {
+            throw new IllegalArgumentException("Solver requires at least a 2x2 board.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        GridAdjacency adjacency = GridAdjacency.of(rows, cols);
+        this.neighbors = adjacency.neighborTable();
+        this.neighborCounts = adjacency.neighborCounts();
+        this.parityChecker = new SlidingPuzzleShuffler(rows, cols);
+        this.locked = new boolean[size];
+        this.where = new int[size];
+        this.queue = new int[size];
+        this.parent = new int[size];
+        this.visited = new int[size];
+        this.windowIndex = new int[size];
+        this.moves = new int[Math.max(64, size * 4)];
+    }
+
+    /**
+     * Indicates whether this solver can be reused for the supplied dimensions.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the precomputed tables match the shape
+     */
+    public boolean matches(int rows, int cols) {
+        return this.rows == rows && this.cols == cols;
+    }
+
+    /**
+     * Solves the supplied board without a time limit.
+     *
+     * @param initialBoard row-major board where {@code 0} marks the empty slot
+     * @return search result containing a complete move sequence
+     */
+    public SlidingPuzzleSolver.Solution solve(int[] initialBoard) {
+        return solve(initialBoard, 0L);
+    }
+
+    /**
+     * Solves the supplied board, giving up once the time budget has been
+     * exhausted. The returned node count is the number of breadth-first search
+     * states expanded.
+     *
+     * @param initialBoard row-major board where {@code 0} marks the empty slot
+     * @param budgetMillis maximum wall-clock time to spend, or {@code 0} for no
+     *                     limit
+     * @return search result; {@link SlidingPuzzleSolver.Solution#isSolved()} is
+     *         {@code false} when the board is unsolvable or the budget ran out
+     */
+    public SlidingPuzzleSolver.Solution solve(int[] initialBoard, long budgetMillis) {
+        if (initialBoard == null || initialBoard.length != size) {
+            throw new IllegalArgumentException("Board must contain exactly " + size + " cells");
+        }
+        long start = System.nanoTime();
+        if (!parityChecker.isSolvable(initialBoard)) {
+            return new SlidingPuzzleSolver.Solution(null, 0L, System.nanoTime() - start, false);
+        }
+
+        board = initialBoard.clone();
+        for (int cell = 0; cell < size; cell++) {
+            where[board[cell]] = cell;
+        }
+        blank = where[0];
+        Arrays.fill(locked, false);
+        moveCount = 0;
+        nodes = 0L;
+        deadline = budgetMillis > 0 ? start + budgetMillis * 1_000_000L : Long.MAX_VALUE;
+
+        boolean solved = reduce();
+        int[] tiles = solved ? Arrays.copyOf(moves, moveCount) : null;
+        return new SlidingPuzzleSolver.Solution(tiles, nodes, System.nanoTime() - start, solved);
+    }
+
+    /**
+     * Solves the top row or left column of the unsolved region, whichever is
+     * longer, until only the bottom-right 2x2 block remains.
+     */
+    private boolean reduce() {
+        int top = 0;
+        int left = 0;
+        while (rows - top > 2 || cols - left > 2) {
+            int height = rows - top;
+            int width = cols - left;
+            if (height > 2 && (height >= width || width <= 2)) {
+                if (!solveRow(top, left)) {
+                    return false;
+                }
+                top++;
+            } else {
+                if (!solveColumn(top, left)) {
+                    return false;
+                }
+                left++;
+            }
+        }
+
+        int[] window = { cell(top, left), cell(top, left + 1), cell(top + 1, left), cell(top + 1, left + 1) };
+        int[] tiles = { window[0] + 1, window[1] + 1, window[2] + 1 };
+        int[] targets = { window[0], window[1], window[2] };
+        return solveWindow(window, tiles, targets);
+    }
+
+    /**
+     * Places every tile of row {@code top} from column {@code left} onwards.
+     * The last two tiles are finished together inside the 3x2 window at the
+     * row's end.
+     */
+    private boolean solveRow(int top, int left) {
+        for (int col = left; col < cols - 2; col++) {
+            if (!placeAndLock(cell(top, col))) {
+                return false;
+            }
+        }
+        int first = cell(top, cols - 2);
+        int second = cell(top, cols - 1);
+        int[] window = { first, second, cell(top + 1, cols - 2), cell(top + 1, cols - 1),
+                cell(top + 2, cols - 2), cell(top + 2, cols - 1) };
+        return finishLine(first, second, second, cell(top + 1, cols - 1), window);
+    }
+
+    /**
+     * Places every tile of column {@code left} from row {@code top} downwards,
+     * finishing the last two tiles inside the 2x3 window at the column's end.
+     */
+    private boolean solveColumn(int top, int left) {
+        for (int row = top; row < rows - 2; row++) {
+            if (!placeAndLock(cell(row, left))) {
+                return false;
+            }
+        }
+        int first = cell(rows - 2, left);
+        int second = cell(rows - 1, left);
+        int[] window = { first, cell(rows - 2, left + 1), cell(rows - 2, left + 2),
+                second, cell(rows - 1, left + 1), cell(rows - 1, left + 2) };
+        return finishLine(first, second, second, cell(rows - 1, left + 1), window);
+    }
+
+    /**
+     * Finishes a line whose last two cells are {@code first} and
+     * {@code second}. The first tile is parked at the end of the line and the
+     * second is brought into the window if it is not already there, after
+     * which a search over the positions of both tiles and the empty slot
+     * inside the window sets them in place together. Leaving the rest to the
+     * window search avoids the classic trap where the second tile is stuck
+     * beside the parked one.
+     */
+    private boolean finishLine(int first, int second, int parkFirst, int parkSecond, int[] window) {
+        int firstTile = first + 1;
+        int secondTile = second + 1;
+        if (where[firstTile] != first || where[secondTile] != second) {
+            if (!routeTile(firstTile, parkFirst)) {
+                return false;
+            }
+            if (!contains(window, where[secondTile])) {
+                locked[parkFirst] = true;
+                boolean routed = routeTile(secondTile, parkSecond);
+                locked[parkFirst] = false;
+                if (!routed) {
+                    return false;
+                }
+            }
+            if (!solveWindow(window, new int[] { firstTile, secondTile }, new int[] { first, second })) {
+                return false;
+            }
+        }
+        locked[first] = true;
+        locked[second] = true;
+        return true;
+    }
+
+    private boolean placeAndLock(int target) {
+        if (!routeTile(target + 1, target)) {
+            return false;
+        }
+        locked[target] = true;
+        return true;
+    }
+
+    /**
+     * Moves one tile to {@code target} through unlocked cells. The tile follows
+     * a shortest route; before each step the empty slot is brought in front of
+     * it without disturbing the tile. If the tile itself cuts the empty slot off
+     * from the next cell, the remaining moves are found by a joint search over
+     * tile and empty-slot positions.
+     */
+    private boolean routeTile(int tile, int target) {
+        if (where[tile] == target) {
+            return true;
+        }
+        if (System.nanoTime() > deadline) {
+            return false;
+        }
+        int length = shortestPath(where[tile], target);
+        if (length < 0) {
+            return false;
+        }
+        int[] route = Arrays.copyOf(queue, length);
+        for (int step = 0; step < length; step++) {
+            int current = where[tile];
+            locked[current] = true;
+            boolean reached = moveBlank(route[step]);
+            locked[current] = false;
+            if (!reached) {
+                return routeTileJointly(tile, target);
+            }
+            slide(current);
+        }
+        return true;
+    }
+
+    /**
+     * Breadth-first search from {@code from} to {@code to} through unlocked
+     * cells. On success the path (excluding {@code from}) is left at the start
+     * of {@link #queue}.
+     *
+     * @return path length, or {@code -1} when {@code to} is unreachable
+     */
+    private int shortestPath(int from, int to) {
+        int mark = ++generation;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        visited[from] = mark;
+        parent[from] = -1;
+        while (head < tail) {
+            int current = queue[head++];
+            nodes++;
+            if (current == to) {
+                int length = 0;
+                for (int cell = to; cell != from; cell = parent[cell]) {
+                    length++;
+                }
+                int index = length;
+                for (int cell = to; cell != from; cell = parent[cell]) {
+                    queue[--index] = cell;
+                }
+                return length;
+            }
+            int base = current * MAX_NEIGHBORS;
+            for (int i = 0; i < neighborCounts[current]; i++) {
+                int next = neighbors[base + i];
+                if (!locked[next] && visited[next] != mark) {
+                    visited[next] = mark;
+                    parent[next] = current;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Walks the empty slot to {@code target} along a shortest unlocked path.
+     */
+    private boolean moveBlank(int target) {
+        if (blank == target) {
+            return true;
+        }
+        if (locked[target]) {
+            return false;
+        }
+        int length = shortestPath(blank, target);
+        if (length < 0) {
+            return false;
+        }
+        int[] route = Arrays.copyOf(queue, length);
+        for (int cell : route) {
+            slide(cell);
+        }
+        return true;
+    }
+
+    /**
+     * Breadth-first search over (tile position, empty-slot position) pairs.
+     * Always finds a way to bring the tile home when one exists, at the cost of
+     * a quadratic state space, so it is only used when the cheaper routing gets
+     * stuck.
+     */
+    private boolean routeTileJointly(int tile, int target) {
+        int states = size * size;
+        if (pairVisited == null) {
+            pairVisited = new int[states];
+            pairParent = new int[states];
+        }
+        int mark = ++generation;
+        int[] open = new int[states];
+        int head = 0;
+        int tail = 0;
+        int startState = where[tile] * size + blank;
+        open[tail++] = startState;
+        pairVisited[startState] = mark;
+        pairParent[startState] = -1;
+        int goal = -1;
+        while (head < tail && goal < 0) {
+            int state = open[head++];
+            nodes++;
+            int tileCell = state / size;
+            int blankCell = state % size;
+            int base = blankCell * MAX_NEIGHBORS;
+            for (int i = 0; i < neighborCounts[blankCell]; i++) {
+                int next = neighbors[base + i];
+                if (locked[next]) {
+                    continue;
+                }
+                int nextTile = next == tileCell ? blankCell : tileCell;
+                int successor = nextTile * size + next;
+                if (pairVisited[successor] != mark) {
+                    pairVisited[successor] = mark;
+                    pairParent[successor] = state;
+                    open[tail++] = successor;
+                    if (nextTile == target) {
+                        goal = successor;
+                        break;
+                    }
+                }
+            }
+        }
+        if (goal < 0) {
+            return false;
+        }
+        int length = 0;
+        for (int state = goal; pairParent[state] >= 0; state = pairParent[state]) {
+            open[length++] = state % size;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            slide(open[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Exhaustive breadth-first search confined to a small window of unlocked
+     * cells. The state is the window position of every tracked tile plus the
+     * empty slot; other tiles inside the window are interchangeable. The empty
+     * slot is first brought into the window without disturbing tracked tiles.
+     *
+     * @param window  window cells
+     * @param tiles   tracked tile values (at most three)
+     * @param targets cell each tracked tile must end on
+     */
+    private boolean solveWindow(int[] window, int[] tiles, int[] targets) {
+        int width = window.length;
+        int tracked = tiles.length;
+        if (tracked > MAX_WINDOW_TILES) {
+            throw new IllegalArgumentException("At most " + MAX_WINDOW_TILES + " tiles can be tracked");
+        }
+        Arrays.fill(windowIndex, -1);
+        for (int i = 0; i < width; i++) {
+            windowIndex[window[i]] = i;
+        }
+        if (windowIndex[blank] < 0) {
+            for (int tile : tiles) {
+                locked[where[tile]] = true;
+            }
+            int length = -1;
+            for (int i = 0; i < width && length < 0; i++) {
+                if (!locked[window[i]]) {
+                    length = shortestPath(blank, window[i]);
+                }
+            }
+            for (int tile : tiles) {
+                locked[where[tile]] = false;
+            }
+            if (length < 0) {
+                return false;
+            }
+            int[] route = Arrays.copyOf(queue, length);
+            for (int cell : route) {
+                slide(cell);
+            }
+        }
+
+        int states = 1;
+        for (int i = 0; i <= tracked; i++) {
+            states *= width;
+        }
+        int[] goalIndex = new int[tracked];
+        int[] startIndex = new int[tracked];
+        for (int t = 0; t < tracked; t++) {
+            goalIndex[t] = windowIndex[targets[t]];
+            startIndex[t] = windowIndex[where[tiles[t]]];
+            if (goalIndex[t] < 0 || startIndex[t] < 0) {
+                return false;
+            }
+        }
+
+        int[] distance = new int[states];
+        int[] previous = new int[states];
+        int[] open = new int[states];
+        Arrays.fill(distance, -1);
+        int startState = encode(windowIndex[blank], startIndex, width);
+        int head = 0;
+        int tail = 0;
+        open[tail++] = startState;
+        distance[startState] = 0;
+        previous[startState] = -1;
+        int[] positions = new int[tracked];
+        int goal = -1;
+        while (head < tail) {
+            int state = open[head++];
+            nodes++;
+            int blankIndex = decode(state, positions, width);
+            if (Arrays.equals(positions, goalIndex)) {
+                goal = state;
+                break;
+            }
+            int blankCell = window[blankIndex];
+            int base = blankCell * MAX_NEIGHBORS;
+            for (int i = 0; i < neighborCounts[blankCell]; i++) {
+                int nextIndex = windowIndex[neighbors[base + i]];
+                if (nextIndex < 0) {
+                    continue;
+                }
+                int[] moved = positions.clone();
+                for (int t = 0; t < tracked; t++) {
+                    if (moved[t] == nextIndex) {
+                        moved[t] = blankIndex;
+                    }
+                }
+                int successor = encode(nextIndex, moved, width);
+                if (distance[successor] < 0) {
+                    distance[successor] = distance[state] + 1;
+                    previous[successor] = state;
+                    open[tail++] = successor;
+                }
+            }
+        }
+        if (goal < 0) {
+            return false;
+        }
+        int length = distance[goal];
+        int[] route = new int[length];
+        for (int state = goal, i = length - 1; i >= 0; state = previous[state], i--) {
+            route[i] = window[state % width];
+        }
+        for (int cell : route) {
+            slide(cell);
+        }
+        return true;
+    }
+
+    private static int encode(int blankIndex, int[] positions, int width) {
+        int state = 0;
+        for (int t = positions.length - 1; t >= 0; t--) {
+            state = state * width + positions[t];
+        }
+        return state * width + blankIndex;
+    }
+
+    private static int decode(int state, int[] positions, int width) {
+        int blankIndex = state % width;
+        state /= width;
+        for (int t = 0; t < positions.length; t++) {
+            positions[t] = state % width;
+            state /= width;
+        }
+        return blankIndex;
+    }
+
+    /**
+     * Slides the tile at {@code cell}, which must be adjacent to the empty
+     * slot, and records it in the move list.
+     */
+    private void slide(int cell) {
+        int tile = board[cell];
+        board[blank] = tile;
+        board[cell] = 0;
+        where[tile] = blank;
+        where[0] = cell;
+        blank = cell;
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[moveCount++] = tile;
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int candidate : cells) {
+            if (candidate == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int cell(int row, int col) {
+        return row * cols + col;
+    }
+}
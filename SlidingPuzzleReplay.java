@@ -0,0 +1,368 @@
+/**
+ * File: SlidingPuzzleReplay.java
+ * Description: Compact, self-contained record of a finished sliding puzzle game
+ *              that can be stored, shared and re-executed to prove a score.
+ *
+ * Features:
+ * - Board identified by seed, dimensions, difficulty and shuffle settings
+ * - Moves stored as two-bit empty-slot directions, four per byte on disk
+ * - Per-move time deltas stored as variable-length integers
+ * - Versioned binary format with a magic header
+ * - Header values bounded by the game's limits before anything is allocated
+ *
+ * Format (big-endian): magic "SPRP", version byte, seed (long), rows and cols
+ * (short), difficulty and shuffle mode (byte), shuffle length (long), claimed
+ * move count (int), recorded move count (int), packed moves, then one unsigned
+ * LEB128 millisecond delta per move.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Immutable replay of one sliding puzzle game. The recorded moves are the path
+ * that was on the board when the puzzle was solved, i.e. moves cancelled by an
+ * undo are not included. The claimed move count is the count used for scoring,
+ * which may be higher than the path because of penalized undos.
+ */
+public final class SlidingPuzzleReplay {
+    /** File extension used for stored replays. */
+    public static final String FILE_EXTENSION = ".sprp";
+
+    private static final int MAGIC = 0x53505250; // "SPRP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MOVES_PER_WORD = 32;
+    private static final int HEADER_BYTES = 35;
+    private static final int INITIAL_MOVES = 1024;
+
+    private final long seed;
+    private final int rows;
+    private final int cols;
+    private final int difficulty;
+    private final SlidingPuzzleShuffler.Mode mode;
+    private final long shuffleMoves;
+    private final int claimedMoves;
+    private final int moveCount;
+    private final long[] moves;
+    private final int[] deltas;
+
+    /**
+     * Creates a replay.
+     *
+     * @param seed         board seed
+     * @param rows         number of board rows
+     * @param cols         number of board columns
+     * @param difficulty   difficulty level the board was generated for
+     * @param mode         shuffle strategy used to generate the board
+     * @param shuffleMoves random-walk length used to generate the board
+     * @param claimedMoves move count the score was computed from
+     * @param moveCount    number of recorded moves
+     * @param moves        moves packed 32 per word, two bits each, lowest bits
+     *                     first, using the {@link SlidingPuzzleMoveLog} codes
+     * @param deltas       milliseconds elapsed before each move (from the start
+     *                     of the game for the first move)
+     * @throws IllegalArgumentException if the arguments are inconsistent
+     */
+    public SlidingPuzzleReplay(long seed, int rows, int cols, int difficulty, SlidingPuzzleShuffler.Mode mode,
+            long shuffleMoves, int claimedMoves, int moveCount, long[] moves, int[] deltas) {
+        if (rows < 2 || cols < 2 || rows > Short.MAX_VALUE || cols > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid replay dimensions: " + rows + "x" + cols);
+        }
+        if (difficulty < 0 || difficulty > Byte.MAX_VALUE || mode == null || shuffleMoves < 0) {
+            throw new IllegalArgumentException("Invalid replay board settings");
+        }
+        if (moveCount < 0 || claimedMoves < 0 || moves.length < wordsFor(moveCount)
+                || deltas.length != moveCount) {
+            throw new IllegalArgumentException("Replay move data does not match the move count");
+        }
+        this.seed = seed;
+        this.rows = rows;
+        this.cols = cols;
+        this.difficulty = difficulty;
+        this.mode = mode;
+        this.shuffleMoves = shuffleMoves;
+        this.claimedMoves = claimedMoves;
+        this.moveCount = moveCount;
+        this.moves = Arrays.copyOf(moves, wordsFor(moveCount));
+        this.deltas = deltas.clone();
+        int tail = moveCount % MOVES_PER_WORD;
+        if (tail != 0) {
+            this.moves[this.moves.length - 1] &= (1L << (tail * 2)) - 1;
+        }
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param file replay file
+     * @return parsed replay
+     * @throws IOException if the file cannot be read or is not a valid replay
+     */
+    public static SlidingPuzzleReplay load(Path file) throws IOException {
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(stream, Files.size(file));
+        }
+    }
+
+    /**
+     * Reads a replay from a stream. Header values are checked against what the
+     * game can produce before anything is allocated, and move data is buffered
+     * only as far as the stream actually supplies it.
+     *
+     * @param stream source positioned at the start of a replay
+     * @return parsed replay
+     * @throws IOException if the data is truncated or not a valid replay
+     */
+    public static SlidingPuzzleReplay read(InputStream stream) throws IOException {
+        return read(stream, Long.MAX_VALUE);
+    }
+
+    private static SlidingPuzzleReplay read(InputStream stream, long length) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a sliding puzzle replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+        long seed = in.readLong();
+        int rows = in.readShort();
+        int cols = in.readShort();
+        int difficulty = in.readUnsignedByte();
+        int modeIndex = in.readUnsignedByte();
+        long shuffleMoves = in.readLong();
+        int claimedMoves = in.readInt();
+        int moveCount = in.readInt();
+        SlidingPuzzleShuffler.Mode[] modes = SlidingPuzzleShuffler.Mode.values();
+        if (modeIndex >= modes.length || moveCount < 0) {
+            throw new IOException("Corrupt replay header");
+        }
+        if (rows < SlidingPuzzleGame.MIN_SIZE || cols < SlidingPuzzleGame.MIN_SIZE
+                || rows > SlidingPuzzleGame.MAX_SIZE || cols > SlidingPuzzleGame.MAX_SIZE) {
+            throw new IOException("Unsupported replay dimensions: " + rows + "x" + cols);
+        }
+        if (shuffleMoves < 0 || shuffleMoves > SlidingPuzzleGame.MAX_SHUFFLE_MOVES) {
+            throw new IOException("Corrupt replay header: shuffle length " + shuffleMoves);
+        }
+        // Every move takes a quarter byte of packed data and at least one byte
+        // of time delta.
+        int packedBytes = (int) (((long) moveCount + 3) / 4);
+        if ((long) packedBytes + moveCount > length - HEADER_BYTES) {
+            throw new EOFException("Truncated replay");
+        }
+
+        int words = wordsFor(moveCount);
+        long[] moves = new long[Math.min(words, wordsFor(INITIAL_MOVES))];
+        for (int i = 0; i < packedBytes; i++) {
+            if (i / 8 == moves.length) {
+                moves = Arrays.copyOf(moves, (int) Math.min(words, 2L * moves.length));
+            }
+            moves[i / 8] |= (long) in.readUnsignedByte() << ((i % 8) * 8);
+        }
+        int[] deltas = new int[Math.min(moveCount, INITIAL_MOVES)];
+        for (int i = 0; i < moveCount; i++) {
+            if (i == deltas.length) {
+                deltas = Arrays.copyOf(deltas, (int) Math.min(moveCount, 2L * deltas.length));
+            }
+            deltas[i] = readVarInt(in);
+        }
+        try {
+            return new SlidingPuzzleReplay(seed, rows, cols, difficulty, modes[modeIndex], shuffleMoves,
+                    claimedMoves, moveCount, moves, deltas);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Corrupt replay: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Writes the replay to a file, creating parent directories as needed.
+     *
+     * @param file destination file
+     * @throws IOException if writing fails
+     */
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(stream);
+        }
+    }
+
+    /**
+     * Writes the replay in the binary format described in the file header.
+     *
+     * @param stream destination stream; flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(seed);
+        out.writeShort(rows);
+        out.writeShort(cols);
+        out.writeByte(difficulty);
+        out.writeByte(mode.ordinal());
+        out.writeLong(shuffleMoves);
+        out.writeInt(claimedMoves);
+        out.writeInt(moveCount);
+        int packedBytes = (moveCount + 3) / 4;
+        for (int i = 0; i < packedBytes; i++) {
+            out.writeByte((int) (moves[i / 8] >>> ((i % 8) * 8)));
+        }
+        for (int delta : deltas) {
+            writeVarInt(out, delta);
+        }
+        out.flush();
+    }
+
+    /**
+     * Regenerates the starting board exactly as the game produced it.
+     *
+     * @return row-major board where {@code 0} marks the empty slot
+     */
+    public int[] createStartingBoard() {
+        return createStartingBoard(new SlidingPuzzleShuffler(rows, cols));
+    }
+
+    /**
+     * Regenerates the starting board using a caller-supplied shuffler, letting
+     * verifiers reuse one shuffler per board shape.
+     *
+     * @param shuffler shuffler matching this replay's dimensions
+     * @return row-major board where {@code 0} marks the empty slot
+     */
+    int[] createStartingBoard(SlidingPuzzleShuffler shuffler) {
+        int[] board = new int[rows * cols];
+        SplittableRandom random = new SplittableRandom(SlidingPuzzleGame.boardSeed(seed, rows, cols, difficulty));
+        shuffler.shuffle(board, mode, shuffleMoves, random);
+        return board;
+    }
+
+    /**
+     * @return board seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return number of board rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of board columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return difficulty level the board was generated for
+     */
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @return shuffle strategy used to generate the board
+     */
+    public SlidingPuzzleShuffler.Mode getShuffleMode() {
+        return mode;
+    }
+
+    /**
+     * @return random-walk length used to generate the board
+     */
+    public long getShuffleMoves() {
+        return shuffleMoves;
+    }
+
+    /**
+     * @return move count the score was computed from
+     */
+    public int getClaimedMoves() {
+        return claimedMoves;
+    }
+
+    /**
+     * @return number of recorded moves
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Reads one recorded move.
+     *
+     * @param index zero-based move index
+     * @return empty-slot direction using the {@link SlidingPuzzleMoveLog} codes
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move index " + index + " outside 0.." + (moveCount - 1));
+        }
+        return (int) (moves[index / MOVES_PER_WORD] >>> ((index % MOVES_PER_WORD) * 2)) & 3;
+    }
+
+    /**
+     * @return total recorded play time in milliseconds, up to the last move
+     */
+    public long getElapsedMillis() {
+        long total = 0;
+        for (int delta : deltas) {
+            total += delta;
+        }
+        return total;
+    }
+
+    /**
+     * Exposes the packed move words to the verifier without copying.
+     */
+    long[] packedMoves() {
+        return moves;
+    }
+
+    private static int wordsFor(int moveCount) {
+        return (int) (((long) moveCount + MOVES_PER_WORD - 1) / MOVES_PER_WORD);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated replay");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed time delta");
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * File: SlidingPuzzleReplayVerifier.java
+ * Description: Re-executes stored sliding puzzle replays on a primitive board to
+ *              confirm that the recorded moves are legal and solve the seeded
+ *              starting board in the claimed number of moves.
+ *
+ * Features:
+ * - Board size and shuffle settings recomputed from the difficulty rather
+ *   than taken from the file
+ * - Precomputed per-direction move table; no allocation per move
+ * - Packed moves decoded a word (32 moves) at a time
+ * - Incremental correct-tile count for constant-time goal detection
+ * - Batch verification of replay directories on a fork/join pool
+ *
+ * Usage: java SlidingPuzzleReplayVerifier <replay file or directory> [threads]
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks replays against the board generator. Instances cache the move table of
+ * the last board shape they saw and are therefore not thread-safe; batch
+ * verification gives every worker thread its own instance.
+ */
+public final class SlidingPuzzleReplayVerifier {
+    private static final int DIRECTIONS = GridAdjacency.MAX_NEIGHBORS;
+    private static final int MOVES_PER_WORD = 32;
+
+    private int rows;
+    private int cols;
+    private int[] targets = new int[0];
+    private SlidingPuzzleShuffler shuffler;
+
+    /**
+     * Outcome of verifying a replay.
+     */
+    public enum Status {
+        /** Moves are legal and solve the board exactly at the last move. */
+        VALID,
+        /** A move pushes the empty slot off the board. */
+        ILLEGAL_MOVE,
+        /** The board is not solved after the last move. */
+        NOT_SOLVED,
+        /** The board is solved before the last move. */
+        SOLVED_EARLY,
+        /** The claimed move count cannot result from the recorded path. */
+        MOVE_COUNT_MISMATCH,
+        /**
+         * The board size, difficulty or shuffle settings differ from what the
+         * game generates for the replay's difficulty.
+         */
+        BOARD_MISMATCH,
+        /** The replay file could not be read. */
+        CORRUPT
+    }
+
+    /**
+     * Verifies a single replay.
+     *
+     * @param replay replay to check
+     * @return verification result
+     */
+    public Result verify(SlidingPuzzleReplay replay) {
+        Result mismatch = checkBoardSettings(replay);
+        if (mismatch != null) {
+            return mismatch;
+        }
+        prepare(replay.getRows(), replay.getCols());
+        int size = rows * cols;
+        int[] board = replay.createStartingBoard(shuffler);
+        int blank = 0;
+        int correct = 0;
+        for (int cell = 0; cell < size; cell++) {
+            int value = board[cell];
+            if (value == 0) {
+                blank = cell;
+            } else if (value == cell + 1) {
+                correct++;
+            }
+        }
+
+        int solvedCount = size - 1;
+        int count = replay.getMoveCount();
+        long[] words = replay.packedMoves();
+        int index = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int limit = Math.min(MOVES_PER_WORD, count - index);
+            for (int i = 0; i < limit; i++, index++, word >>>= 2) {
+                if (correct == solvedCount) {
+                    return new Result(Status.SOLVED_EARLY, index, "Board solved after move " + index
+                            + " of " + count + ".");
+                }
+                int source = targets[blank * DIRECTIONS + (int) (word & 3)];
+                if (source < 0) {
+                    return new Result(Status.ILLEGAL_MOVE, index, "Move " + (index + 1)
+                            + " leaves the board.");
+                }
+                int tile = board[source];
+                if (source == tile - 1) {
+                    correct--;
+                } else if (blank == tile - 1) {
+                    correct++;
+                }
+                board[blank] = tile;
+                board[source] = 0;
+                blank = source;
+            }
+        }
+
+        if (correct != solvedCount) {
+            return new Result(Status.NOT_SOLVED, count, "Board is not solved after " + count + " moves.");
+        }
+        // Each free undo removes one move from both the path and the count, and
+        // each penalized undo removes one from the path but adds one to the count.
+        int claimed = replay.getClaimedMoves();
+        if (claimed < count || ((claimed - count) & 1) != 0) {
+            return new Result(Status.MOVE_COUNT_MISMATCH, count, "Claimed " + claimed
+                    + " moves but the recorded path has " + count + ".");
+        }
+        return new Result(Status.VALID, count, "Solved in " + claimed + " moves.");
+    }
+
+    /**
+     * Recomputes the board settings from the replay's difficulty and size with
+     * the game's own rules, so that the file cannot choose an easier board
+     * than the difficulty it claims.
+     *
+     * @return mismatch result, or {@code null} when the header is consistent
+     */
+    private static Result checkBoardSettings(SlidingPuzzleReplay replay) {
+        int rows = replay.getRows();
+        int cols = replay.getCols();
+        if (rows < SlidingPuzzleGame.MIN_SIZE || cols < SlidingPuzzleGame.MIN_SIZE
+                || rows > SlidingPuzzleGame.MAX_SIZE || cols > SlidingPuzzleGame.MAX_SIZE) {
+            return new Result(Status.BOARD_MISMATCH, 0, "Board size " + rows + "x" + cols + " is not playable.");
+        }
+        int level = replay.getDifficulty();
+        if (level < 1 || level > SlidingPuzzleGame.MAX_LEVEL) {
+            return new Result(Status.BOARD_MISMATCH, 0, "Unknown difficulty level " + level + ".");
+        }
+        SlidingPuzzleShuffler.Mode mode = SlidingPuzzleGame.getDefaultShuffleMode(level);
+        long shuffleMoves = SlidingPuzzleGame.getShuffleMoves(level, rows * cols);
+        if (replay.getShuffleMode() != mode || replay.getShuffleMoves() != shuffleMoves) {
+            return new Result(Status.BOARD_MISMATCH, 0, "Shuffle settings do not match "
+                    + SlidingPuzzleGame.getDifficultyLabel(level) + " (" + mode + ", " + shuffleMoves + " moves).");
+        }
+        return null;
+    }
+
+    /**
+     * Computes the highest score the replay can justify, using the same formula
+     * as the game with the time of the last recorded move.
+     *
+     * @param replay verified replay
+     * @return score ceiling for the replay
+     */
+    public static int maximumScore(SlidingPuzzleReplay replay) {
+        return SlidingPuzzleGame.computeScore(replay.getDifficulty(), replay.getRows() * replay.getCols(),
+                replay.getClaimedMoves(), replay.getElapsedMillis() / 1000);
+    }
+
+    /**
+     * Verifies every replay file in a directory on a dedicated pool.
+     *
+     * @param directory   directory containing {@code .sprp} files
+     * @param parallelism number of worker threads
+     * @return one result per file, in file name order
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<FileResult> verifyDirectory(Path directory, int parallelism) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SlidingPuzzleReplay.FILE_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        if (files.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        ThreadLocal<SlidingPuzzleReplayVerifier> verifiers = ThreadLocal.withInitial(SlidingPuzzleReplayVerifier::new);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            return pool.submit(() -> files.parallelStream()
+                    .map(file -> verifyFile(verifiers.get(), file))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Replay verification interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Replay verification failed", ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verifies a replay file or every replay in a directory and prints a
+     * summary with the replay throughput.
+     *
+     * @param args replay path and optional thread count
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java SlidingPuzzleReplayVerifier <replay file or directory> [threads]");
+            return;
+        }
+        Path target = Path.of(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        List<FileResult> results;
+        if (Files.isDirectory(target)) {
+            results = verifyDirectory(target, threads);
+        } else {
+            results = new ArrayList<>();
+            results.add(verifyFile(new SlidingPuzzleReplayVerifier(), target));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long moves = 0;
+        int valid = 0;
+        for (FileResult entry : results) {
+            Result result = entry.getResult();
+            moves += result.getMovesReplayed();
+            if (result.isValid()) {
+                valid++;
+            } else {
+                System.out.println(entry.getFile().getFileName() + ": " + result.getStatus() + " - "
+                        + result.getMessage());
+            }
+        }
+        double seconds = Math.max(elapsed, 1L) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%d of %d replays valid, %d moves in %.3f s (%.1f M moves/s)",
+                valid, results.size(), moves, seconds, moves / seconds / 1e6));
+    }
+
+    private static FileResult verifyFile(SlidingPuzzleReplayVerifier verifier, Path file) {
+        try {
+            return new FileResult(file, verifier.verify(SlidingPuzzleReplay.load(file)));
+        } catch (IOException ex) {
+            String message = ex instanceof EOFException ? "Truncated replay" : ex.getMessage();
+            return new FileResult(file, new Result(Status.CORRUPT, 0, message));
+        }
+    }
+
+    /**
+     * Looks up the table mapping (empty slot, direction) to the cell whose tile
+     * slides into the empty slot, or {@code -1} when the move leaves the board.
+     */
+    private void prepare(int rows, int cols) {
+        if (shuffler != null && this.rows == rows && this.cols == cols) {
+            return;
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.shuffler = new SlidingPuzzleShuffler(rows, cols);
+        this.targets = GridAdjacency.of(rows, cols).directionTable();
+    }
+
+    /**
+     * Outcome of verifying one replay.
+     */
+    public static final class Result {
+        private final Status status;
+        private final int movesReplayed;
+        private final String message;
+
+        Result(Status status, int movesReplayed, String message) {
+            this.status = status;
+            this.movesReplayed = movesReplayed;
+            this.message = message;
+        }
+
+        /**
+         * @return {@code true} when the replay proves the claimed result
+         */
+        public boolean isValid() {
+            return status == Status.VALID;
+        }
+
+        /**
+         * @return verification outcome
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return number of moves executed before the verdict
+         */
+        public int getMovesReplayed() {
+            return movesReplayed;
+        }
+
+        /**
+         * @return human-readable explanation of the outcome
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Verification result paired with the file it came from.
+     */
+    public static final class FileResult {
+        private final Path file;
+        private final Result result;
+
+        FileResult(Path file, Result result) {
+            this.file = file;
+            this.result = result;
+        }
+
+        /**
+         * @return replay file
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return verification result
+         */
+        public Result getResult() {
+            return result;
+        }
+    }
+}
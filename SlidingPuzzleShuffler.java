@@ -0,0 +1,274 @@
+/**
+ * File: SlidingPuzzleShuffler.java
+ * Description: Allocation-free shuffle engine for the sliding puzzle. Runs the
+ *              random walk of the empty slot on a primitive board so that
+ *              difficulty-driven shuffles of millions of moves stay fast, or
+ *              draws a uniformly random solvable permutation directly.
+ *
+ * Features:
+ * - Primitive row-major board where {@code 0} represents the empty slot
+ * - Per-position neighbor tables shared per board shape via {@link GridAdjacency}
+ * - Fast {@link SplittableRandom}-driven move selection without per-step allocation
+ * - No scoring, timestamps, or grid writes while the walk is running
+ * - O(n) permutation mode with O(n log n) Fenwick-tree parity correction
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Produces solvable sliding puzzle permutations by walking the empty slot
+ * across a primitive board. Instances are tied to a single board shape and may
+ * be reused for any number of shuffles.
+ */
+public final class SlidingPuzzleShuffler {
+    /**
+     * Strategy used to produce a shuffled board.
+     */
+    public enum Mode {
+        /** Random walk of the empty slot; short walks keep boards near solved. */
+        RANDOM_WALK,
+        /** Uniformly random solvable permutation generated in linear time. */
+        RANDOM_PERMUTATION
+    }
+
+    private static final int MAX_NEIGHBORS = GridAdjacency.MAX_NEIGHBORS;
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final int[] neighbors;
+    private final int[] neighborCounts;
+    private final int[] fenwick;
+
+    /**
+     * Creates a shuffler for boards of the supplied dimensions, using the
+     * shared neighbor table for every empty-slot position.
+     *
+     * @param rows number of board rows
+     * @param cols number of board columns
+     * @throws IllegalArgumentException if either dimension is less than 1
+     */
+    public SlidingPuzzleShuffler(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Row and column sizes must be positive integers.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        GridAdjacency adjacency = GridAdjacency.of(rows, cols);
+        this.neighbors = adjacency.neighborTable();
+        this.neighborCounts = adjacency.neighborCounts();
+        this.fenwick = new int[size];
+    }
+
+    /**
+     * @return number of rows handled by this shuffler
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of columns handled by this shuffler
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Indicates whether this shuffler can be reused for the supplied dimensions.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the precomputed tables match the shape
+     */
+    public boolean matches(int rows, int cols) {
+        return this.rows == rows && this.cols == cols;
+    }
+
+    /**
+     * Writes the solved configuration into the supplied board: tiles
+     * {@code 1..size-1} in row-major order followed by the empty slot.
+     *
+     * @param board destination array with one entry per cell
+     */
+    public void fillSolved(int[] board) {
+        checkBoard(board);
+        for (int i = 0; i < size - 1; i++) {
+            board[i] = i + 1;
+        }
+        board[size - 1] = 0;
+    }
+
+    /**
+     * Resets the board to the solved state and performs the requested number of
+     * uniformly random empty-slot moves.
+     *
+     * @param board  destination array with one entry per cell
+     * @param moves  number of random-walk steps to perform
+     * @param random source of randomness
+     * @return index of the empty slot after shuffling
+     */
+    public int shuffle(int[] board, long moves, SplittableRandom random) {
+        fillSolved(board);
+        return walk(board, size - 1, moves, random);
+    }
+
+    /**
+     * Continues a random walk from an arbitrary board state.
+     *
+     * @param board      board to mutate in place
+     * @param emptyIndex current index of the empty slot
+     * @param moves      number of random-walk steps to perform
+     * @param random     source of randomness
+     * @return index of the empty slot after the walk
+     */
+    public int walk(int[] board, int emptyIndex, long moves, SplittableRandom random) {
+        checkBoard(board);
+        if (emptyIndex < 0 || emptyIndex >= size || board[emptyIndex] != 0) {
+            throw new IllegalArgumentException("emptyIndex must reference the empty slot");
+        }
+
+        final int[] table = neighbors;
+        final int[] counts = neighborCounts;
+        int empty = emptyIndex;
+        for (long step = 0; step < moves; step++) {
+            // Multiply-shift maps 32 random bits onto [0, count) without division.
+            int choice = (int) (((random.nextInt() & 0xFFFFFFFFL) * counts[empty]) >>> 32);
+            int next = table[empty * MAX_NEIGHBORS + choice];
+            board[empty] = board[next];
+            board[next] = 0;
+            empty = next;
+        }
+        return empty;
+    }
+
+    /**
+     * Fills the board with a uniformly random solvable permutation. A
+     * Fisher-Yates shuffle places every value, then the parity is corrected by
+     * swapping two tiles when the inversion count and empty-row rule mark the
+     * permutation as unsolvable.
+     *
+     * @param board  destination array with one entry per cell
+     * @param random source of randomness
+     * @return index of the empty slot in the generated board
+     * @throws IllegalStateException if the board has fewer than three cells
+     */
+    public int randomPermutation(int[] board, SplittableRandom random) {
+        checkBoard(board);
+        if (size < 3) {
+            throw new IllegalStateException("Permutation shuffling requires at least three cells");
+        }
+        do {
+            for (int i = 0; i < size; i++) {
+                board[i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int temp = board[i];
+                board[i] = board[j];
+                board[j] = temp;
+            }
+
+            if (!isSolvable(board)) {
+                // Swapping two non-empty tiles flips the inversion parity only.
+                int first = board[0] != 0 ? 0 : 2;
+                int second = board[1] != 0 ? 1 : 2;
+                int temp = board[first];
+                board[first] = board[second];
+                board[second] = temp;
+            }
+        } while (isSolved(board));
+
+        return indexOfEmpty(board);
+    }
+
+    /**
+     * Produces a shuffled board using the requested strategy.
+     *
+     * @param board  destination array with one entry per cell
+     * @param mode   shuffle strategy
+     * @param moves  random-walk length (ignored for permutation mode)
+     * @param random source of randomness
+     * @return index of the empty slot after shuffling
+     */
+    public int shuffle(int[] board, Mode mode, long moves, SplittableRandom random) {
+        if (mode == Mode.RANDOM_PERMUTATION) {
+            return randomPermutation(board, random);
+        }
+        return shuffle(board, moves, random);
+    }
+
+    /**
+     * Determines whether the supplied board can reach the solved state (tiles in
+     * ascending order with the empty slot bottom-right). For odd widths the
+     * inversion count must be even; for even widths the inversion count plus the
+     * empty slot's row must match the parity of the final row index.
+     *
+     * @param board row-major board where {@code 0} marks the empty slot
+     * @return {@code true} when the configuration is solvable
+     */
+    public boolean isSolvable(int[] board) {
+        checkBoard(board);
+        long inversions = countInversions(board);
+        if (cols % 2 == 1) {
+            return inversions % 2 == 0;
+        }
+        int emptyRowIndex = indexOfEmpty(board) / cols;
+        return (inversions + emptyRowIndex) % 2 == (rows - 1) % 2;
+    }
+
+    /**
+     * Counts pairs of tiles that appear in the wrong relative order, ignoring the
+     * empty slot. Uses a Fenwick tree so the count runs in O(n log n).
+     *
+     * @param board row-major board where {@code 0} marks the empty slot
+     * @return number of inversions
+     */
+    public long countInversions(int[] board) {
+        checkBoard(board);
+        final int[] tree = fenwick;
+        Arrays.fill(tree, 0);
+
+        long inversions = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            int value = board[i];
+            if (value == 0) {
+                continue;
+            }
+            // Tiles already inserted lie to the right; count the smaller ones.
+            for (int k = value - 1; k > 0; k -= k & -k) {
+                inversions += tree[k];
+            }
+            for (int k = value; k < size; k += k & -k) {
+                tree[k]++;
+            }
+        }
+        return inversions;
+    }
+
+    private boolean isSolved(int[] board) {
+        for (int i = 0; i < size - 1; i++) {
+            if (board[i] != i + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOfEmpty(int[] board) {
+        for (int i = 0; i < size; i++) {
+            if (board[i] == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Board does not contain an empty slot");
+    }
+
+    private void checkBoard(int[] board) {
+        if (board == null || board.length != size) {
+            throw new IllegalArgumentException("Board must contain exactly " + size + " cells");
+        }
+    }
+}
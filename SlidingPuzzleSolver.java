@@ -0,0 +1,586 @@
+/**
+ * File: SlidingPuzzleSolver.java
+ * Description: Optimal sliding puzzle solver based on iterative-deepening A*
+ *              (IDA*) over a compact primitive board encoding.
+ *
+ * Features:
+ * - Manhattan distance plus linear-conflict heuristic maintained incrementally
+ * - Optional additive pattern database heuristic refreshed per moved pattern
+ * - Allocation-free depth-first search using make/unmake moves
+ * - Parent-move pruning so the empty slot never immediately steps back
+ * - Optional wall-clock budget for interactive callers such as hints
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds optimal solutions for sliding puzzle boards using IDA*. Boards are
+ * supplied as row-major {@code int[]} arrays where {@code 0} marks the empty
+ * slot and the solved state lists tiles {@code 1..n-1} followed by the empty
+ * slot. Instances are tied to a single board shape, hold reusable scratch
+ * buffers, and are therefore not thread-safe.
+ */
+public final class SlidingPuzzleSolver {
+    private static final int MAX_NEIGHBORS = GridAdjacency.MAX_NEIGHBORS;
+    private static final int FOUND = -1;
+    private static final int NOT_FOUND = Integer.MAX_VALUE;
+    private static final long ABORT_CHECK_MASK = (1 << 12) - 1;
+
+    private final int rows;
+    private final int cols;
+    private final int size;
+    private final int[] neighbors;
+    private final int[] neighborCounts;
+    private final int[] distances;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] rowConflicts;
+    private final int[] colConflicts;
+    private final int[] lisScratch;
+    private final SlidingPuzzleShuffler parityChecker;
+    private final SlidingPuzzlePatternHeuristic patterns;
+    private final int[] positions;
+    private final int[] patternValues;
+    private final int[] reflectedValues;
+    private final int[] patternCells;
+
+    private int[] board;
+    private int[] path;
+    private int manhattan;
+    private int conflicts;
+    private int patternTotal;
+    private int reflectedTotal;
+    private long nodes;
+    private long deadline;
+    private AtomicBoolean cancelled;
+    private boolean aborted;
+
+    /**
+     * Creates a solver for boards of the supplied dimensions, precomputing the
+     * neighbor and distance tables used by the search.
+     *
+     * @param rows number of board rows
+     * @param cols number of board columns
+     * @throws IllegalArgumentException if either dimension is less than 2
+     */
+    public SlidingPuzzleSolver(int rows, int cols) {
+        this(rows, cols, null);
+    }
+
+    /**
+     * Creates a solver guided by additive pattern databases instead of the
+     * Manhattan distance and linear-conflict heuristic.
+     *
+     * @param rows     number of board rows
+     * @param cols     number of board columns
+     * @param patterns pattern database heuristic for this shape, or {@code null}
+     *                 to use Manhattan distance plus linear conflict
+     * @throws IllegalArgumentException if either dimension is less than 2 or the
+     *                                  heuristic was built for another shape
+     */
+    public SlidingPuzzleSolver(int rows, int cols, SlidingPuzzlePatternHeuristic patterns) {
+        if (rows < 2 || cols < 2) {
+            throw new IllegalArgumentException("Solver requires at least a 2x2 board.");
+        }
+        if (patterns != null && !patterns.matches(rows, cols)) {
+            throw new IllegalArgumentException("Pattern databases were built for a different board shape.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        GridAdjacency adjacency = GridAdjacency.of(rows, cols);
+        this.neighbors = adjacency.neighborTable();
+        this.neighborCounts = adjacency.neighborCounts();
+        this.distances = new int[size * size];
+        this.rowOf = new int[size];
+        this.colOf = new int[size];
+        this.rowConflicts = new int[rows];
+        this.colConflicts = new int[cols];
+        this.lisScratch = new int[Math.max(rows, cols)];
+        this.parityChecker = new SlidingPuzzleShuffler(rows, cols);
+        this.path = new int[64];
+        this.patterns = patterns;
+        this.positions = new int[size];
+        int patternCount = patterns == null ? 0 : patterns.getPatternCount();
+        this.patternValues = new int[patternCount];
+        this.reflectedValues = new int[patternCount];
+        this.patternCells = new int[patterns == null ? 0 : patterns.getMaxPatternSize()];
+
+        for (int index = 0; index < size; index++) {
+            int row = index / cols;
+            int col = index % cols;
+            rowOf[index] = row;
+            colOf[index] = col;
+        }
+
+        for (int value = 1; value < size; value++) {
+            int home = value - 1;
+            for (int position = 0; position < size; position++) {
+                distances[value * size + position] = Math.abs(position / cols - home / cols)
+                        + Math.abs(position % cols - home % cols);
+            }
+        }
+    }
+
+    /**
+     * @return number of rows handled by this solver
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of columns handled by this solver
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Indicates whether this solver can be reused for the supplied dimensions.
+     *
+     * @param rows candidate row count
+     * @param cols candidate column count
+     * @return {@code true} when the precomputed tables match the shape
+     */
+    public boolean matches(int rows, int cols) {
+        return this.rows == rows && this.cols == cols;
+    }
+
+    /**
+     * @return {@code true} when the search is guided by pattern databases
+     */
+    public boolean usesPatternDatabases() {
+        return patterns != null;
+    }
+
+    /**
+     * Solves the supplied board optimally without a time limit.
+     *
+     * @param initialBoard row-major board where {@code 0} marks the empty slot
+     * @return search result containing the optimal move sequence
+     */
+    public Solution solve(int[] initialBoard) {
+        return solve(initialBoard, 0L);
+    }
+
+    /**
+     * Solves the supplied board optimally, giving up once the time budget has
+     * been exhausted.
+     *
+     * @param initialBoard row-major board where {@code 0} marks the empty slot
+     * @param budgetMillis maximum wall-clock time to spend, or {@code 0} for no
+     *                     limit
+     * @return search result; {@link Solution#isSolved()} is {@code false} when the
+     *         board is unsolvable or the budget ran out
+     */
+    public Solution solve(int[] initialBoard, long budgetMillis) {
+        if (initialBoard == null || initialBoard.length != size) {
+            throw new IllegalArgumentException("Board must contain exactly " + size + " cells");
+        }
+        long start = System.nanoTime();
+        if (!parityChecker.isSolvable(initialBoard)) {
+            return new Solution(null, 0L, System.nanoTime() - start, false);
+        }
+
+        int blank = prepare(initialBoard);
+        nodes = 0L;
+        aborted = false;
+        cancelled = null;
+        deadline = budgetMillis > 0 ? start + budgetMillis * 1_000_000L : Long.MAX_VALUE;
+
+        int bound = heuristic();
+        while (true) {
+            ensurePathCapacity(bound + 1);
+            int result = search(blank, -1, 0, bound);
+            if (result == FOUND) {
+                int[] tiles = new int[bound];
+                System.arraycopy(path, 0, tiles, 0, bound);
+                return new Solution(tiles, nodes, System.nanoTime() - start, true);
+            }
+            if (aborted || result == NOT_FOUND) {
+                return new Solution(null, nodes, System.nanoTime() - start, false);
+            }
+            bound = result;
+        }
+    }
+
+    /**
+     * Searches the subtree below an intermediate board reached after
+     * {@code depth} moves, for use by callers that split the tree across
+     * threads. The moves found below the board are left in the path buffer at
+     * indices {@code depth..bound-1}.
+     *
+     * @param start          board at the root of the subtree
+     * @param previous       cell the empty slot came from, or {@code -1}
+     * @param depth          number of moves already made to reach the board
+     * @param bound          f-cost bound of the current iteration
+     * @param cancel         flag polled during the search; set by any thread to
+     *                       stop every worker
+     * @param deadlineNanos  {@link System#nanoTime()} limit, or
+     *                       {@link Long#MAX_VALUE} for none
+     * @return {@code -1} when a solution was found, {@link Integer#MAX_VALUE}
+     *         when the search was cancelled, timed out or exhausted, otherwise
+     *         the smallest f-cost exceeding the bound
+     */
+    int searchSubtree(int[] start, int previous, int depth, int bound, AtomicBoolean cancel, long deadlineNanos) {
+        int blank = prepare(start);
+        nodes = 0L;
+        aborted = false;
+        cancelled = cancel;
+        deadline = deadlineNanos;
+        ensurePathCapacity(bound + 1);
+        return search(blank, previous, depth, bound);
+    }
+
+    /**
+     * @return {@code true} when the last subtree search stopped early because of
+     *         cancellation or the deadline
+     */
+    boolean wasAborted() {
+        return aborted;
+    }
+
+    /**
+     * @return nodes expanded by the last search
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Copies part of the path buffer left by the last successful search.
+     */
+    int[] copyPath(int from, int to) {
+        return Arrays.copyOfRange(path, from, to);
+    }
+
+    /**
+     * Evaluates the active heuristic for an arbitrary board.
+     *
+     * @param candidate row-major board where {@code 0} marks the empty slot
+     * @return admissible estimate of the remaining moves
+     */
+    int estimate(int[] candidate) {
+        prepare(candidate);
+        return heuristic();
+    }
+
+    /**
+     * Loads a board into the search state and computes every incremental
+     * heuristic term from scratch.
+     *
+     * @return index of the empty slot
+     */
+    private int prepare(int[] initial) {
+        board = initial.clone();
+        int blank = -1;
+        manhattan = 0;
+        for (int position = 0; position < size; position++) {
+            int value = board[position];
+            positions[value] = position;
+            if (value == 0) {
+                blank = position;
+            } else {
+                manhattan += distances[value * size + position];
+            }
+        }
+        conflicts = 0;
+        for (int row = 0; row < rows; row++) {
+            rowConflicts[row] = rowConflict(row);
+            conflicts += rowConflicts[row];
+        }
+        for (int col = 0; col < cols; col++) {
+            colConflicts[col] = colConflict(col);
+            conflicts += colConflicts[col];
+        }
+        patternTotal = 0;
+        reflectedTotal = 0;
+        for (int pattern = 0; pattern < patternValues.length; pattern++) {
+            patternValues[pattern] = patterns.evaluate(pattern, positions, patternCells);
+            patternTotal += patternValues[pattern];
+            if (patterns.isReflectable()) {
+                reflectedValues[pattern] = patterns.evaluateReflected(pattern, positions, patternCells);
+                reflectedTotal += reflectedValues[pattern];
+            }
+        }
+        return blank;
+    }
+
+    /**
+     * Depth-first search bounded by {@code bound}. Moves are applied in place
+     * and reverted on return so the search allocates nothing.
+     *
+     * @return {@link #FOUND} when solved, otherwise the smallest f-cost that
+     *         exceeded the bound
+     */
+    private int search(int blank, int previous, int depth, int bound) {
+        int heuristic = heuristic();
+        int cost = depth + heuristic;
+        if (cost > bound) {
+            return cost;
+        }
+        if (heuristic == 0) {
+            return FOUND;
+        }
+        if ((++nodes & ABORT_CHECK_MASK) == 0
+                && ((cancelled != null && cancelled.get()) || System.nanoTime() > deadline)) {
+            aborted = true;
+            return NOT_FOUND;
+        }
+
+        int minimum = NOT_FOUND;
+        int base = blank * MAX_NEIGHBORS;
+        int count = neighborCounts[blank];
+        for (int i = 0; i < count; i++) {
+            int next = neighbors[base + i];
+            if (next == previous) {
+                continue;
+            }
+
+            int tile = board[next];
+            int savedManhattan = manhattan;
+            board[blank] = tile;
+            board[next] = 0;
+            manhattan += distances[tile * size + blank] - distances[tile * size + next];
+            path[depth] = tile;
+
+            int result;
+            if (patterns != null) {
+                result = searchWithPatterns(tile, blank, next, depth, bound);
+            } else {
+                result = searchWithConflicts(tile, blank, next, depth, bound);
+            }
+
+            board[next] = tile;
+            board[blank] = 0;
+            manhattan = savedManhattan;
+
+            if (result == FOUND) {
+                return FOUND;
+            }
+            if (aborted) {
+                return NOT_FOUND;
+            }
+            if (result < minimum) {
+                minimum = result;
+            }
+        }
+        return minimum;
+    }
+
+    /**
+     * Current admissible estimate: the larger of the direct and reflected
+     * pattern database sums, or Manhattan distance plus linear conflict.
+     */
+    private int heuristic() {
+        if (patterns != null) {
+            return Math.max(patternTotal, reflectedTotal);
+        }
+        return manhattan + conflicts;
+    }
+
+    /**
+     * Updates the linear-conflict state for a tile that has just slid from
+     * {@code next} into {@code blank}, recurses, and restores the state.
+     */
+    private int searchWithConflicts(int tile, int blank, int next, int depth, int bound) {
+        int savedConflicts = conflicts;
+        // Only the line matching the tile's home row (or column) can gain or
+        // lose a conflict; the tile is ignored by every other line.
+        boolean vertical = colOf[next] == colOf[blank];
+        int homeLine = vertical ? rowOf[tile - 1] : colOf[tile - 1];
+        int line = -1;
+        if (homeLine == (vertical ? rowOf[next] : colOf[next])
+                || homeLine == (vertical ? rowOf[blank] : colOf[blank])) {
+            line = homeLine;
+        }
+        int savedLine = line < 0 ? 0 : (vertical ? rowConflicts[line] : colConflicts[line]);
+        if (line >= 0) {
+            updateConflicts(vertical, line, savedLine);
+        }
+
+        int result = search(next, blank, depth + 1, bound);
+
+        conflicts = savedConflicts;
+        if (line >= 0) {
+            if (vertical) {
+                rowConflicts[line] = savedLine;
+            } else {
+                colConflicts[line] = savedLine;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Refreshes the single pattern containing the moved tile (and the single
+     * reflected pattern it feeds), recurses, and restores the values.
+     */
+    private int searchWithPatterns(int tile, int blank, int next, int depth, int bound) {
+        positions[tile] = blank;
+        positions[0] = next;
+
+        int pattern = patterns.patternOf(tile);
+        int savedPattern = patternValues[pattern];
+        patternValues[pattern] = patterns.evaluate(pattern, positions, patternCells);
+        patternTotal += patternValues[pattern] - savedPattern;
+
+        int reflected = -1;
+        int savedReflected = 0;
+        if (patterns.isReflectable()) {
+            reflected = patterns.reflectedPatternOf(tile);
+            savedReflected = reflectedValues[reflected];
+            reflectedValues[reflected] = patterns.evaluateReflected(reflected, positions, patternCells);
+            reflectedTotal += reflectedValues[reflected] - savedReflected;
+        }
+
+        int result = search(next, blank, depth + 1, bound);
+
+        positions[tile] = next;
+        positions[0] = blank;
+        patternTotal += savedPattern - patternValues[pattern];
+        patternValues[pattern] = savedPattern;
+        if (reflected >= 0) {
+            reflectedTotal += savedReflected - reflectedValues[reflected];
+            reflectedValues[reflected] = savedReflected;
+        }
+        return result;
+    }
+
+    /**
+     * Refreshes the linear-conflict total for the single line a move can
+     * affect: the moved tile's home row for vertical moves, or its home column
+     * for horizontal moves.
+     */
+    private void updateConflicts(boolean vertical, int line, int savedLine) {
+        if (vertical) {
+            rowConflicts[line] = rowConflict(line);
+            conflicts += rowConflicts[line] - savedLine;
+        } else {
+            colConflicts[line] = colConflict(line);
+            conflicts += colConflicts[line] - savedLine;
+        }
+    }
+
+    /**
+     * Computes the linear-conflict penalty for a row: two extra moves for every
+     * tile that must leave the row so the remaining home-row tiles are ordered.
+     */
+    private int rowConflict(int row) {
+        int length = 0;
+        int inRow = 0;
+        int offset = row * cols;
+        for (int col = 0; col < cols; col++) {
+            int value = board[offset + col];
+            if (value != 0 && rowOf[value - 1] == row) {
+                inRow++;
+                length = insertLis(length, colOf[value - 1]);
+            }
+        }
+        return 2 * (inRow - length);
+    }
+
+    /**
+     * Computes the linear-conflict penalty for a column using the same rule as
+     * {@link #rowConflict(int)}.
+     */
+    private int colConflict(int col) {
+        int length = 0;
+        int inCol = 0;
+        for (int position = col; position < size; position += cols) {
+            int value = board[position];
+            if (value != 0 && colOf[value - 1] == col) {
+                inCol++;
+                length = insertLis(length, rowOf[value - 1]);
+            }
+        }
+        return 2 * (inCol - length);
+    }
+
+    /**
+     * Patience-sorting step for the longest increasing subsequence of goal
+     * indices along a line.
+     */
+    private int insertLis(int length, int key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lisScratch[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        lisScratch[low] = key;
+        return low == length ? length + 1 : length;
+    }
+
+    private void ensurePathCapacity(int capacity) {
+        if (path.length < capacity) {
+            path = Arrays.copyOf(path, Math.max(capacity, path.length * 2));
+        }
+    }
+
+    /**
+     * Result of a solver run.
+     */
+    public static final class Solution {
+        private final int[] tiles;
+        private final long nodes;
+        private final long elapsedNanos;
+        private final boolean solved;
+
+        Solution(int[] tiles, long nodes, long elapsedNanos, boolean solved) {
+            this.tiles = tiles == null ? new int[0] : tiles;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+            this.solved = solved;
+        }
+
+        /**
+         * @return {@code true} when a complete solution was found
+         */
+        public boolean isSolved() {
+            return solved;
+        }
+
+        /**
+         * @return tile values to slide into the empty slot, in order
+         */
+        public int[] getTiles() {
+            return tiles.clone();
+        }
+
+        /**
+         * @return number of moves in the solution
+         */
+        public int getLength() {
+            return tiles.length;
+        }
+
+        /**
+         * @return first tile to slide, or {@code 0} when no move is required or
+         *         known
+         */
+        public int getFirstTile() {
+            return tiles.length == 0 ? 0 : tiles[0];
+        }
+
+        /**
+         * @return number of search nodes expanded
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * @return wall-clock time spent searching, in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -1,9 +1,11 @@
-
 /**
  * File: Tile.java
  * Description: Represents a single cell on the puzzle grid, tracking its
  *              coordinates, the occupying {@link GamePiece}, and lightweight
- *              state metadata describing recent updates.
+ *              state metadata describing recent updates. Tiles belonging to a
+ *              {@link Grid} report changes to the grid's change tracking;
+ *              tiles of a grid using flat storage are views onto the grid's
+ *              arrays.
  */
 
 import java.util.Objects;
@@ -18,22 +20,39 @@ import java.util.Objects;
 public final class Tile<T extends GamePiece> {
     private final int row;
     private final int col;
+    private Grid<T> owner;
+    private boolean view;
     private T occupant;
     private boolean recentlyUpdated;
-    private long lastUpdatedAt;
+    private long generation;
 
     /**
-     * Creates a new tile at the specified coordinates.
+     * Creates a new standalone tile at the specified coordinates.
      *
      * @param row      zero-based row index
      * @param col      zero-based column index
      * @param occupant initial game piece occupying the tile (may be {@code null})
      */
     public Tile(int row, int col, T occupant) {
+        this(null, row, col, occupant, false);
+    }
+
+    /**
+     * Creates a tile belonging to a grid. Writes are reported to the grid's
+     * change tracking; a view tile also stores its occupant in the grid.
+     *
+     * @param owner    grid holding the cell
+     * @param row      zero-based row index
+     * @param col      zero-based column index
+     * @param occupant initial game piece for non-view tiles (may be {@code null})
+     * @param view     {@code true} when the occupant lives in the grid's arrays
+     */
+    Tile(Grid<T> owner, int row, int col, T occupant, boolean view) {
         this.row = row;
         this.col = col;
-        setOccupantInternal(occupant);
-        this.recentlyUpdated = false;
+        this.owner = owner;
+        this.view = view;
+        this.occupant = occupant;
     }
 
     /**
@@ -56,7 +75,7 @@ public final class Tile<T extends GamePiece> {
      * @return the occupant piece, or {@code null} when empty
      */
     public T getOccupant() {
-        return occupant;
+        return view ? owner.readCell(row, col) : occupant;
     }
 
     /**
@@ -65,16 +84,14 @@ public final class Tile<T extends GamePiece> {
      * @param newOccupant the new piece occupying the tile
      */
     public void setOccupant(T newOccupant) {
-        setOccupantInternal(Objects.requireNonNull(newOccupant, "newOccupant must not be null"));
-        this.recentlyUpdated = true;
+        store(Objects.requireNonNull(newOccupant, "newOccupant must not be null"));
     }
 
     /**
      * Clears the tile so that it no longer holds a piece.
      */
     public void clear() {
-        setOccupantInternal(null);
-        this.recentlyUpdated = true;
+        store(null);
     }
 
     /**
@@ -84,39 +101,81 @@ public final class Tile<T extends GamePiece> {
      * @return {@code true} when the tile is empty
      */
     public boolean isEmpty() {
-        return occupant == null || occupant.isEmpty();
+        T current = getOccupant();
+        return current == null || current.isEmpty();
     }
 
     /**
      * @return {@code true} if the tile was modified since the last time the flag
-     *         was cleared
+     *         was cleared; for grid tiles this is the grid's dirty bit for the
+     *         cell
      */
     public boolean wasRecentlyUpdated() {
-        return recentlyUpdated;
+        return owner != null ? owner.isDirty(row, col) : recentlyUpdated;
     }
 
     /**
      * Resets the "recently updated" flag once the change has been processed.
      */
     public void acknowledgeUpdate() {
-        this.recentlyUpdated = false;
+        if (owner != null) {
+            owner.acknowledge(row, col);
+        } else {
+            this.recentlyUpdated = false;
+        }
+    }
+
+    /**
+     * @return generation of the latest modification to the tile; for grid tiles
+     *         this is the grid generation recorded for the cell
+     */
+    public long getGeneration() {
+        return owner != null ? owner.getCellGeneration(row, col) : generation;
     }
 
     /**
-     * @return system timestamp of the latest modification to the tile
+     * Detaches the tile from its grid, keeping its current occupant. Called
+     * when the grid is resized so that stale tiles behave as standalone tiles.
      */
-    public long getLastUpdatedAt() {
-        return lastUpdatedAt;
+    void detach() {
+        if (owner == null) {
+            return;
+        }
+        this.occupant = getOccupant();
+        this.recentlyUpdated = owner.isDirty(row, col);
+        this.generation = owner.getCellGeneration(row, col);
+        this.owner = null;
+        this.view = false;
+    }
+
+    /**
+     * Stores the occupant of a non-view grid tile without recording the
+     * change. Used by bulk operations that record all of their changes at
+     * once.
+     *
+     * @param newOccupant piece to store (may be {@code null})
+     */
+    void assign(T newOccupant) {
+        this.occupant = newOccupant;
     }
 
     /**
-     * Internal helper that updates the occupant reference and refreshes the last
-     * modified timestamp without toggling the public update flag.
+     * Internal helper that stores the occupant and records the change.
      *
      * @param newOccupant piece to store (may be {@code null} to represent an empty tile)
      */
-    private void setOccupantInternal(T newOccupant) {
+    private void store(T newOccupant) {
+        if (view) {
+            owner.writeCell(row, col, newOccupant);
+            return;
+        }
+        T previous = occupant;
         this.occupant = newOccupant;
-        this.lastUpdatedAt = System.currentTimeMillis();
+        if (owner != null) {
+            owner.recordChange(row, col, previous, newOccupant);
+        } else {
+            this.recentlyUpdated = true;
+            this.generation++;
+        }
     }
 }